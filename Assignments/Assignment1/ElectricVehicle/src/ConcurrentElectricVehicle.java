@@ -0,0 +1,232 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An electric vehicle that several threads may update and read at once.
+ *
+ * Same rules and public methods as ElectricVehicle, but state of charge and
+ * current efficiency live together in one State (its values are final), held in an
+ * AtomicReference. A writer builds the next State and swaps it in with
+ * compare-and-set (retrying if another writer got there first); a reader
+ * takes one State and computes from it. So range() and toString() always
+ * combine a state of charge and an efficiency that were current together,
+ * never the old one of one with the new one of the other, and no thread
+ * ever waits on a lock.
+ *
+ * Name, battery size, default efficiency and temperature curve never change.
+ */
+public class ConcurrentElectricVehicle {
+
+  // Fields
+
+  private final String name;
+  private final double batterySize;
+  private final double defaultEfficiency;
+  private final EfficiencyModel model;
+  private final AtomicReference<State> state;
+
+  // Constructors
+
+  /**
+   * Constructs a new ConcurrentElectricVehicle with the built-in temperature rule.
+   *
+   * Rules:
+   * - name can't be null/empty; otherwise "unknown EV"
+   * - batterySize (10.0, 150.0)
+   * - stateOfCharge (0.15, 1.0)
+   * - defaultEfficiency (0.5, 4.5)
+   * - currentEfficiency starts equal to defaultEfficiency
+   *
+   * @param name the EV name
+   * @param batterySize the battery size (kWh)
+   * @param stateOfCharge the state of charge (0.15 to 1.0)
+   * @param defaultEfficiency the rated efficiency (0.5 to 4.5)
+   */
+  public ConcurrentElectricVehicle(String name, double batterySize, double stateOfCharge,
+                                   double defaultEfficiency) {
+    this(name, batterySize, stateOfCharge, defaultEfficiency, null);
+  }
+
+  /**
+   * Constructs a new ConcurrentElectricVehicle with a calibrated temperature curve.
+   *
+   * @param name the EV name
+   * @param batterySize the battery size (kWh)
+   * @param stateOfCharge the state of charge (0.15 to 1.0)
+   * @param defaultEfficiency the rated efficiency (0.5 to 4.5)
+   * @param model temperature curve (null for the built-in rule)
+   */
+  public ConcurrentElectricVehicle(String name, double batterySize, double stateOfCharge,
+                                   double defaultEfficiency, EfficiencyModel model) {
+    this.name = (name == null || name.length() == 0) ? "unknown EV" : name;
+    this.batterySize = Fleet.clamp(batterySize, 10.0, 150.0);
+    this.defaultEfficiency = Fleet.clamp(defaultEfficiency, 0.5, 4.5);
+    this.model = model;
+    this.state = new AtomicReference<>(
+        new State(Fleet.clamp(stateOfCharge, 0.15, 1.0), this.defaultEfficiency));
+  }
+
+  // Range
+
+  /**
+   * Calculates the EV's current range from one consistent state.
+   * range = currentEfficiency * stateOfCharge * batterySize
+   *
+   * @return the computed range
+   */
+  public double range() {
+    return range(state.get());
+  }
+
+  /**
+   * Updates current efficiency based on temperature(F), with the same rules
+   * as ElectricVehicle.updateEfficiency. State of charge set concurrently by
+   * another thread is kept.
+   *
+   * @param currentTemp temperature in Fahrenheit
+   */
+  public void updateEfficiency(double currentTemp) {
+    double factor = model == null ? Fleet.efficiencyFactor(currentTemp) : model.factor(currentTemp);
+    double efficiency = factor * defaultEfficiency;
+    State current;
+    do {
+      current = state.get();
+    } while (!state.compareAndSet(current, new State(current.stateOfCharge, efficiency)));
+  }
+
+  /**
+   * Sets a new state of charge (0.15, 1.0). Efficiency set concurrently by
+   * another thread is kept.
+   *
+   * @param stateOfCharge new SoC decimal
+   */
+  public void setStateOfCharge(double stateOfCharge) {
+    double charge = Fleet.clamp(stateOfCharge, 0.15, 1.0);
+    State current;
+    do {
+      current = state.get();
+    } while (!state.compareAndSet(current, new State(charge, current.efficiency)));
+  }
+
+  /**
+   * Sets state of charge and efficiency (from temperature) in one step, for
+   * telemetry that reports both together.
+   *
+   * @param stateOfCharge new SoC decimal
+   * @param currentTemp temperature in Fahrenheit
+   */
+  public void update(double stateOfCharge, double currentTemp) {
+    double factor = model == null ? Fleet.efficiencyFactor(currentTemp) : model.factor(currentTemp);
+    state.set(new State(Fleet.clamp(stateOfCharge, 0.15, 1.0), factor * defaultEfficiency));
+  }
+
+  // Getters
+
+  /**
+   * Returns the current state of charge and efficiency as one snapshot.
+   *
+   * @return current state
+   */
+  public State getState() {
+    return state.get();
+  }
+
+  /**
+   * Returns the current efficiency
+   *
+   * @return current efficiency
+   */
+  public double getEfficiency() {
+    return state.get().efficiency;
+  }
+
+  /**
+   * Returns the battery size (in kWh).
+   *
+   * @return battery size
+   */
+  public double getBatterySize() {
+    return batterySize;
+  }
+
+  /**
+   * Returns the state of charge (0.15 - 1.0).
+   *
+   * @return state of charge as decimal
+   */
+  public double getStateOfCharge() {
+    return state.get().stateOfCharge;
+  }
+
+  /**
+   * Returns the EV name.
+   *
+   * @return name
+   */
+  public String getName() {
+    return name;
+  }
+
+  // toString
+
+  /**
+   * Returns a formatted string describing the EV, from one consistent state.
+   * e.g. Ford MachE SOC: 50.0% Range (miles): 131.8
+   *
+   * @return formatted string
+   */
+  public String toString() {
+    State current = state.get();
+    String line = current.rendered;
+    if (line == null) {
+      line = EvFormat.appendStatus(new StringBuilder(64), name, current.stateOfCharge,
+          range(current)).toString();
+      current.rendered = line;   // racy but benign: every thread renders the same text
+    }
+    return line;
+  }
+
+  private double range(State s) {
+    return s.efficiency * s.stateOfCharge * batterySize;
+  }
+
+  /**
+   * State of charge and current efficiency, as published together.
+   *
+   * The two values are final and never change. The only mutable field is
+   * rendered, a cache of toString() for this state: it starts null and is
+   * filled on first use without synchronization. That race is benign, since
+   * every thread computes the same text from the same final values, and a
+   * String is safe to share even when published racily; at worst two threads
+   * both render it once.
+   */
+  public static final class State {
+
+    private final double stateOfCharge;
+    private final double efficiency;
+    // racy cache of the status line, see the class doc
+    private String rendered;
+
+    private State(double stateOfCharge, double efficiency) {
+      this.stateOfCharge = stateOfCharge;
+      this.efficiency = efficiency;
+    }
+
+    /**
+     * Returns the state of charge (0.15 - 1.0).
+     *
+     * @return state of charge as decimal
+     */
+    public double getStateOfCharge() {
+      return stateOfCharge;
+    }
+
+    /**
+     * Returns the current efficiency.
+     *
+     * @return current efficiency
+     */
+    public double getEfficiency() {
+      return efficiency;
+    }
+  }
+}
@@ -0,0 +1,176 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A temperature-efficiency curve for one vehicle model, compiled into a
+ * lookup table.
+ *
+ * The curve is given as calibration points (temperature F, factor), sorted by
+ * temperature. Between two points the factor is linear; below the first
+ * point it is the first factor and above the last point the last factor.
+ * Listing a temperature twice makes a step: at that temperature the first
+ * factor applies, just above it the second.
+ *
+ * The built-in ElectricVehicle curve as calibration points:
+ *   15  0.50
+ *   65  1.00
+ *   77  1.00
+ *   77  0.85
+ *
+ * On construction the curve is evaluated once per tenth of a degree over the
+ * calibrated span (plus one entry above it). factor(temp) then rounds temp to
+ * the nearest tenth and reads the table: one array read and no comparisons
+ * against the curve, however many points it has. Readings between tenths
+ * get the value of the nearest tenth.
+ *
+ * Calibration file format: one "temperature factor" pair per line;
+ * blank lines and lines starting with # are ignored.
+ */
+public final class EfficiencyModel {
+
+  /** Table entries per degree. */
+  public static final int STEPS_PER_DEGREE = 10;
+
+  private static final double MAX_SPAN = 1000.0;
+
+  private final double[] table;
+  private final int firstTenth;
+
+  /**
+   * Compiles a model from calibration points.
+   *
+   * @param temps calibration temperatures (F), in non-decreasing order, each
+   *              listed at most twice
+   * @param factors factor at each temperature (more than 0, at most 1)
+   * @throws IllegalArgumentException if an array is null or empty, the
+   *                                  lengths differ, or a point is out of order or out of range
+   */
+  public EfficiencyModel(double[] temps, double[] factors) {
+    if (temps == null || factors == null || temps.length == 0 || temps.length != factors.length) {
+      throw new IllegalArgumentException("need the same number (at least 1) of temps and factors");
+    }
+    for (int i = 0; i < temps.length; i++) {
+      if (!Double.isFinite(temps[i])) {
+        throw new IllegalArgumentException("invalid temperature: " + temps[i]);
+      }
+      if (!(factors[i] > 0.0 && factors[i] <= 1.0)) {
+        throw new IllegalArgumentException("factor must be in (0, 1]: " + factors[i]);
+      }
+      if (i > 0 && temps[i] < temps[i - 1]) {
+        throw new IllegalArgumentException("temperatures must be in order: " + temps[i]);
+      }
+      if (i > 1 && temps[i] == temps[i - 2]) {
+        throw new IllegalArgumentException("temperature listed more than twice: " + temps[i]);
+      }
+    }
+    if (temps[temps.length - 1] - temps[0] > MAX_SPAN) {
+      throw new IllegalArgumentException("calibrated span is over " + MAX_SPAN + " degrees");
+    }
+
+    this.firstTenth = (int) Math.floor(temps[0] * STEPS_PER_DEGREE);
+    int lastTenth = (int) Math.ceil(temps[temps.length - 1] * STEPS_PER_DEGREE) + 1;
+    this.table = new double[lastTenth - firstTenth + 1];
+    for (int i = 0; i < table.length; i++) {
+      table[i] = evaluate(temps, factors, (firstTenth + i) / (double) STEPS_PER_DEGREE);
+    }
+  }
+
+  /**
+   * Loads a model from a calibration file.
+   *
+   * @param file calibration file
+   * @return the compiled model
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if file is null or a line is malformed
+   *                                  (the message names the line)
+   */
+  public static EfficiencyModel load(Path file) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Compiles a model from the lines of a calibration file.
+   *
+   * @param lines calibration lines
+   * @return the compiled model
+   * @throws IllegalArgumentException if lines is null or a line is malformed
+   */
+  public static EfficiencyModel parse(List<String> lines) {
+    if (lines == null) {
+      throw new IllegalArgumentException("lines cannot be null");
+    }
+    double[] temps = new double[lines.size()];
+    double[] factors = new double[lines.size()];
+    int count = 0;
+    for (int n = 0; n < lines.size(); n++) {
+      String line = lines.get(n).trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] parts = line.split("\\s+");
+      try {
+        if (parts.length != 2) {
+          throw new NumberFormatException();
+        }
+        temps[count] = Double.parseDouble(parts[0]);
+        factors[count] = Double.parseDouble(parts[1]);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("line " + (n + 1) + ": expected \"temperature factor\"");
+      }
+      count++;
+    }
+    return new EfficiencyModel(Arrays.copyOf(temps, count), Arrays.copyOf(factors, count));
+  }
+
+  /**
+   * Returns the built-in curve (see ElectricVehicle.updateEfficiency) as a model.
+   *
+   * @return the standard model
+   */
+  public static EfficiencyModel standard() {
+    return new EfficiencyModel(new double[] {15.0, 65.0, 77.0, 77.0},
+        new double[] {0.50, 1.00, 1.00, 0.85});
+  }
+
+  /**
+   * Returns the share of the default efficiency a vehicle has at a temperature.
+   *
+   * Temperatures beyond the calibrated span, infinities included, get the
+   * factor at that end of the curve; NaN gives NaN, as in the built-in rule.
+   *
+   * @param temp temperature in Fahrenheit (rounded to the nearest tenth)
+   * @return factor
+   */
+  public double factor(double temp) {
+    if (Double.isNaN(temp)) {
+      return Double.NaN;
+    }
+    // clamp as a double: the rounded long saturates for huge temperatures,
+    // and subtracting firstTenth from it could wrap around
+    double i = Math.round(temp * STEPS_PER_DEGREE) - (double) firstTenth;
+    return table[(int) Math.max(0.0, Math.min(i, table.length - 1))];
+  }
+
+  /**
+   * Evaluates the curve exactly; used to fill the table.
+   */
+  private static double evaluate(double[] temps, double[] factors, double t) {
+    if (t <= temps[0]) {
+      return factors[0];
+    }
+    for (int k = 1; k < temps.length; k++) {
+      if (t <= temps[k]) {
+        double share = (t - temps[k - 1]) / (temps[k] - temps[k - 1]);
+        return factors[k - 1] + share * (factors[k] - factors[k - 1]);
+      }
+    }
+    return factors[factors.length - 1];
+  }
+}
@@ -3,17 +3,20 @@
  * Represents an electric vehicle (EV)
  * fields include name, battery size, state of charge, and efficiency that
  * can change based on outside temperature.
+ *
+ * The values themselves are stored in a Fleet (one array per field);
+ * an ElectricVehicle is a view over one index of it. A vehicle made with
+ * the public constructor gets a fleet of its own (one array per field, with
+ * no subscriber lists or model table of its own); Fleet.get(index) returns
+ * views over a shared fleet.
  */
 
 public class ElectricVehicle {
 
   // Fields
 
-  private String name;
-  private double batterySize;
-  private double stateOfCharge;
-  private double currentEfficiency;
-  private final double defaultEfficiency;
+  private final Fleet fleet;
+  private final int index;
 
   // Constructor
 
@@ -33,22 +36,34 @@ public class ElectricVehicle {
    * @param defaultEfficiency the rated efficiency (0.5 to 4.5)
    */
   public ElectricVehicle(String name, double batterySize, double stateOfCharge, double defaultEfficiency) {
-    // if name is null or empty, set name to "unknown EV"
-    if (name == null || name.length() == 0) {
-      this.name = "unknown EV";
-    } else {
-      this.name = name;
-    }
-
-    // Clamp numeric fields
-    this.batterySize = clamp(batterySize, 10.0, 150.0);
-    this.stateOfCharge = clamp(stateOfCharge, 0.15, 1.0);
+    this(name, batterySize, stateOfCharge, defaultEfficiency, null);
+  }
 
-    // defaultEfficiency never changes, so we store it in a final field
-    this.defaultEfficiency = clamp(defaultEfficiency, 0.5, 4.5);
+  /**
+   * Constructs a new ElectricVehicle whose efficiency follows a calibrated
+   * temperature curve instead of the built-in rule (see EfficiencyModel).
+   *
+   * @param name the EV name
+   * @param batterySize the battery size (kWh)
+   * @param stateOfCharge the state of charge (0.15 to 1.0)
+   * @param defaultEfficiency the rated efficiency (0.5 to 4.5)
+   * @param model temperature curve (null for the built-in rule)
+   */
+  public ElectricVehicle(String name, double batterySize, double stateOfCharge,
+                         double defaultEfficiency, EfficiencyModel model) {
+    this.fleet = new Fleet(1, model);
+    this.index = fleet.add(name, batterySize, stateOfCharge, defaultEfficiency);
+  }
 
-    // current efficiency starts as default efficiency
-    this.currentEfficiency = this.defaultEfficiency;
+  /**
+   * Constructs a view over vehicle index of fleet (see Fleet.get).
+   *
+   * @param fleet the fleet holding the values
+   * @param index vehicle index in the fleet
+   */
+  ElectricVehicle(Fleet fleet, int index) {
+    this.fleet = fleet;
+    this.index = index;
   }
 
   // Range
@@ -60,7 +75,7 @@ public class ElectricVehicle {
    * @return the computed range
    */
   public double range() {
-    return this.currentEfficiency * this.stateOfCharge * this.batterySize;
+    return fleet.range(index);
   }
 
   /**
@@ -70,31 +85,12 @@ public class ElectricVehicle {
    * - {65.0 <= temp <= 77.0} => 100% of defaultEfficiency
    * - {temp > 77.0 } => 85% of defaultEfficiency
    * - {temp < 65.0 } => reduce by 1% per degree below 65, max 50% reduction
+   * or, if the vehicle was given an EfficiencyModel, that model's curve.
    *
    * @param currentTemp temperature in Fahrenheit
    */
   public void updateEfficiency(double currentTemp) {
-    if (currentTemp >= 65.0 && currentTemp <= 77.0) {
-      this.currentEfficiency = 1.0 * this.defaultEfficiency;
-      return;
-    }
-
-    if (currentTemp > 77.0) {
-      this.currentEfficiency = 0.85 * this.defaultEfficiency;
-      return;
-    }
-
-    // currentTemp < 65.0
-    // factor is the percentage of default efficiency the EV have at this temp
-    double degreesBelow = 65.0 - currentTemp;      // fractional allowed
-    double factor = 1.0 - (degreesBelow * 0.01);   // 1% per degree below
-
-    // factor cannot go below 0.50
-    if (factor < 0.50) {
-      factor = 0.50;
-    }
-
-    this.currentEfficiency = factor * this.defaultEfficiency;
+    fleet.updateEfficiency(index, currentTemp);
   }
 
   // Getters
@@ -105,7 +101,7 @@ public class ElectricVehicle {
    * @return current efficiency
    */
   public double getEfficiency() {
-    return this.currentEfficiency;
+    return fleet.getEfficiency(index);
   }
 
   /**
@@ -114,7 +110,7 @@ public class ElectricVehicle {
    * @return battery size
    */
   public double getBatterySize() {
-    return this.batterySize;
+    return fleet.getBatterySize(index);
   }
 
   /**
@@ -123,7 +119,7 @@ public class ElectricVehicle {
    * @return state of charge as decimal
    */
   public double getStateOfCharge() {
-    return this.stateOfCharge;
+    return fleet.getStateOfCharge(index);
   }
 
   /**
@@ -132,7 +128,7 @@ public class ElectricVehicle {
    * @return name
    */
   public String getName() {
-    return this.name;
+    return fleet.getName(index);
   }
 
   /**
@@ -141,7 +137,7 @@ public class ElectricVehicle {
    * @param stateOfCharge new SoC decimal
    */
   public void setStateOfCharge(double stateOfCharge) {
-    this.stateOfCharge = clamp(stateOfCharge, 0.15, 1.0);
+    fleet.setStateOfCharge(index, stateOfCharge);
   }
 
   // toString
@@ -150,38 +146,26 @@ public class ElectricVehicle {
    * Returns a formatted string describing the EV.
    * e.g. Ford MachE SOC: 50.0% Range (miles): 131.8
    *
+   * The string is cached until the state of charge or efficiency changes.
+   *
    * @return formatted string
    */
 
   public String toString() {
-    return String.format(
-        "%s SOC: %.1f%% Range (miles): %.1f",
-        this.name,
-        this.stateOfCharge * 100.0,
-        this.range()
-    );
+    return fleet.render(index);
   }
 
-
-  // Helper - clamp
-
   /**
-   * Clamps forces a value to stay inside legal range (min - max).
-   * if {the value < min}, returns min,
-   * if {the value > max}, return max.
+   * Appends the same text as toString to a (reusable) builder.
    *
-   * @param value input value
-   * @param min minimum allowed
-   * @param max maximum allowed
-   * @return clamped value
+   * @param sb builder to append to
+   * @return sb
+   * @throws IllegalArgumentException if sb is null
    */
-  private static double clamp(double value, double min, double max) {
-    if (value < min) {
-      return min;
-    }
-    if (value > max) {
-      return max;
+  public StringBuilder appendTo(StringBuilder sb) {
+    if (sb == null) {
+      throw new IllegalArgumentException("sb cannot be null");
     }
-    return value;
+    return fleet.appendTo(index, sb);
   }
 }
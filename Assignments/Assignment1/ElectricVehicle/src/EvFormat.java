@@ -0,0 +1,70 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Writes the ElectricVehicle status line straight into a StringBuilder,
+ * without java.util.Formatter:
+ *   Ford MachE SOC: 50.0% Range (miles): 131.8
+ *
+ * Numbers come out exactly like String.format(Locale.ROOT, "%.1f"), which
+ * rounds the shortest decimal form of the double (Double.toString) half up.
+ * The decimal point is always '.', whatever the default locale: unlike the
+ * old String.format("%.1f") (default locale), a decimal-comma locale no
+ * longer turns 131.8 into "131,8". The fast
+ * path works on the value times ten as a long. Only when that lands within
+ * a hair of a .5 tie, where the binary value and its decimal form may round
+ * differently, is the decimal form rounded with BigDecimal instead.
+ */
+final class EvFormat {
+
+  private static final double TIE_WINDOW = 1e-6;
+  private static final double MAX_FAST = 1e14;
+
+  private EvFormat() {
+    // static helpers only
+  }
+
+  /**
+   * Appends "name SOC: s% Range (miles): r".
+   *
+   * @param sb builder to append to
+   * @param name vehicle name
+   * @param stateOfCharge state of charge (0.15 to 1.0)
+   * @param range range in miles
+   * @return sb
+   */
+  static StringBuilder appendStatus(StringBuilder sb, String name, double stateOfCharge,
+                                    double range) {
+    sb.append(name).append(" SOC: ");
+    appendTenths(sb, stateOfCharge * 100.0).append("% Range (miles): ");
+    return appendTenths(sb, range);
+  }
+
+  /**
+   * Appends a value with one decimal, as "%.1f" would.
+   *
+   * @param sb builder to append to
+   * @param value value to append
+   * @return sb
+   */
+  static StringBuilder appendTenths(StringBuilder sb, double value) {
+    if (Double.isNaN(value)) {
+      return sb.append("NaN");
+    }
+    if (Double.doubleToRawLongBits(value) < 0) {
+      sb.append('-');
+      value = -value;
+    }
+    if (value == Double.POSITIVE_INFINITY) {
+      return sb.append("Infinity");
+    }
+    double scaled = value * 10.0;
+    double fraction = scaled - Math.floor(scaled);
+    if (value >= MAX_FAST || Math.abs(fraction - 0.5) < TIE_WINDOW) {
+      return sb.append(new BigDecimal(Double.toString(value)).setScale(1, RoundingMode.HALF_UP)
+          .toPlainString());
+    }
+    long tenths = (long) Math.floor(scaled + 0.5);
+    return sb.append(tenths / 10).append('.').append((char) ('0' + tenths % 10));
+  }
+}
@@ -0,0 +1,632 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A fleet of electric vehicles stored column by column ("structure of arrays").
+ *
+ * Each field lives in its own array, indexed by vehicle:
+ * battery size, state of charge, default efficiency and current efficiency
+ * (plus the names, which the batch methods never touch).
+ *
+ * The batch methods updateEfficiencyAll and rangeAll walk these arrays
+ * front to back (see FleetKernel), so they read memory sequentially (every
+ * cache line is fully used) and the JIT can unroll and vectorize them.
+ * An ElectricVehicle obtained from get(index) is a view over one index,
+ * so single-vehicle code keeps working against the same storage.
+ *
+ * Status lines (ElectricVehicle.toString) are built without String.format
+ * and cached per vehicle until its state of charge or efficiency changes;
+ * export writes the whole fleet's status lines to a stream in one pass.
+ *
+ * Instead of polling range(), callers can subscribe to a range or state of
+ * charge threshold and be told only when a change moves a vehicle across it.
+ * Subscribers are kept in copy-on-write lists: adding one copies the list,
+ * but a change reads the current array without any lock, so writers never
+ * wait on subscribers being added or removed. The lists are only made on
+ * the first subscription; with no subscribers the only extra cost of a
+ * change is a null check.
+ *
+ * A fleet may mix vehicle models. It holds a small table of temperature
+ * curves (EfficiencyModel, or null for the built-in ElectricVehicle rule,
+ * which is computed exactly) and each vehicle has a model id column entry
+ * indexing it, so one fleet (and one RangeIndex, TelemetryIngestor or
+ * snapshot over it) covers every model. A fleet made without a table has a
+ * single curve, model id 0, and no model id column.
+ *
+ * A standalone ElectricVehicle is a fleet of one, so an empty fleet is kept
+ * small: one array per field and nothing else until it is needed.
+ *
+ * Rules are the same as for ElectricVehicle:
+ * - name can't be null/empty; otherwise "unknown EV"
+ * - batterySize (10.0, 150.0)
+ * - stateOfCharge (0.15, 1.0)
+ * - defaultEfficiency (0.5, 4.5)
+ */
+public class Fleet {
+
+  // Fields
+
+  private String[] names;
+  private double[] batterySize;
+  private double[] stateOfCharge;
+  private double[] defaultEfficiency;
+  private double[] currentEfficiency;
+  // model id column, null while the fleet has a single model
+  private int[] modelIds;
+  private String[] rendered;
+  // efficiencies before a batch update, for range subscribers; reused
+  private double[] previousEfficiency;
+  private int size;
+  private final EfficiencyModel[] models;
+  // made on the first subscription (see subscribers())
+  private volatile Subscribers subscribers;
+
+  // shared curve table of single-model fleets with the built-in rule
+  private static final EfficiencyModel[] BUILT_IN = {null};
+
+  // Constructors
+
+  /**
+   * Constructs an empty fleet.
+   */
+  public Fleet() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty fleet with room for the given number of vehicles.
+   *
+   * @param initialCapacity expected number of vehicles (at least 1)
+   * @throws IllegalArgumentException if initialCapacity is less than 1
+   */
+  public Fleet(int initialCapacity) {
+    this(initialCapacity, (EfficiencyModel) null);
+  }
+
+  /**
+   * Constructs an empty fleet of one vehicle model.
+   *
+   * @param initialCapacity expected number of vehicles (at least 1)
+   * @param model temperature curve of the vehicles (null for the built-in rule)
+   * @throws IllegalArgumentException if initialCapacity is less than 1
+   */
+  public Fleet(int initialCapacity, EfficiencyModel model) {
+    this(initialCapacity, model == null ? BUILT_IN : new EfficiencyModel[] {model}, false);
+  }
+
+  /**
+   * Constructs an empty fleet of several vehicle models. A vehicle's model
+   * id (see add) is its curve's position in models.
+   *
+   * @param initialCapacity expected number of vehicles (at least 1)
+   * @param models temperature curve per model id (null entries for the
+   *               built-in rule); the array is copied
+   * @throws IllegalArgumentException if initialCapacity is less than 1, or
+   *                                  models is null or empty
+   */
+  public Fleet(int initialCapacity, EfficiencyModel[] models) {
+    this(initialCapacity, models, true);
+  }
+
+  private Fleet(int initialCapacity, EfficiencyModel[] models, boolean copyModels) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("initialCapacity must be at least 1");
+    }
+    if (models == null || models.length == 0) {
+      throw new IllegalArgumentException("need at least one model");
+    }
+    this.names = new String[initialCapacity];
+    this.batterySize = new double[initialCapacity];
+    this.stateOfCharge = new double[initialCapacity];
+    this.defaultEfficiency = new double[initialCapacity];
+    this.currentEfficiency = new double[initialCapacity];
+    this.modelIds = models.length == 1 ? null : new int[initialCapacity];
+    this.rendered = new String[initialCapacity];
+    this.models = copyModels ? models.clone() : models;
+  }
+
+  /**
+   * Constructs a fleet over restored columns, which it takes ownership of
+   * (see FleetSnapshot).
+   */
+  Fleet(String[] names, double[] batterySize, double[] stateOfCharge,
+        double[] defaultEfficiency, double[] currentEfficiency, int[] modelIds, int size,
+        EfficiencyModel[] models) {
+    this.names = names;
+    this.batterySize = batterySize;
+    this.stateOfCharge = stateOfCharge;
+    this.defaultEfficiency = defaultEfficiency;
+    this.currentEfficiency = currentEfficiency;
+    this.modelIds = models.length == 1 ? null : modelIds;
+    this.rendered = new String[names.length];
+    this.size = size;
+    this.models = models.clone();
+  }
+
+  // Adding and viewing vehicles
+
+  /**
+   * Adds a vehicle. Values are clamped like in the ElectricVehicle constructor,
+   * and current efficiency starts equal to default efficiency.
+   *
+   * @param name the EV name
+   * @param battery the battery size (kWh)
+   * @param charge the state of charge (0.15 to 1.0)
+   * @param efficiency the rated efficiency (0.5 to 4.5)
+   * @return index of the new vehicle
+   */
+  public int add(String name, double battery, double charge, double efficiency) {
+    return add(name, battery, charge, efficiency, 0);
+  }
+
+  /**
+   * Adds a vehicle of the given model (see add(String, double, double, double)).
+   *
+   * @param name the EV name
+   * @param battery the battery size (kWh)
+   * @param charge the state of charge (0.15 to 1.0)
+   * @param efficiency the rated efficiency (0.5 to 4.5)
+   * @param modelId position of the vehicle's curve in this fleet's models
+   * @return index of the new vehicle
+   * @throws IllegalArgumentException if modelId is not a model of this fleet
+   */
+  public int add(String name, double battery, double charge, double efficiency, int modelId) {
+    if (modelId < 0 || modelId >= models.length) {
+      throw new IllegalArgumentException("No such model: " + modelId);
+    }
+    if (size == names.length) {
+      int capacity = size * 2;
+      names = Arrays.copyOf(names, capacity);
+      batterySize = Arrays.copyOf(batterySize, capacity);
+      stateOfCharge = Arrays.copyOf(stateOfCharge, capacity);
+      defaultEfficiency = Arrays.copyOf(defaultEfficiency, capacity);
+      currentEfficiency = Arrays.copyOf(currentEfficiency, capacity);
+      if (modelIds != null) {
+        modelIds = Arrays.copyOf(modelIds, capacity);
+      }
+      rendered = Arrays.copyOf(rendered, capacity);
+    }
+    int index = size++;
+    names[index] = (name == null || name.length() == 0) ? "unknown EV" : name;
+    batterySize[index] = clamp(battery, 10.0, 150.0);
+    stateOfCharge[index] = clamp(charge, 0.15, 1.0);
+    defaultEfficiency[index] = clamp(efficiency, 0.5, 4.5);
+    currentEfficiency[index] = defaultEfficiency[index];
+    if (modelIds != null) {
+      modelIds[index] = modelId;
+    }
+    return index;
+  }
+
+  /**
+   * Returns a view of one vehicle. Changes made through the view are made
+   * in this fleet, and batch updates are visible through the view.
+   *
+   * @param index vehicle index (0 to size - 1)
+   * @return the vehicle view
+   * @throws IllegalArgumentException if index is out of range
+   */
+  public ElectricVehicle get(int index) {
+    checkIndex(index);
+    return new ElectricVehicle(this, index);
+  }
+
+  /**
+   * Returns the number of vehicles.
+   *
+   * @return fleet size
+   */
+  public int size() {
+    return size;
+  }
+
+  // Batch operations
+
+  /**
+   * Updates the current efficiency of every vehicle from its temperature,
+   * with the same rules as ElectricVehicle.updateEfficiency.
+   * With range subscribers the old efficiencies are kept in a scratch
+   * column that is allocated once and reused by later calls.
+   *
+   * @param temps temperature (F) per vehicle, at least size() long
+   * @throws IllegalArgumentException if temps is null or too short
+   */
+  public void updateEfficiencyAll(double[] temps) {
+    checkLength(temps);
+    Arrays.fill(rendered, 0, size, null);
+    Subscribers subs = subscribers;
+    if (subs == null || subs.range.isEmpty()) {
+      applyModel(temps);
+      return;
+    }
+    if (previousEfficiency == null || previousEfficiency.length < size) {
+      previousEfficiency = new double[currentEfficiency.length];
+    }
+    double[] previous = previousEfficiency;
+    System.arraycopy(currentEfficiency, 0, previous, 0, size);
+    applyModel(temps);
+    for (int i = 0; i < size; i++) {
+      if (previous[i] != currentEfficiency[i]) {
+        fireCrossings(subs.range, i, previous[i] * stateOfCharge[i] * batterySize[i], range(i));
+      }
+    }
+  }
+
+  /**
+   * Computes the range of every vehicle.
+   * range = currentEfficiency * stateOfCharge * batterySize
+   *
+   * @param out receives the range per vehicle, at least size() long
+   * @throws IllegalArgumentException if out is null or too short
+   */
+  public void rangeAll(double[] out) {
+    checkLength(out);
+    FleetKernel.range(currentEfficiency, stateOfCharge, batterySize, out, size);
+  }
+
+  /**
+   * Writes every vehicle's status line (as ElectricVehicle.toString), one per
+   * line in UTF-8, in a single pass over the columns. The stream is not closed.
+   *
+   * @param out stream to write to
+   * @throws IOException if writing fails
+   * @throws IllegalArgumentException if out is null
+   */
+  public void export(OutputStream out) throws IOException {
+    if (out == null) {
+      throw new IllegalArgumentException("out cannot be null");
+    }
+    StringBuilder sb = new StringBuilder(1 << 16);
+    for (int i = 0; i < size; i++) {
+      EvFormat.appendStatus(sb, names[i], stateOfCharge[i], range(i)).append('\n');
+      if (sb.length() >= 1 << 15) {
+        out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        sb.setLength(0);
+      }
+    }
+    out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  // Threshold subscriptions
+
+  /**
+   * Registers a listener for range changes that cross the threshold, that is
+   * changes with the old and new range on different sides of it (a value
+   * equal to the threshold counts as above it).
+   *
+   * @param threshold range (miles)
+   * @param listener listener to call
+   * @throws IllegalArgumentException if threshold is not a number or listener is null
+   */
+  public void subscribeRange(double threshold, ThresholdListener listener) {
+    Threshold t = new Threshold(threshold, listener);
+    subscribers().range.add(t);
+  }
+
+  /**
+   * Registers a listener for state of charge changes that cross the threshold
+   * (see subscribeRange).
+   *
+   * @param threshold state of charge (0.15 to 1.0)
+   * @param listener listener to call
+   * @throws IllegalArgumentException if threshold is not a number or listener is null
+   */
+  public void subscribeStateOfCharge(double threshold, ThresholdListener listener) {
+    Threshold t = new Threshold(threshold, listener);
+    subscribers().charge.add(t);
+  }
+
+  /**
+   * Registers a listener for every change of any vehicle's range, crossing
+   * or not (used by RangeIndex to keep its order).
+   *
+   * @param listener listener to call
+   * @throws IllegalArgumentException if listener is null
+   */
+  public void watchRange(ThresholdListener listener) {
+    Threshold t = new Threshold(listener);
+    subscribers().range.add(t);
+  }
+
+  /**
+   * Removes every range and state of charge subscription of the listener.
+   *
+   * @param listener listener to remove
+   */
+  public void unsubscribe(ThresholdListener listener) {
+    Subscribers subs = subscribers;
+    if (subs != null) {
+      subs.range.removeIf(t -> t.listener == listener);
+      subs.charge.removeIf(t -> t.listener == listener);
+    }
+  }
+
+  /**
+   * Number of range subscriptions and watchers, e.g. to check a listener
+   * was removed.
+   */
+  int rangeSubscriptionCount() {
+    Subscribers subs = subscribers;
+    return subs == null ? 0 : subs.range.size();
+  }
+
+  // Column access (used by FleetSnapshot; valid up to size())
+
+  String[] nameColumn() {
+    return names;
+  }
+
+  double[] batteryColumn() {
+    return batterySize;
+  }
+
+  double[] chargeColumn() {
+    return stateOfCharge;
+  }
+
+  double[] ratedColumn() {
+    return defaultEfficiency;
+  }
+
+  double[] currentColumn() {
+    return currentEfficiency;
+  }
+
+  /**
+   * @return the model id column, or null if every vehicle has model 0
+   */
+  int[] modelIdColumn() {
+    return modelIds;
+  }
+
+  int modelCount() {
+    return models.length;
+  }
+
+  // Single-vehicle access (used by the ElectricVehicle view)
+
+  String getName(int index) {
+    return names[index];
+  }
+
+  double getBatterySize(int index) {
+    return batterySize[index];
+  }
+
+  double getStateOfCharge(int index) {
+    return stateOfCharge[index];
+  }
+
+  void setStateOfCharge(int index, double charge) {
+    rendered[index] = null;
+    Subscribers subs = subscribers;
+    if (subs == null) {
+      stateOfCharge[index] = clamp(charge, 0.15, 1.0);
+      return;
+    }
+    double previousCharge = stateOfCharge[index];
+    double previousRange = range(index);
+    stateOfCharge[index] = clamp(charge, 0.15, 1.0);
+    fireCrossings(subs.charge, index, previousCharge, stateOfCharge[index]);
+    fireCrossings(subs.range, index, previousRange, range(index));
+  }
+
+  double getEfficiency(int index) {
+    return currentEfficiency[index];
+  }
+
+  void updateEfficiency(int index, double currentTemp) {
+    double factor = factor(index, currentTemp);
+    rendered[index] = null;
+    Subscribers subs = subscribers;
+    if (subs == null) {
+      currentEfficiency[index] = factor * defaultEfficiency[index];
+      return;
+    }
+    double previousRange = range(index);
+    currentEfficiency[index] = factor * defaultEfficiency[index];
+    fireCrossings(subs.range, index, previousRange, range(index));
+  }
+
+  /**
+   * Sets state of charge and efficiency (from temperature) of one vehicle
+   * together, so subscribers see one range change from the old range to the
+   * new one, never the mix of new charge and old efficiency in between.
+   */
+  void update(int index, double charge, double currentTemp) {
+    double factor = factor(index, currentTemp);
+    rendered[index] = null;
+    Subscribers subs = subscribers;
+    if (subs == null) {
+      stateOfCharge[index] = clamp(charge, 0.15, 1.0);
+      currentEfficiency[index] = factor * defaultEfficiency[index];
+      return;
+    }
+    double previousCharge = stateOfCharge[index];
+    double previousRange = range(index);
+    stateOfCharge[index] = clamp(charge, 0.15, 1.0);
+    currentEfficiency[index] = factor * defaultEfficiency[index];
+    fireCrossings(subs.charge, index, previousCharge, stateOfCharge[index]);
+    fireCrossings(subs.range, index, previousRange, range(index));
+  }
+
+  /**
+   * Status line of one vehicle, built on first use and kept until the
+   * vehicle changes.
+   */
+  String render(int index) {
+    String line = rendered[index];
+    if (line == null) {
+      line = appendTo(index, new StringBuilder(64)).toString();
+      rendered[index] = line;
+    }
+    return line;
+  }
+
+  StringBuilder appendTo(int index, StringBuilder sb) {
+    String line = rendered[index];
+    if (line != null) {
+      return sb.append(line);
+    }
+    return EvFormat.appendStatus(sb, names[index], stateOfCharge[index], range(index));
+  }
+
+  double getDefaultEfficiency(int index) {
+    return defaultEfficiency[index];
+  }
+
+  /**
+   * Share of the default efficiency at a temperature, with the curve of the
+   * vehicle's model.
+   */
+  double factor(int index, double currentTemp) {
+    EfficiencyModel model = modelIds == null ? models[0] : models[modelIds[index]];
+    return model == null ? efficiencyFactor(currentTemp) : model.factor(currentTemp);
+  }
+
+  double range(int index) {
+    return currentEfficiency[index] * stateOfCharge[index] * batterySize[index];
+  }
+
+  // Helpers
+
+  /**
+   * Sets every current efficiency from its temperature with each vehicle's
+   * curve. A single-model fleet skips the model id lookups.
+   */
+  private void applyModel(double[] temps) {
+    if (models.length > 1) {
+      for (int i = 0; i < size; i++) {
+        currentEfficiency[i] = factor(i, temps[i]) * defaultEfficiency[i];
+      }
+      return;
+    }
+    EfficiencyModel model = models[0];
+    if (model == null) {
+      FleetKernel.updateEfficiency(temps, defaultEfficiency, currentEfficiency, size);
+      return;
+    }
+    for (int i = 0; i < size; i++) {
+      currentEfficiency[i] = model.factor(temps[i]) * defaultEfficiency[i];
+    }
+  }
+
+  /**
+   * Share of the default efficiency a vehicle has at a temperature (F).
+   *
+   * Rules:
+   * - {65.0 <= temp <= 77.0} => 1.0
+   * - {temp > 77.0 } => 0.85
+   * - {temp < 65.0 } => 1% less per degree below 65, never below 0.50
+   *
+   * This is the per-vehicle form and picks the band with conditionals;
+   * FleetKernel.updateEfficiency computes the same values without branches
+   * for whole columns.
+   *
+   * @param currentTemp temperature in Fahrenheit
+   * @return factor (0.50 to 1.0)
+   */
+  static double efficiencyFactor(double currentTemp) {
+    double cold = Math.max(1.0 - ((65.0 - currentTemp) * 0.01), 0.50);
+    return currentTemp > 77.0 ? 0.85 : (currentTemp >= 65.0 ? 1.0 : cold);
+  }
+
+  /**
+   * Clamps forces a value to stay inside legal range (min - max).
+   *
+   * @param value input value
+   * @param min minimum allowed
+   * @param max maximum allowed
+   * @return clamped value
+   */
+  static double clamp(double value, double min, double max) {
+    if (value < min) {
+      return min;
+    }
+    if (value > max) {
+      return max;
+    }
+    return value;
+  }
+
+  /**
+   * Calls every listener whose threshold lies between previous and current,
+   * and every watcher if the value changed.
+   */
+  private static void fireCrossings(List<Threshold> thresholds, int index,
+                                    double previous, double current) {
+    for (Threshold t : thresholds) {
+      if (t.everyChange ? previous != current : (previous < t.value) != (current < t.value)) {
+        t.listener.crossed(index, previous, current);
+      }
+    }
+  }
+
+  /**
+   * Returns the subscriber lists, making them on first use.
+   */
+  private synchronized Subscribers subscribers() {
+    if (subscribers == null) {
+      subscribers = new Subscribers();
+    }
+    return subscribers;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IllegalArgumentException("index out of range: " + index);
+    }
+  }
+
+  private void checkLength(double[] values) {
+    if (values == null || values.length < size) {
+      throw new IllegalArgumentException("array must hold at least " + size + " values");
+    }
+  }
+
+  /**
+   * Range and state of charge subscribers, made together on the first
+   * subscription.
+   */
+  private static class Subscribers {
+
+    private final List<Threshold> range = new CopyOnWriteArrayList<>();
+    private final List<Threshold> charge = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * A subscriber: a threshold and the listener to call when it is crossed,
+   * or a watcher called on every change.
+   */
+  private static class Threshold {
+
+    private final double value;
+    private final boolean everyChange;
+    private final ThresholdListener listener;
+
+    Threshold(double value, ThresholdListener listener) {
+      if (Double.isNaN(value)) {
+        throw new IllegalArgumentException("threshold cannot be NaN");
+      }
+      if (listener == null) {
+        throw new IllegalArgumentException("listener cannot be null");
+      }
+      this.value = value;
+      this.everyChange = false;
+      this.listener = listener;
+    }
+
+    Threshold(ThresholdListener listener) {
+      if (listener == null) {
+        throw new IllegalArgumentException("listener cannot be null");
+      }
+      this.value = Double.NaN;
+      this.everyChange = true;
+      this.listener = listener;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+import java.util.Random;
+
+/**
+ * Throughput of the batch kernel against looping ElectricVehicle objects.
+ *
+ * Both sides do the same work per round: set every vehicle's efficiency from
+ * its temperature and compute its range. Each side is warmed up first so the
+ * JIT has compiled it, then timed over several rounds.
+ *
+ * Usage: java FleetBenchmark [vehicles]
+ */
+public class FleetBenchmark {
+
+  private static final int WARMUP_ROUNDS = 20;
+  private static final int MEASURE_ROUNDS = 50;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional vehicle count (default 1,000,000)
+   */
+  public static void main(String[] args) {
+    int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    Fleet fleet = new Fleet(n);
+    ElectricVehicle[] vehicles = new ElectricVehicle[n];
+    double[] temps = new double[n];
+    double[] ranges = new double[n];
+    Random random = new Random(42);
+    for (int i = 0; i < n; i++) {
+      double battery = 10.0 + random.nextDouble() * 140.0;
+      double charge = 0.15 + random.nextDouble() * 0.85;
+      double efficiency = 0.5 + random.nextDouble() * 4.0;
+      fleet.add("EV" + i, battery, charge, efficiency);
+      vehicles[i] = new ElectricVehicle("EV" + i, battery, charge, efficiency);
+      temps[i] = -10.0 + random.nextDouble() * 110.0;   // all three bands, mixed
+    }
+
+    double objectNs = measure(() -> {
+      for (int i = 0; i < n; i++) {
+        vehicles[i].updateEfficiency(temps[i]);
+        ranges[i] = vehicles[i].range();
+      }
+    });
+    double batchNs = measure(() -> {
+      fleet.updateEfficiencyAll(temps);
+      fleet.rangeAll(ranges);
+    });
+
+    System.out.printf("objects: %8.2f M vehicles/s%n", n / objectNs * 1e3);
+    System.out.printf("batch  : %8.2f M vehicles/s%n", n / batchNs * 1e3);
+    System.out.printf("speedup: %.1fx%n", objectNs / batchNs);
+  }
+
+  /**
+   * Average nanoseconds per round after warmup.
+   */
+  private static double measure(Runnable round) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      round.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURE_ROUNDS; i++) {
+      round.run();
+    }
+    return (System.nanoTime() - start) / (double) MEASURE_ROUNDS;
+  }
+}
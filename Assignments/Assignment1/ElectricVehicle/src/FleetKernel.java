@@ -0,0 +1,79 @@
+/**
+ * Scalar structure-of-arrays kernels for the EV temperature and range model,
+ * over plain arrays (the Fleet columns, or a telemetry batch).
+ *
+ * The temperature rule of ElectricVehicle.updateEfficiency has three bands:
+ * - {65.0 <= temp <= 77.0} => 100% of defaultEfficiency
+ * - {temp > 77.0 } => 85% of defaultEfficiency
+ * - {temp < 65.0 } => 1% less per degree below 65, floor at 50%
+ *
+ * Here the bands are not picked with if / else. Every element computes
+ * both candidate factors and combines them with min / max:
+ * - cold = max(1 - (65 - temp) * 0.01, 0.50), which is >= 1 in the
+ *   comfort band, so min(cold, 1.0) covers both of the lower bands
+ * - hot = 1 - 0.15 * max(signum(temp - 77), 0), which is 0.85 above 77
+ *   and 1.0 otherwise
+ * - factor = min(min(cold, 1.0), hot)
+ * No element takes a data-dependent branch, so mixed batches do not
+ * mispredict. The loops are plain scalar Java; there is no explicit SIMD
+ * (the Vector API is an incubator module and the project targets JDK 11),
+ * so any vectorization is left to the JIT. Results are bit-for-bit the
+ * same as the single-vehicle rule (NaN and infinities included).
+ */
+public final class FleetKernel {
+
+  private FleetKernel() {
+    // static helpers only
+  }
+
+  /**
+   * current[i] = factor(temps[i]) * rated[i] for i in [0, count).
+   *
+   * @param temps temperature (F) per vehicle
+   * @param rated default efficiency per vehicle
+   * @param current receives the current efficiency per vehicle
+   * @param count number of vehicles
+   * @throws IllegalArgumentException if an array is null or shorter than count
+   */
+  public static void updateEfficiency(double[] temps, double[] rated, double[] current, int count) {
+    checkLength(temps, count);
+    checkLength(rated, count);
+    checkLength(current, count);
+    for (int i = 0; i < count; i++) {
+      double temp = temps[i];
+      double cold = Math.max(1.0 - ((65.0 - temp) * 0.01), 0.50);
+      double hot = 1.0 - Math.max(Math.signum(temp - 77.0), 0.0) * 0.15;
+      current[i] = Math.min(Math.min(cold, 1.0), hot) * rated[i];
+    }
+  }
+
+  /**
+   * out[i] = current[i] * charge[i] * battery[i] for i in [0, count).
+   *
+   * @param current current efficiency per vehicle
+   * @param charge state of charge per vehicle
+   * @param battery battery size per vehicle
+   * @param out receives the range per vehicle
+   * @param count number of vehicles
+   * @throws IllegalArgumentException if an array is null or shorter than count
+   */
+  public static void range(double[] current, double[] charge, double[] battery,
+                           double[] out, int count) {
+    checkLength(current, count);
+    checkLength(charge, count);
+    checkLength(battery, count);
+    checkLength(out, count);
+    for (int i = 0; i < count; i++) {
+      out[i] = current[i] * charge[i] * battery[i];
+    }
+  }
+
+  private static void checkLength(double[] values, int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("count cannot be negative");
+    }
+    if (values == null || values.length < count) {
+      throw new IllegalArgumentException("array must hold at least " + count + " values");
+    }
+  }
+}
@@ -0,0 +1,372 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar binary snapshot of a Fleet, written and read through
+ * memory-mapped files.
+ *
+ * File layout (little-endian):
+ * - header: magic, version, vehicle count, dictionary size (4 ints)
+ * - name dictionary: per distinct name, its UTF-8 length (int) and bytes;
+ *   then zero padding to a multiple of 8 bytes
+ * - name column: one int per vehicle, the name's dictionary entry
+ * - model id column: one int per vehicle (see Fleet); the curves themselves
+ *   are code, not data, so read is given them again
+ * - battery size, state of charge, default efficiency and current
+ *   efficiency columns: one double per vehicle each
+ *
+ * Fleets share a few model names (and "unknown EV"), so each distinct name
+ * is stored once and every vehicle costs 4 bytes for it; a vehicle is 40
+ * bytes in all, and the two int columns keep the double columns 8-byte
+ * aligned. Every column is fixed width, so reading one is a single
+ * bulk copy out of the mapping (read), or no copy at all: open returns a
+ * FleetSnapshot whose getters read straight from the mapped file.
+ */
+public class FleetSnapshot {
+
+  private static final int MAGIC = 0x45564653;   // "EVFS"
+  private static final int VERSION = 2;
+  private static final int HEADER_BYTES = 16;
+  private static final int VEHICLE_BYTES = 4 + 4 + 4 * 8;
+
+  private final ByteBuffer buf;
+  private final String[] dictionary;
+  private final int size;
+  private final int nameAt;
+  private final int modelAt;
+  private final int batteryAt;
+  private final int chargeAt;
+  private final int ratedAt;
+  private final int currentAt;
+
+  private FleetSnapshot(ByteBuffer buf, String[] dictionary, int size, int columnsAt) {
+    this.buf = buf;
+    this.dictionary = dictionary;
+    this.size = size;
+    this.nameAt = columnsAt;
+    this.modelAt = nameAt + size * 4;
+    this.batteryAt = modelAt + size * 4;
+    this.chargeAt = batteryAt + size * 8;
+    this.ratedAt = chargeAt + size * 8;
+    this.currentAt = ratedAt + size * 8;
+  }
+
+  /**
+   * Writes a snapshot of the fleet.
+   *
+   * @param file file to create or replace
+   * @param fleet fleet to save
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if an argument is null or the fleet is
+   *                                  too large for one snapshot file
+   */
+  public static void write(Path file, Fleet fleet) throws IOException {
+    if (file == null || fleet == null) {
+      throw new IllegalArgumentException("arguments cannot be null");
+    }
+    int size = fleet.size();
+    String[] names = fleet.nameColumn();
+    Map<String, Integer> codes = new HashMap<>();
+    int[] nameCodes = new int[size];
+    byte[][] entries = new byte[16][];
+    long dictionaryBytes = 0;
+    for (int i = 0; i < size; i++) {
+      Integer code = codes.get(names[i]);
+      if (code == null) {
+        code = codes.size();
+        codes.put(names[i], code);
+        if (code == entries.length) {
+          entries = Arrays.copyOf(entries, code * 2);
+        }
+        entries[code] = names[i].getBytes(StandardCharsets.UTF_8);
+        dictionaryBytes += 4 + entries[code].length;
+      }
+      nameCodes[i] = code;
+    }
+    long columnsAt = align(HEADER_BYTES + dictionaryBytes);
+    long bytes = columnsAt + (long) size * VEHICLE_BYTES;
+    if (bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("fleet too large for one snapshot: " + size);
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+      out.order(ByteOrder.LITTLE_ENDIAN);
+      out.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(codes.size());
+      for (int c = 0; c < codes.size(); c++) {
+        out.putInt(entries[c].length).put(entries[c]);
+      }
+      out.position((int) columnsAt);
+      out.asIntBuffer().put(nameCodes, 0, size);
+      out.position((int) columnsAt + size * 4);
+      int[] modelIds = fleet.modelIdColumn();
+      if (modelIds != null) {
+        out.asIntBuffer().put(modelIds, 0, size);
+      } else {
+        for (int i = 0; i < size; i++) {
+          out.putInt(0);   // single-model fleet: every vehicle is model 0
+        }
+      }
+      int at = (int) columnsAt + size * 8;
+      for (double[] column : new double[][] {fleet.batteryColumn(), fleet.chargeColumn(),
+          fleet.ratedColumn(), fleet.currentColumn()}) {
+        out.position(at);
+        out.asDoubleBuffer().put(column, 0, size);
+        at += size * 8;
+      }
+      out.force();
+    }
+  }
+
+  /**
+   * Maps a snapshot for reading in place; nothing is copied until a getter
+   * is called, and then only that value.
+   *
+   * @param file snapshot file
+   * @return the mapped snapshot
+   * @throws IOException if the file cannot be read, is not a snapshot, or
+   *                     is truncated or corrupt (a dictionary entry or name
+   *                     code outside the file, or a negative model id)
+   * @throws IllegalArgumentException if file is null
+   */
+  public static FleetSnapshot open(Path file) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long bytes = channel.size();
+      if (bytes < HEADER_BYTES || bytes > Integer.MAX_VALUE) {
+        throw new IOException("Not a fleet snapshot: " + file);
+      }
+      ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      int size = buf.getInt(8);
+      int dictionarySize = buf.getInt(12);
+      if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION || size < 0
+          || dictionarySize < 0 || dictionarySize > size
+          || HEADER_BYTES + 4L * dictionarySize + (long) size * VEHICLE_BYTES > bytes) {
+        // the last check keeps a bad header from sizing allocations below
+        throw new IOException("Not a fleet snapshot: " + file);
+      }
+      String[] dictionary = new String[dictionarySize];
+      int at = HEADER_BYTES;
+      for (int c = 0; c < dictionarySize; c++) {
+        int length = at + 4 <= bytes ? buf.getInt(at) : -1;
+        if (length < 0 || at + 4L + length > bytes) {
+          throw new IOException("Not a fleet snapshot: " + file);
+        }
+        byte[] utf8 = new byte[length];
+        buf.duplicate().position(at + 4).get(utf8);
+        dictionary[c] = new String(utf8, StandardCharsets.UTF_8);
+        at += 4 + length;
+      }
+      long columnsAt = align(at);
+      if (bytes != columnsAt + (long) size * VEHICLE_BYTES) {
+        throw new IOException("Not a fleet snapshot: " + file);
+      }
+      for (int i = 0; i < size; i++) {
+        int code = buf.getInt((int) columnsAt + i * 4);
+        if (code < 0 || code >= dictionarySize) {
+          throw new IOException("Invalid name code in fleet snapshot: " + file);
+        }
+        if (buf.getInt((int) columnsAt + size * 4 + i * 4) < 0) {
+          throw new IOException("Invalid model id in fleet snapshot: " + file);
+        }
+      }
+      return new FleetSnapshot(buf, dictionary, size, (int) columnsAt);
+    }
+  }
+
+  /**
+   * Restores a fleet that uses the built-in temperature rule.
+   *
+   * @param file snapshot file
+   * @return the restored fleet
+   * @throws IOException if the file cannot be read or is not a snapshot
+   * @throws IllegalArgumentException if file is null
+   */
+  public static Fleet read(Path file) throws IOException {
+    return read(file, (EfficiencyModel) null);
+  }
+
+  /**
+   * Restores a fleet of one vehicle model.
+   *
+   * @param file snapshot file
+   * @param model temperature curve of the restored fleet (null for the built-in rule)
+   * @return the restored fleet
+   * @throws IOException if the file cannot be read, is not a snapshot, or
+   *                     is truncated or corrupt
+   * @throws IllegalArgumentException if file is null, or the snapshot has
+   *                                  vehicles of more than one model
+   */
+  public static Fleet read(Path file, EfficiencyModel model) throws IOException {
+    return read(file, new EfficiencyModel[] {model});
+  }
+
+  /**
+   * Restores a fleet: each column is one bulk copy out of the mapped file.
+   * Vehicles with the same name share one String.
+   *
+   * @param file snapshot file
+   * @param models temperature curve per model id, as given to the saved
+   *               fleet (null entries for the built-in rule)
+   * @return the restored fleet
+   * @throws IOException if the file cannot be read, is not a snapshot, or
+   *                     is truncated or corrupt
+   * @throws IllegalArgumentException if file or models is null, models is
+   *                                  empty, or a vehicle's model id has no
+   *                                  entry in models
+   */
+  public static Fleet read(Path file, EfficiencyModel[] models) throws IOException {
+    if (models == null || models.length == 0) {
+      throw new IllegalArgumentException("need at least one model");
+    }
+    FleetSnapshot snapshot = open(file);
+    int size = snapshot.size;
+    int capacity = Math.max(size, 1);
+    int[] codes = new int[size];
+    snapshot.column(snapshot.nameAt).asIntBuffer().get(codes);
+    String[] names = new String[capacity];
+    for (int i = 0; i < size; i++) {
+      names[i] = snapshot.dictionary[codes[i]];   // codes were checked by open
+    }
+    int[] modelIds = new int[capacity];
+    snapshot.column(snapshot.modelAt).asIntBuffer().get(modelIds, 0, size);
+    for (int i = 0; i < size; i++) {
+      if (modelIds[i] >= models.length) {
+        throw new IllegalArgumentException("Snapshot uses model " + modelIds[i]
+            + " but only " + models.length + " models were given");
+      }
+    }
+    return new Fleet(names, snapshot.copyColumn(snapshot.batteryAt, capacity),
+        snapshot.copyColumn(snapshot.chargeAt, capacity),
+        snapshot.copyColumn(snapshot.ratedAt, capacity),
+        snapshot.copyColumn(snapshot.currentAt, capacity), modelIds, size, models);
+  }
+
+  // Zero-copy access
+
+  /**
+   * @return number of vehicles in the snapshot
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a vehicle's name.
+   *
+   * @param index vehicle index (0 to size - 1)
+   * @return name
+   * @throws IllegalArgumentException if index is out of range
+   */
+  public String getName(int index) {
+    checkIndex(index);
+    return dictionary[buf.getInt(nameAt + index * 4)];
+  }
+
+  /**
+   * Returns a vehicle's model id (its curve's position in the saved fleet's
+   * models).
+   *
+   * @param index vehicle index (0 to size - 1)
+   * @return model id
+   * @throws IllegalArgumentException if index is out of range
+   */
+  public int getModelId(int index) {
+    checkIndex(index);
+    return buf.getInt(modelAt + index * 4);
+  }
+
+  /**
+   * Returns a vehicle's battery size.
+   *
+   * @param index vehicle index (0 to size - 1)
+   * @return battery size (kWh)
+   * @throws IllegalArgumentException if index is out of range
+   */
+  public double getBatterySize(int index) {
+    checkIndex(index);
+    return buf.getDouble(batteryAt + index * 8);
+  }
+
+  /**
+   * Returns a vehicle's state of charge.
+   *
+   * @param index vehicle index (0 to size - 1)
+   * @return state of charge (0.15 to 1.0)
+   * @throws IllegalArgumentException if index is out of range
+   */
+  public double getStateOfCharge(int index) {
+    checkIndex(index);
+    return buf.getDouble(chargeAt + index * 8);
+  }
+
+  /**
+   * Returns a vehicle's default (rated) efficiency.
+   *
+   * @param index vehicle index (0 to size - 1)
+   * @return default efficiency
+   * @throws IllegalArgumentException if index is out of range
+   */
+  public double getDefaultEfficiency(int index) {
+    checkIndex(index);
+    return buf.getDouble(ratedAt + index * 8);
+  }
+
+  /**
+   * Returns a vehicle's current efficiency.
+   *
+   * @param index vehicle index (0 to size - 1)
+   * @return current efficiency
+   * @throws IllegalArgumentException if index is out of range
+   */
+  public double getEfficiency(int index) {
+    checkIndex(index);
+    return buf.getDouble(currentAt + index * 8);
+  }
+
+  /**
+   * Returns a vehicle's range at the time of the snapshot.
+   *
+   * @param index vehicle index (0 to size - 1)
+   * @return range (miles)
+   * @throws IllegalArgumentException if index is out of range
+   */
+  public double range(int index) {
+    return getEfficiency(index) * getStateOfCharge(index) * getBatterySize(index);
+  }
+
+  // Private Helper Methods
+
+  private ByteBuffer column(int at) {
+    return buf.duplicate().position(at).slice().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private double[] copyColumn(int at, int capacity) {
+    double[] values = new double[capacity];
+    column(at).asDoubleBuffer().get(values, 0, size);
+    return values;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IllegalArgumentException("index out of range: " + index);
+    }
+  }
+
+  private static long align(long offset) {
+    return (offset + 7) & ~7L;
+  }
+}
@@ -0,0 +1,59 @@
+/**
+ * A range change reported downstream by TelemetryIngestor: one vehicle's
+ * range moved by more than the ingestor's threshold since its last report.
+ */
+public final class RangeChange {
+
+  private final int index;
+  private final double previousRange;
+  private final double range;
+
+  /**
+   * Constructs a range change.
+   *
+   * @param index vehicle index in the fleet
+   * @param previousRange range at the last report (miles)
+   * @param range new range (miles)
+   */
+  public RangeChange(int index, double previousRange, double range) {
+    this.index = index;
+    this.previousRange = previousRange;
+    this.range = range;
+  }
+
+  /**
+   * Returns the vehicle index in the fleet.
+   *
+   * @return vehicle index
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Returns the range at the last report.
+   *
+   * @return previous range (miles)
+   */
+  public double getPreviousRange() {
+    return previousRange;
+  }
+
+  /**
+   * Returns the new range.
+   *
+   * @return range (miles)
+   */
+  public double getRange() {
+    return range;
+  }
+
+  /**
+   * Returns a string such as "#3 Range (miles): 131.8 -> 120.4".
+   *
+   * @return formatted string
+   */
+  public String toString() {
+    return String.format("#%d Range (miles): %.1f -> %.1f", index, previousRange, range);
+  }
+}
@@ -0,0 +1,192 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Keeps the vehicles of a Fleet ordered by current range, for dispatch
+ * queries such as "every vehicle with range under 40 miles".
+ *
+ * The order lives in a concurrent skip list of (range, index) entries.
+ * The index watches the fleet (Fleet.watchRange), so every change made
+ * through setStateOfCharge, updateEfficiency or updateEfficiencyAll moves
+ * that one vehicle's entry: O(log n) per change instead of a full scan per
+ * query. Queries walk the skip list from the low end, so below(x) costs
+ * O(log n + k) for k answers, and lowest(k) O(k).
+ *
+ * Queries may run on other threads while the fleet is being updated. A
+ * vehicle that is being moved may briefly be missing from a query. The
+ * skip list's iterators are weakly consistent, so a vehicle moved to a
+ * higher range while a query walks past it can come up twice; each query
+ * remembers the indexes it returned (a BitSet) and skips repeats, so every
+ * query returns each vehicle at most once.
+ *
+ * Vehicles added to the fleet after the index was made are picked up on
+ * the next change or query.
+ *
+ * The fleet holds on to the index through its watcher until close() is
+ * called, so close an index that is no longer needed (try-with-resources
+ * works).
+ */
+public class RangeIndex implements AutoCloseable {
+
+  private final Fleet fleet;
+  // the one watcher instance, so close() can unsubscribe it by identity
+  private final ThresholdListener watcher = this::moved;
+  private volatile boolean closed;
+  private final NavigableSet<Entry> byRange = new ConcurrentSkipListSet<>();
+  private volatile double[] indexedRange = new double[0];
+
+  /**
+   * Builds the index over the fleet and starts watching it.
+   *
+   * @param fleet fleet to index
+   * @throws IllegalArgumentException if fleet is null
+   */
+  public RangeIndex(Fleet fleet) {
+    if (fleet == null) {
+      throw new IllegalArgumentException("fleet cannot be null");
+    }
+    this.fleet = fleet;
+    addNewVehicles();
+    fleet.watchRange(watcher);
+  }
+
+  /**
+   * Stops watching the fleet. Queries are no longer possible afterwards.
+   * Closing twice has no effect.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    fleet.unsubscribe(watcher);
+  }
+
+  /**
+   * Returns the vehicles whose range is below maxRange, lowest range first.
+   *
+   * @param maxRange range limit in miles (exclusive)
+   * @return vehicle indexes
+   * @throws IllegalStateException if the index is closed
+   */
+  public int[] below(double maxRange) {
+    checkOpen();
+    addNewVehicles();
+    NavigableSet<Entry> head = byRange.headSet(new Entry(maxRange, Integer.MIN_VALUE), false);
+    int[] out = new int[16];
+    int count = 0;
+    BitSet seen = new BitSet();
+    for (Entry e : head) {
+      if (seen.get(e.index)) {
+        continue;
+      }
+      seen.set(e.index);
+      if (count == out.length) {
+        out = Arrays.copyOf(out, count * 2);
+      }
+      out[count++] = e.index;
+    }
+    return Arrays.copyOf(out, count);
+  }
+
+  /**
+   * Returns the k vehicles with the lowest range, lowest first (fewer if the
+   * fleet is smaller).
+   *
+   * @param k number of vehicles
+   * @return vehicle indexes
+   * @throws IllegalArgumentException if k is negative
+   * @throws IllegalStateException if the index is closed
+   */
+  public int[] lowest(int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("k cannot be negative");
+    }
+    checkOpen();
+    addNewVehicles();
+    int[] out = new int[Math.min(k, indexedRange.length)];
+    int count = 0;
+    BitSet seen = new BitSet();
+    Iterator<Entry> it = byRange.iterator();
+    while (count < out.length && it.hasNext()) {
+      int index = it.next().index;
+      if (!seen.get(index)) {
+        seen.set(index);
+        out[count++] = index;
+      }
+    }
+    return count == out.length ? out : Arrays.copyOf(out, count);
+  }
+
+  // Private Helper Methods
+
+  /**
+   * After close() the order is no longer kept up to date.
+   */
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("RangeIndex is closed");
+    }
+  }
+
+  /**
+   * Fleet watcher: moves one vehicle's entry to its new range.
+   */
+  private synchronized void moved(int index, double previous, double current) {
+    if (index >= indexedRange.length) {
+      addNewVehicles();
+      return;
+    }
+    byRange.remove(new Entry(indexedRange[index], index));
+    indexedRange[index] = current;
+    byRange.add(new Entry(current, index));
+  }
+
+  /**
+   * Indexes vehicles added to the fleet since the last call.
+   */
+  private synchronized void addNewVehicles() {
+    int from = indexedRange.length;
+    int size = fleet.size();
+    if (from == size) {
+      return;
+    }
+    double[] grown = Arrays.copyOf(indexedRange, size);
+    for (int i = from; i < size; i++) {
+      grown[i] = fleet.range(i);
+      byRange.add(new Entry(grown[i], i));
+    }
+    indexedRange = grown;
+  }
+
+  /**
+   * A vehicle's place in the order: by range, then by index.
+   */
+  private static final class Entry implements Comparable<Entry> {
+
+    private final double range;
+    private final int index;
+
+    Entry(double range, int index) {
+      this.range = range;
+      this.index = index;
+    }
+
+    @Override
+    public int compareTo(Entry other) {
+      int c = Double.compare(range, other.range);
+      return c != 0 ? c : Integer.compare(index, other.index);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Entry && compareTo((Entry) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return Double.hashCode(range) * 31 + index;
+    }
+  }
+}
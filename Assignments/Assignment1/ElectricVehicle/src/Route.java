@@ -0,0 +1,79 @@
+/**
+ * A route for TripSimulator: a list of segments, each with a distance and
+ * the ambient temperature while driving it. Immutable.
+ */
+public final class Route {
+
+  private final double[] distances;
+  private final double[] temps;
+  private final double length;
+
+  /**
+   * Constructs a route. The arrays are copied.
+   *
+   * @param distances segment distances in miles (0 or more)
+   * @param temps ambient temperature (F) per segment (finite)
+   * @throws IllegalArgumentException if an array is null, the lengths differ,
+   *                                  a distance is negative or not finite, or
+   *                                  a temperature is not finite
+   */
+  public Route(double[] distances, double[] temps) {
+    if (distances == null || temps == null || distances.length != temps.length) {
+      throw new IllegalArgumentException("need one temperature per segment");
+    }
+    double total = 0.0;
+    for (double d : distances) {
+      if (!(d >= 0.0) || d == Double.POSITIVE_INFINITY) {
+        throw new IllegalArgumentException("Invalid distance: " + d);
+      }
+      total += d;
+    }
+    // a NaN temperature would make the energy NaN and hide every stranding
+    for (double t : temps) {
+      if (!Double.isFinite(t)) {
+        throw new IllegalArgumentException("Invalid temperature: " + t);
+      }
+    }
+    this.distances = distances.clone();
+    this.temps = temps.clone();
+    this.length = total;
+  }
+
+  /**
+   * Returns the number of segments.
+   *
+   * @return segment count
+   */
+  public int segments() {
+    return distances.length;
+  }
+
+  /**
+   * Returns the distance of a segment.
+   *
+   * @param segment segment number (0 to segments() - 1)
+   * @return distance in miles
+   */
+  public double getDistance(int segment) {
+    return distances[segment];
+  }
+
+  /**
+   * Returns the ambient temperature of a segment.
+   *
+   * @param segment segment number (0 to segments() - 1)
+   * @return temperature (F)
+   */
+  public double getTemp(int segment) {
+    return temps[segment];
+  }
+
+  /**
+   * Returns the total distance.
+   *
+   * @return route length in miles
+   */
+  public double getLength() {
+    return length;
+  }
+}
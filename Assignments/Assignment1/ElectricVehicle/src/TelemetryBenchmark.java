@@ -0,0 +1,78 @@
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Sustained ingestion rate of TelemetryIngestor, with a consumer thread
+ * draining the downstream queue.
+ *
+ * Frames of FRAME_RECORDS random readings are prebuilt, then ingested over
+ * and over; after warmup the events per second are reported.
+ *
+ * Usage: java TelemetryBenchmark [vehicles]
+ */
+public class TelemetryBenchmark {
+
+  private static final int FRAME_RECORDS = 1024;
+  private static final int FRAMES = 64;
+  private static final int WARMUP_ROUNDS = 50;
+  private static final int MEASURE_ROUNDS = 200;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional vehicle count (default 100,000)
+   * @throws InterruptedException if interrupted
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    Random random = new Random(42);
+    Fleet fleet = new Fleet(n);
+    for (int i = 0; i < n; i++) {
+      fleet.add("EV" + i, 10.0 + random.nextDouble() * 140.0,
+          0.15 + random.nextDouble() * 0.85, 0.5 + random.nextDouble() * 4.0);
+    }
+    ByteBuffer[] frames = new ByteBuffer[FRAMES];
+    for (int f = 0; f < FRAMES; f++) {
+      frames[f] = ByteBuffer.allocateDirect(TelemetryIngestor.HEADER_BYTES
+          + FRAME_RECORDS * TelemetryIngestor.RECORD_BYTES);
+      frames[f].putInt(FRAME_RECORDS);
+      for (int r = 0; r < FRAME_RECORDS; r++) {
+        TelemetryIngestor.putRecord(frames[f], random.nextInt(n),
+            0.1 + random.nextDouble() * 0.95, -10.0 + random.nextDouble() * 110.0);
+      }
+    }
+
+    TelemetryIngestor ingestor = new TelemetryIngestor(fleet, 5.0, 4096);
+    Thread consumer = new Thread(() -> {
+      try {
+        while (true) {
+          ingestor.downstream().take();
+        }
+      } catch (InterruptedException e) {
+        // benchmark finished
+      }
+    });
+    consumer.setDaemon(true);
+    consumer.start();
+
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      round(ingestor, frames);
+    }
+    long before = ingestor.getRecords();
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURE_ROUNDS; i++) {
+      round(ingestor, frames);
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    consumer.interrupt();
+    System.out.printf("%.2f M events/s%n", (ingestor.getRecords() - before) / seconds / 1e6);
+  }
+
+  private static void round(TelemetryIngestor ingestor, ByteBuffer[] frames)
+      throws InterruptedException {
+    for (ByteBuffer frame : frames) {
+      frame.rewind();
+      ingestor.ingest(frame);
+    }
+  }
+}
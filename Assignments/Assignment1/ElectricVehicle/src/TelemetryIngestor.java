@@ -0,0 +1,196 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streaming ingestion of binary telemetry frames into a Fleet.
+ *
+ * Frame layout (ByteBuffer byte order, big-endian by default):
+ * - int record count
+ * - per record: int vehicle index, double state of charge, double
+ *   temperature (F), RECORD_BYTES in all
+ *
+ * Each record is applied in place, with the same rules as
+ * ElectricVehicle.setStateOfCharge and updateEfficiency (clamping included),
+ * by writing straight into the fleet columns: no ElectricVehicle, boxed
+ * value or other object is made per record. Both readings of a record are
+ * written in one step, so fleet subscribers (and a RangeIndex) see a
+ * single range change per record. Records naming a vehicle that
+ * is not in the fleet, or carrying a reading that is NaN or infinite, are
+ * skipped and counted (see getRejected): a NaN range would otherwise fail
+ * every threshold comparison and never be reported.
+ *
+ * Downstream only hears about vehicles whose range moved by more than the
+ * threshold since the last report for that vehicle. Reports go into a
+ * bounded queue; when the consumer falls behind and the queue is full,
+ * ingest blocks until there is room (backpressure) instead of buffering
+ * without limit.
+ *
+ * One thread should call ingest; any number may take from downstream().
+ */
+public class TelemetryIngestor {
+
+  /** Bytes in the frame header (the record count). */
+  public static final int HEADER_BYTES = 4;
+
+  /** Bytes per record: index (int), state of charge and temperature (doubles). */
+  public static final int RECORD_BYTES = 4 + 8 + 8;
+
+  private final Fleet fleet;
+  private final double threshold;
+  private final BlockingQueue<RangeChange> downstream;
+  private double[] reportedRange;
+  private long records;
+  private long rejected;
+
+  /**
+   * Constructs an ingestor. The range every vehicle has now is taken as its
+   * last reported range.
+   *
+   * @param fleet fleet to update
+   * @param threshold smallest range change (miles) that is reported (0 or more)
+   * @param queueCapacity size of the downstream queue (at least 1)
+   * @throws IllegalArgumentException if fleet is null, threshold is negative
+   *                                  or not a number, or queueCapacity is less than 1
+   */
+  public TelemetryIngestor(Fleet fleet, double threshold, int queueCapacity) {
+    if (fleet == null) {
+      throw new IllegalArgumentException("fleet cannot be null");
+    }
+    if (!(threshold >= 0.0)) {
+      throw new IllegalArgumentException("threshold must be 0 or more");
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("queueCapacity must be at least 1");
+    }
+    this.fleet = fleet;
+    this.threshold = threshold;
+    this.downstream = new ArrayBlockingQueue<>(queueCapacity);
+    this.reportedRange = new double[0];
+    trackNewVehicles();
+  }
+
+  /**
+   * Parses one frame from the buffer's position and applies every record.
+   * On return the buffer's position is just past the frame.
+   *
+   * If the thread is interrupted while waiting for queue room, the frame is
+   * left partly ingested: the records up to and including the one being
+   * reported stay applied and are counted in getRecords / getRejected, and
+   * the position is just past them, so they are never applied twice. The
+   * report being waited on is dropped, but its vehicle is still compared
+   * with its last delivered range on the next record. The remaining records
+   * of the frame follow the position without a header; there are
+   * count - (position - start - HEADER_BYTES) / RECORD_BYTES of them.
+   *
+   * @param frame buffer holding a frame at its position
+   * @return number of records applied
+   * @throws IllegalArgumentException if frame is null or holds less than the
+   *                                  frame announces (position is left unchanged)
+   * @throws InterruptedException if interrupted while waiting for queue room
+   *                              (see above for the partly ingested frame)
+   */
+  public int ingest(ByteBuffer frame) throws InterruptedException {
+    if (frame == null) {
+      throw new IllegalArgumentException("frame cannot be null");
+    }
+    int start = frame.position();
+    if (frame.remaining() < HEADER_BYTES) {
+      throw new IllegalArgumentException("incomplete frame header");
+    }
+    int count = frame.getInt(start);
+    if (count < 0 || (long) count * RECORD_BYTES > frame.remaining() - HEADER_BYTES) {
+      throw new IllegalArgumentException("incomplete frame: " + count + " records announced");
+    }
+    if (reportedRange.length < fleet.size()) {
+      trackNewVehicles();
+    }
+
+    int size = fleet.size();
+    int applied = 0;
+    int at = start + HEADER_BYTES;
+    for (int r = 0; r < count; r++, at += RECORD_BYTES) {
+      int index = frame.getInt(at);
+      double stateOfCharge = frame.getDouble(at + 4);
+      double temp = frame.getDouble(at + 12);
+      if (index < 0 || index >= size || !Double.isFinite(stateOfCharge) || !Double.isFinite(temp)) {
+        rejected++;
+        continue;
+      }
+      fleet.update(index, stateOfCharge, temp);
+      applied++;
+
+      double range = fleet.range(index);
+      double previous = reportedRange[index];
+      if (Math.abs(range - previous) > threshold) {
+        try {
+          downstream.put(new RangeChange(index, previous, range));
+        } catch (InterruptedException e) {
+          frame.position(at + RECORD_BYTES);
+          records += applied;
+          throw e;
+        }
+        reportedRange[index] = range;
+      }
+    }
+    frame.position(at);
+    records += applied;
+    return applied;
+  }
+
+  /**
+   * Returns the queue of range changes for downstream consumers.
+   *
+   * @return bounded queue of reports, oldest first
+   */
+  public BlockingQueue<RangeChange> downstream() {
+    return downstream;
+  }
+
+  /**
+   * Returns the number of records applied so far.
+   *
+   * @return applied records
+   */
+  public long getRecords() {
+    return records;
+  }
+
+  /**
+   * Returns the number of records skipped because of an unknown vehicle
+   * index or a non-finite reading.
+   *
+   * @return rejected records
+   */
+  public long getRejected() {
+    return rejected;
+  }
+
+  /**
+   * Appends one record to a frame being built. Start the frame with
+   * putInt(count), then call this count times.
+   *
+   * @param frame buffer to write at its position
+   * @param index vehicle index
+   * @param stateOfCharge state of charge reading
+   * @param temp temperature reading (F)
+   */
+  public static void putRecord(ByteBuffer frame, int index, double stateOfCharge, double temp) {
+    frame.putInt(index).putDouble(stateOfCharge).putDouble(temp);
+  }
+
+  // Private Helper Methods
+
+  /**
+   * Starts tracking vehicles added to the fleet since the last call, from
+   * the range they have now.
+   */
+  private void trackNewVehicles() {
+    int from = reportedRange.length;
+    reportedRange = Arrays.copyOf(reportedRange, fleet.size());
+    for (int i = from; i < reportedRange.length; i++) {
+      reportedRange[i] = fleet.range(i);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+/**
+ * Receives notice that a vehicle's range or state of charge crossed a
+ * threshold it was registered for (see Fleet.subscribeRange and
+ * Fleet.subscribeStateOfCharge), or, for a Fleet.watchRange watcher, that
+ * a vehicle's range changed at all.
+ *
+ * Listeners run on the thread that changed the vehicle, so they should be
+ * quick and must not block; hand work off to another thread if needed.
+ */
+@FunctionalInterface
+public interface ThresholdListener {
+
+  /**
+   * Called when a value moves from one side of the threshold to the other.
+   *
+   * @param index vehicle index in the fleet
+   * @param previous value before the change
+   * @param current value after the change
+   */
+  void crossed(int index, double previous, double current);
+}
@@ -0,0 +1,152 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulates every vehicle of a Fleet driving every one of a set of routes,
+ * and reports where each vehicle is stranded.
+ *
+ * A trip starts from the vehicle's current state of charge. On each segment
+ * the efficiency is set from the segment temperature exactly as
+ * updateEfficiency would (the curve of the vehicle's model), and the segment's energy,
+ * distance / efficiency, is drawn from the battery. The state of charge
+ * cannot go below its 15% floor (the same clamp as setStateOfCharge): a
+ * vehicle that would need to is stranded where it reaches 15%. The fleet
+ * itself is not changed.
+ *
+ * The (vehicle, route) pairs are split in halves on a fork/join pool until
+ * a piece is at most SPLIT_PAIRS pairs, which is run in a plain loop over
+ * primitives; nothing is allocated per segment or per trip.
+ */
+public class TripSimulator {
+
+  /** Reported for a trip that reaches the end of the route. */
+  public static final double NOT_STRANDED = -1.0;
+
+  private static final int SPLIT_PAIRS = 512;
+  // largest array the VM reliably allocates
+  private static final int MAX_PAIRS = Integer.MAX_VALUE - 8;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs a simulator with one worker thread per processor.
+   */
+  public TripSimulator() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs a simulator.
+   *
+   * @param threads number of worker threads (1 - 256)
+   * @throws IllegalArgumentException if threads is out of range
+   */
+  public TripSimulator(int threads) {
+    if (threads < 1 || threads > 256) {
+      throw new IllegalArgumentException("threads must be 1 - 256");
+    }
+    this.pool = new ForkJoinPool(threads);
+  }
+
+  /**
+   * Runs every vehicle over every route.
+   *
+   * The result holds one value per (vehicle, route), at
+   * vehicle * routes.length + route: the miles driven on that route before
+   * being stranded, or NOT_STRANDED.
+   *
+   * @param fleet vehicles to simulate (not changed)
+   * @param routes routes to drive
+   * @return stranding mile per (vehicle, route)
+   * @throws IllegalArgumentException if fleet or routes is null or holds null,
+   *                                  or there are more (vehicle, route) pairs than
+   *                                  one array can hold (split the fleet or routes)
+   */
+  public double[] simulate(Fleet fleet, Route[] routes) {
+    if (fleet == null || routes == null) {
+      throw new IllegalArgumentException("fleet and routes cannot be null");
+    }
+    for (Route route : routes) {
+      if (route == null) {
+        throw new IllegalArgumentException("routes cannot hold null");
+      }
+    }
+    long pairs = (long) fleet.size() * routes.length;
+    if (pairs > MAX_PAIRS) {
+      throw new IllegalArgumentException("Too many (vehicle, route) pairs for one run: " + pairs
+          + " (at most " + MAX_PAIRS + ")");
+    }
+    double[] out = new double[(int) pairs];
+    pool.invoke(new TripTask(fleet, routes, out, 0, out.length));
+    return out;
+  }
+
+  /**
+   * Runs one vehicle over one route.
+   *
+   * @param fleet fleet holding the vehicle (not changed)
+   * @param vehicle vehicle index
+   * @param route route to drive
+   * @return miles driven before being stranded, or NOT_STRANDED
+   */
+  static double drive(Fleet fleet, int vehicle, Route route) {
+    double battery = fleet.getBatterySize(vehicle);
+    double rated = fleet.getDefaultEfficiency(vehicle);
+    double usable = (fleet.getStateOfCharge(vehicle) - 0.15) * battery;   // kWh above the floor
+    double driven = 0.0;
+    for (int s = 0; s < route.segments(); s++) {
+      double efficiency = fleet.factor(vehicle, route.getTemp(s)) * rated;        // miles per kWh
+      double distance = route.getDistance(s);
+      double energy = distance / efficiency;
+      if (energy > usable) {
+        return driven + usable * efficiency;
+      }
+      usable -= energy;
+      driven += distance;
+    }
+    return NOT_STRANDED;
+  }
+
+  /**
+   * Stops the worker threads. The simulator cannot be used afterwards.
+   */
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  /**
+   * Simulates the pairs [start, end) of the flattened (vehicle, route) grid.
+   */
+  private static class TripTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Fleet fleet;
+    private final Route[] routes;
+    private final double[] out;
+    private final int start;
+    private final int end;
+
+    TripTask(Fleet fleet, Route[] routes, double[] out, int start, int end) {
+      this.fleet = fleet;
+      this.routes = routes;
+      this.out = out;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start > SPLIT_PAIRS) {
+        int mid = (start + end) >>> 1;
+        invokeAll(new TripTask(fleet, routes, out, start, mid),
+            new TripTask(fleet, routes, out, mid, end));
+        return;
+      }
+      int n = routes.length;
+      for (int pair = start; pair < end; pair++) {
+        out[pair] = drive(fleet, pair / n, routes[pair % n]);
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests - ConcurrentElectricVehicle
+ */
+public class ConcurrentElectricVehicleTest {
+
+  // tolerance for floating-point comparisons
+  private static final double EPS = 1e-9;
+
+  /**
+   * Same clamps, temperature rule and output as ElectricVehicle.
+   */
+  @Test
+  void behavesLikeElectricVehicle() {
+    ConcurrentElectricVehicle c = new ConcurrentElectricVehicle("", 999.0, -1.0, 0.1);
+    assertEquals("unknown EV", c.getName());
+    assertEquals(150.0, c.getBatterySize(), EPS);
+    assertEquals(0.15, c.getStateOfCharge(), EPS);
+    assertEquals(0.5, c.getEfficiency(), EPS);
+
+    ConcurrentElectricVehicle mache = new ConcurrentElectricVehicle("Ford MachE", 100.0, 0.5, 2.636);
+    ElectricVehicle ev = new ElectricVehicle("Ford MachE", 100.0, 0.5, 2.636);
+    assertEquals(ev.toString(), mache.toString());
+    for (double temp : new double[] {90.0, 64.1, 10.0, 70.0}) {
+      mache.updateEfficiency(temp);
+      ev.updateEfficiency(temp);
+      assertEquals(ev.getEfficiency(), mache.getEfficiency(), 0.0);
+      assertEquals(ev.range(), mache.range(), 0.0);
+    }
+    mache.setStateOfCharge(2.0);
+    assertEquals(1.0, mache.getStateOfCharge(), EPS);
+    mache.update(0.5, 90.0);
+    assertEquals(0.5, mache.getState().getStateOfCharge(), EPS);
+    assertEquals(2.636 * 0.85, mache.getState().getEfficiency(), EPS);
+  }
+
+  /**
+   * Readers never see a state of charge from one update with the
+   * efficiency of another.
+   */
+  @Test
+  void readersSeeConsistentState() throws InterruptedException {
+    ConcurrentElectricVehicle ev = new ConcurrentElectricVehicle("X", 100.0, 0.5, 4.0);
+    // Writers always pair SOC 0.5 with 70F (efficiency 4.0) and SOC 1.0 with
+    // 90F (efficiency 3.4), so the only valid ranges are 200 and 340.
+    Thread[] writers = new Thread[2];
+    for (int w = 0; w < writers.length; w++) {
+      boolean cold = w == 0;
+      writers[w] = new Thread(() -> {
+        for (int i = 0; i < 50_000; i++) {
+          ev.update(cold ? 0.5 : 1.0, cold ? 70.0 : 90.0);
+        }
+      });
+      writers[w].start();
+    }
+    boolean torn = false;
+    while (writers[0].isAlive() || writers[1].isAlive()) {
+      double range = ev.range();
+      torn |= Math.abs(range - 200.0) > EPS && Math.abs(range - 340.0) > EPS;
+    }
+    for (Thread t : writers) {
+      t.join();
+    }
+    assertFalse(torn);
+  }
+
+  /**
+   * Concurrent single-field updates are not lost.
+   */
+  @Test
+  void casKeepsOtherField() throws InterruptedException {
+    ConcurrentElectricVehicle ev = new ConcurrentElectricVehicle("X", 100.0, 0.5, 4.0);
+    Thread soc = new Thread(() -> {
+      for (int i = 0; i < 20_000; i++) {
+        ev.setStateOfCharge(1.0);
+      }
+    });
+    Thread eff = new Thread(() -> {
+      for (int i = 0; i < 20_000; i++) {
+        ev.updateEfficiency(90.0);
+      }
+    });
+    soc.start();
+    eff.start();
+    soc.join();
+    eff.join();
+    assertEquals(1.0, ev.getStateOfCharge(), EPS);
+    assertEquals(3.4, ev.getEfficiency(), EPS);
+  }
+}
@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Unit tests - EfficiencyModel
+ */
+public class EfficiencyModelTest {
+
+  // tolerance for floating-point comparisons
+  private static final double EPS = 1e-9;
+
+  /**
+   * The standard model matches the built-in rule at every tenth of a degree.
+   */
+  @Test
+  void standardMatchesBuiltInRule() {
+    EfficiencyModel model = EfficiencyModel.standard();
+    for (int tenth = -500; tenth <= 1200; tenth++) {
+      double temp = tenth / 10.0;
+      assertEquals(Fleet.efficiencyFactor(temp), model.factor(temp), EPS, "temp " + temp);
+    }
+    assertEquals(0.991, model.factor(64.1), EPS);
+    assertEquals(1.0, model.factor(77.0), EPS);
+    assertEquals(0.85, model.factor(77.1), EPS);
+    assertEquals(0.50, model.factor(-1e9), EPS);
+  }
+
+  /**
+   * Infinite, huge and NaN temperatures behave like the built-in rule.
+   */
+  @Test
+  void extremesMatchBuiltInRule() {
+    EfficiencyModel model = EfficiencyModel.standard();
+    double[] temps = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 3e9, -3e9,
+        1e300, -1e300, Double.MAX_VALUE, -Double.MAX_VALUE};
+    for (double temp : temps) {
+      assertEquals(Fleet.efficiencyFactor(temp), model.factor(temp), EPS, "temp " + temp);
+    }
+    assertEquals(0.85, model.factor(Double.POSITIVE_INFINITY), EPS);
+    assertEquals(0.50, model.factor(Double.NEGATIVE_INFINITY), EPS);
+    assertTrue(Double.isNaN(model.factor(Double.NaN)));
+
+    ElectricVehicle ev = new ElectricVehicle("X", 50.0, 0.5, 4.0, model);
+    ev.updateEfficiency(Double.NaN);
+    assertTrue(Double.isNaN(ev.getEfficiency()));
+  }
+
+  /**
+   * Readings between tenths use the nearest tenth.
+   */
+  @Test
+  void roundsToNearestTenth() {
+    EfficiencyModel model = EfficiencyModel.standard();
+    assertEquals(0.991, model.factor(64.12), EPS);
+    assertEquals(0.992, model.factor(64.17), EPS);
+    assertEquals(1.0, model.factor(77.04), EPS);
+    assertEquals(0.85, model.factor(77.06), EPS);
+  }
+
+  /**
+   * A calibration file drives vehicles and fleets built with the model.
+   */
+  @Test
+  void loadsCalibrationFile() throws Exception {
+    Path file = Files.createTempFile("model", ".cal");
+    try {
+      Files.write(file, List.of(
+          "# compact hatchback",
+          "0   0.60",
+          "",
+          "70  1.00",
+          "90  0.90"));
+      EfficiencyModel model = EfficiencyModel.load(file);
+      assertEquals(0.60, model.factor(-20.0), EPS);
+      assertEquals(0.80, model.factor(35.0), EPS);
+      assertEquals(0.95, model.factor(80.0), EPS);
+      assertEquals(0.90, model.factor(200.0), EPS);
+
+      ElectricVehicle ev = new ElectricVehicle("Hatch", 50.0, 1.0, 4.0, model);
+      ev.updateEfficiency(35.0);
+      assertEquals(3.2, ev.getEfficiency(), EPS);
+
+      Fleet fleet = new Fleet(2, model);
+      fleet.add("A", 50.0, 1.0, 4.0);
+      fleet.add("B", 50.0, 1.0, 2.0);
+      fleet.updateEfficiencyAll(new double[] {80.0, 0.0});
+      assertEquals(3.8, fleet.get(0).getEfficiency(), EPS);
+      assertEquals(1.2, fleet.get(1).getEfficiency(), EPS);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Malformed calibrations are rejected.
+   */
+  @Test
+  void rejectsBadCalibration() {
+    assertThrows(IllegalArgumentException.class, () -> EfficiencyModel.parse(List.of()));
+    assertThrows(IllegalArgumentException.class, () -> EfficiencyModel.parse(List.of("65")));
+    assertThrows(IllegalArgumentException.class, () -> EfficiencyModel.parse(List.of("x 1.0")));
+    assertThrows(IllegalArgumentException.class,
+        () -> EfficiencyModel.parse(List.of("70 1.0", "60 0.9")));
+    assertThrows(IllegalArgumentException.class,
+        () -> EfficiencyModel.parse(List.of("70 1.0", "70 0.9", "70 0.8")));
+    assertThrows(IllegalArgumentException.class, () -> EfficiencyModel.parse(List.of("70 1.5")));
+    assertThrows(IllegalArgumentException.class, () -> EfficiencyModel.parse(List.of("70 0")));
+    assertThrows(IllegalArgumentException.class,
+        () -> EfficiencyModel.parse(List.of("0 0.5", "2000 1.0")));
+  }
+}
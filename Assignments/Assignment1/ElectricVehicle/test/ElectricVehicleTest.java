@@ -2,6 +2,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Locale;
+import java.util.Random;
+
 /**
  * Unit tests - ElectricVehicle
  */
@@ -154,4 +157,57 @@ public class ElectricVehicleTest {
         ev2.toString()
     );
   }
+
+  /**
+   * toString(): cached text is rebuilt after SOC or efficiency changes.
+   */
+  @Test
+  void toStringFollowsChanges() {
+    ElectricVehicle ev2 = new ElectricVehicle("Ford MachE", 100.0, 0.5, 2.636);
+    assertSame(ev2.toString(), ev2.toString());
+
+    ev2.setStateOfCharge(1.0);
+    assertEquals("Ford MachE SOC: 100.0% Range (miles): 263.6", ev2.toString());
+    ev2.updateEfficiency(90.0);
+    assertEquals("Ford MachE SOC: 100.0% Range (miles): 224.1", ev2.toString());
+    assertEquals("> Ford MachE SOC: 100.0% Range (miles): 224.1",
+        ev2.appendTo(new StringBuilder("> ")).toString());
+  }
+
+  /**
+   * The formatter rounds like String.format(Locale.ROOT, "%.1f"), ties and odd
+   * values included.
+   */
+  @Test
+  void formatterMatchesStringFormat() {
+    double[] values = {0.0, -0.0, 0.05, 0.15, 0.25, 0.35, 1.05, 2.675, 15.0, 99.95, 131.75,
+        0.04999999999999999, 1e-300, 123456789.25, 1e20, -3.45, Double.NaN,
+        Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    for (double v : values) {
+      assertEquals(String.format(Locale.ROOT, "%.1f", v),
+          EvFormat.appendTenths(new StringBuilder(), v).toString(), "value " + v);
+    }
+    Random random = new Random(5);
+    for (int i = 0; i < 100_000; i++) {
+      double v = i % 2 == 0 ? random.nextDouble() * 700.0 : (random.nextInt(14000) + 0.5) / 20.0;
+      assertEquals(String.format(Locale.ROOT, "%.1f", v),
+          EvFormat.appendTenths(new StringBuilder(), v).toString(), "value " + v);
+    }
+  }
+
+  /**
+   * toString always uses '.' as the decimal point, even when the default
+   * locale uses a decimal comma.
+   */
+  @Test
+  void toStringIgnoresDefaultLocale() {
+    Locale saved = Locale.getDefault();
+    try {
+      Locale.setDefault(Locale.GERMANY);
+      ElectricVehicle ev2 = new ElectricVehicle("Ford MachE", 100.0, 0.5, 2.636);
+      assertEquals("Ford MachE SOC: 50.0% Range (miles): 131.8", ev2.toString());
+    } finally {
+      Locale.setDefault(saved);
+    }
+  }
 }
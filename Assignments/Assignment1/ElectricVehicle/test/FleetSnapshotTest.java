@@ -0,0 +1,167 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests - FleetSnapshot
+ */
+public class FleetSnapshotTest {
+
+  // tolerance for floating-point comparisons
+  private static final double EPS = 1e-9;
+
+  private static Fleet sampleFleet() {
+    Fleet fleet = new Fleet();
+    fleet.add("Ford MachE", 75.0, 0.5, 2.5);
+    fleet.add(null, 50.0, 0.8, 4.0);
+    fleet.add("Ford MachE", 88.0, 0.9, 3.0);
+    fleet.add("Škoda Enyaq", 77.0, 0.3, 3.5);
+    fleet.get(1).updateEfficiency(90.0);
+    return fleet;
+  }
+
+  /**
+   * A fleet survives a write / read round trip, and the restored fleet
+   * keeps working.
+   */
+  @Test
+  void roundTripRestoresFleet() throws Exception {
+    Path file = Files.createTempFile("fleet", ".snap");
+    try {
+      Fleet fleet = sampleFleet();
+      FleetSnapshot.write(file, fleet);
+      // 16 header + dictionary (3 names) padded + 4 vehicles * 40
+      assertTrue(Files.size(file) < 16 + 64 + 4 * 40);
+
+      Fleet restored = FleetSnapshot.read(file);
+      assertEquals(4, restored.size());
+      for (int i = 0; i < 4; i++) {
+        assertEquals(fleet.get(i).toString(), restored.get(i).toString());
+        assertEquals(fleet.get(i).getEfficiency(), restored.get(i).getEfficiency(), EPS);
+      }
+      assertEquals("unknown EV", restored.get(1).getName());
+      assertSame(restored.get(0).getName(), restored.get(2).getName());
+
+      restored.add("New", 60.0, 1.0, 3.0);
+      assertEquals(5, restored.size());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * A fleet of several models keeps each vehicle's model id, and the
+   * restored vehicles use their own curves again.
+   */
+  @Test
+  void roundTripKeepsModelIds() throws Exception {
+    Path file = Files.createTempFile("fleet", ".snap");
+    try {
+      EfficiencyModel flat = EfficiencyModel.parse(List.of("0 0.7", "100 0.7"));
+      EfficiencyModel[] models = {null, flat};
+      Fleet fleet = new Fleet(4, models);
+      fleet.add("Sedan", 50.0, 1.0, 4.0, 0);
+      fleet.add("Van", 50.0, 1.0, 4.0, 1);
+      FleetSnapshot.write(file, fleet);
+      assertEquals(1, FleetSnapshot.open(file).getModelId(1));
+
+      Fleet restored = FleetSnapshot.read(file, models);
+      restored.updateEfficiencyAll(new double[] {70.0, 70.0});
+      assertEquals(4.0, restored.get(0).getEfficiency(), EPS);
+      assertEquals(2.8, restored.get(1).getEfficiency(), EPS);
+      assertThrows(IllegalArgumentException.class, () -> FleetSnapshot.read(file, flat));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * open() answers from the mapped file without restoring a fleet.
+   */
+  @Test
+  void openReadsInPlace() throws Exception {
+    Path file = Files.createTempFile("fleet", ".snap");
+    try {
+      Fleet fleet = sampleFleet();
+      FleetSnapshot.write(file, fleet);
+      FleetSnapshot snapshot = FleetSnapshot.open(file);
+      assertEquals(4, snapshot.size());
+      assertEquals("Škoda Enyaq", snapshot.getName(3));
+      assertEquals(88.0, snapshot.getBatterySize(2), EPS);
+      assertEquals(0.8, snapshot.getStateOfCharge(1), EPS);
+      assertEquals(4.0, snapshot.getDefaultEfficiency(1), EPS);
+      assertEquals(3.4, snapshot.getEfficiency(1), EPS);
+      assertEquals(fleet.get(0).range(), snapshot.range(0), EPS);
+      assertThrows(IllegalArgumentException.class, () -> snapshot.getName(4));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Empty fleets round trip; other files are rejected.
+   */
+  @Test
+  void handlesEmptyAndForeignFiles() throws Exception {
+    Path file = Files.createTempFile("fleet", ".snap");
+    try {
+      FleetSnapshot.write(file, new Fleet());
+      Fleet restored = FleetSnapshot.read(file);
+      assertEquals(0, restored.size());
+      restored.add("A", 50.0, 0.5, 4.0);
+      assertEquals(1, restored.size());
+
+      Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+      assertThrows(IOException.class, () -> FleetSnapshot.open(file));
+      assertThrows(IllegalArgumentException.class, () -> FleetSnapshot.write(null, new Fleet()));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Truncated files and bad dictionary lengths or name codes fail in open
+   * with an IOException, not later in a getter.
+   */
+  @Test
+  void rejectsCorruptSnapshots() throws Exception {
+    Path file = Files.createTempFile("fleet", ".snap");
+    try {
+      FleetSnapshot.write(file, sampleFleet());
+      byte[] good = Files.readAllBytes(file);
+
+      Files.write(file, Arrays.copyOf(good, good.length - 8));
+      assertThrows(IOException.class, () -> FleetSnapshot.open(file));
+
+      byte[] badLength = good.clone();
+      ByteBuffer.wrap(badLength).order(ByteOrder.LITTLE_ENDIAN)
+          .putInt(16, 1 << 20);                  // first dictionary entry runs past the end
+      Files.write(file, badLength);
+      assertThrows(IOException.class, () -> FleetSnapshot.open(file));
+
+      byte[] badCode = good.clone();
+      int columnsAt = good.length - 4 * 40;
+      ByteBuffer.wrap(badCode).order(ByteOrder.LITTLE_ENDIAN)
+          .putInt(columnsAt + 8, 7);             // third vehicle: no such name
+      Files.write(file, badCode);
+      assertThrows(IOException.class, () -> FleetSnapshot.open(file));
+      assertThrows(IOException.class, () -> FleetSnapshot.read(file));
+
+      // header only, claiming 2^31 - 1 vehicles and names: IOException, not OutOfMemoryError
+      byte[] huge = Arrays.copyOf(good, 16);
+      ByteBuffer.wrap(huge).order(ByteOrder.LITTLE_ENDIAN)
+          .putInt(8, Integer.MAX_VALUE).putInt(12, Integer.MAX_VALUE);
+      Files.write(file, huge);
+      assertThrows(IOException.class, () -> FleetSnapshot.open(file));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
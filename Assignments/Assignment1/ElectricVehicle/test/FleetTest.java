@@ -0,0 +1,203 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests - Fleet
+ */
+public class FleetTest {
+
+  // tolerance for floating-point comparisons
+  private static final double EPS = 1e-9;
+
+  /**
+   * add(): values are clamped like the ElectricVehicle constructor.
+   */
+  @Test
+  void addClampsLikeConstructor() {
+    Fleet fleet = new Fleet(1);
+    int i = fleet.add("", 999.0, -1.0, 0.1);
+    ElectricVehicle ev = fleet.get(i);
+    assertEquals("unknown EV", ev.getName());
+    assertEquals(150.0, ev.getBatterySize(), EPS);
+    assertEquals(0.15, ev.getStateOfCharge(), EPS);
+    assertEquals(0.5, ev.getEfficiency(), EPS);
+  }
+
+  /**
+   * Batch methods give exactly the same numbers as per-vehicle calls.
+   */
+  @Test
+  void batchMatchesSingleVehicleCalls() {
+    Fleet fleet = new Fleet(2);   // grows while adding
+    double[] temps = new double[200];
+    ElectricVehicle[] singles = new ElectricVehicle[temps.length];
+    for (int i = 0; i < temps.length; i++) {
+      double battery = 10.0 + i * 0.7;
+      double charge = 0.15 + (i % 85) * 0.01;
+      double efficiency = 0.5 + (i % 40) * 0.1;
+      fleet.add("EV" + i, battery, charge, efficiency);
+      singles[i] = new ElectricVehicle("EV" + i, battery, charge, efficiency);
+      temps[i] = -20.0 + i * 0.55;    // cold floor, cold slope, comfort and hot bands
+    }
+
+    fleet.updateEfficiencyAll(temps);
+    double[] ranges = new double[fleet.size()];
+    fleet.rangeAll(ranges);
+    for (int i = 0; i < temps.length; i++) {
+      singles[i].updateEfficiency(temps[i]);
+      assertEquals(singles[i].getEfficiency(), fleet.get(i).getEfficiency(), 0.0);
+      assertEquals(singles[i].range(), ranges[i], 0.0);
+    }
+  }
+
+  /**
+   * A view writes through to the fleet and sees batch updates.
+   */
+  @Test
+  void viewSharesStorage() {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);
+    ElectricVehicle view = fleet.get(0);
+    view.setStateOfCharge(1.0);
+    assertEquals(1.0, fleet.get(0).getStateOfCharge(), EPS);
+
+    fleet.updateEfficiencyAll(new double[] {90.0});
+    assertEquals(3.4, view.getEfficiency(), EPS);
+    assertEquals("A SOC: 100.0% Range (miles): 170.0", view.toString());
+  }
+
+  /**
+   * Bad indexes, capacities and array sizes are rejected.
+   */
+  @Test
+  void rejectsBadArguments() {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);
+    fleet.add("B", 50.0, 0.5, 4.0);
+    assertThrows(IllegalArgumentException.class, () -> new Fleet(0));
+    assertThrows(IllegalArgumentException.class, () -> fleet.get(2));
+    assertThrows(IllegalArgumentException.class, () -> fleet.get(-1));
+    assertThrows(IllegalArgumentException.class, () -> fleet.updateEfficiencyAll(new double[1]));
+    assertThrows(IllegalArgumentException.class, () -> fleet.rangeAll(null));
+  }
+
+  /**
+   * The branch-free kernel matches the single-vehicle rule exactly,
+   * band edges, extremes and NaN included.
+   */
+  @Test
+  void kernelMatchesScalarRule() {
+    double[] temps = {
+        -459.67, -40.0, 0.0, 14.9, 15.0, 15.1, 40.0, 64.0, 64.9, 64.999999,
+        65.0, 70.0, 77.0, 77.000001, 77.1, 100.0, 1e9,
+        Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NaN};
+    double[] rated = new double[temps.length];
+    double[] current = new double[temps.length];
+    Arrays.fill(rated, 3.7);
+    FleetKernel.updateEfficiency(temps, rated, current, temps.length);
+    for (int i = 0; i < temps.length; i++) {
+      ElectricVehicle ev = new ElectricVehicle("X", 50.0, 0.5, 3.7);
+      ev.updateEfficiency(temps[i]);
+      assertEquals(Double.doubleToLongBits(ev.getEfficiency()),
+          Double.doubleToLongBits(current[i]), "temp " + temps[i]);
+    }
+    for (double t = -20.0; t <= 100.0; t += 0.01) {
+      FleetKernel.updateEfficiency(new double[] {t}, rated, current, 1);
+      assertEquals(Fleet.efficiencyFactor(t) * 3.7, current[0], 0.0, "temp " + t);
+    }
+  }
+
+  /**
+   * Subscribers hear only about changes that cross their threshold,
+   * from single-vehicle and batch updates alike.
+   */
+  @Test
+  void thresholdSubscribersNotifiedOnCrossing() {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);   // range 100
+    fleet.add("B", 50.0, 0.5, 4.0);
+    List<String> events = new ArrayList<>();
+    ThresholdListener range = (i, from, to) -> events.add("range " + i + " " + Math.round(to));
+    ThresholdListener charge = (i, from, to) -> events.add("soc " + i + " " + to);
+    fleet.subscribeRange(90.0, range);
+    fleet.subscribeStateOfCharge(0.2, charge);
+
+    ElectricVehicle a = fleet.get(0);
+    a.setStateOfCharge(0.48);   // range 96: no crossing
+    assertTrue(events.isEmpty());
+    a.setStateOfCharge(0.1);    // clamped to 0.15, range 30
+    assertEquals(List.of("soc 0 0.15", "range 0 30"), events);
+
+    events.clear();
+    a.setStateOfCharge(1.0);
+    a.updateEfficiency(40.0);   // 3.0 * 50 = 150: still above 90
+    assertEquals(List.of("soc 0 1.0", "range 0 200"), events);
+
+    events.clear();
+    fleet.updateEfficiencyAll(new double[] {0.0, 0.0});   // A 100, B 50
+    assertEquals(List.of("range 1 50"), events);
+
+    events.clear();
+    fleet.add("C", 100.0, 0.5, 1.0);                        // scratch column must grow
+    fleet.updateEfficiencyAll(new double[] {70.0, 70.0, 0.0});   // B back to 100
+    assertEquals(List.of("range 1 100"), events);
+
+    events.clear();
+    fleet.unsubscribe(range);
+    fleet.unsubscribe(charge);
+    a.setStateOfCharge(0.15);
+    assertTrue(events.isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> fleet.subscribeRange(1.0, null));
+    assertThrows(IllegalArgumentException.class, () -> fleet.subscribeRange(Double.NaN, range));
+  }
+
+  /**
+   * One fleet mixes models: each vehicle follows its own model's curve, in
+   * batch and single updates, and one RangeIndex covers them all.
+   */
+  @Test
+  void mixedModelsUseTheirOwnCurves() {
+    EfficiencyModel flat = EfficiencyModel.parse(List.of("0 0.7", "100 0.7"));
+    Fleet fleet = new Fleet(2, new EfficiencyModel[] {null, flat});
+    fleet.add("Sedan", 50.0, 1.0, 4.0);        // model 0: built-in rule
+    fleet.add("Van", 50.0, 1.0, 4.0, 1);
+    RangeIndex index = new RangeIndex(fleet);
+
+    fleet.updateEfficiencyAll(new double[] {70.0, 70.0});
+    assertEquals(4.0, fleet.get(0).getEfficiency(), EPS);
+    assertEquals(2.8, fleet.get(1).getEfficiency(), EPS);
+    assertArrayEquals(new int[] {1}, index.below(150.0));
+
+    fleet.get(0).updateEfficiency(15.0);       // built-in: 50%
+    fleet.get(1).updateEfficiency(15.0);       // flat: 70%
+    assertEquals(2.0, fleet.get(0).getEfficiency(), EPS);
+    assertEquals(2.8, fleet.get(1).getEfficiency(), EPS);
+    assertArrayEquals(new int[] {0, 1}, index.lowest(2));
+
+    assertThrows(IllegalArgumentException.class, () -> fleet.add("X", 50.0, 1.0, 4.0, 2));
+    assertThrows(IllegalArgumentException.class, () -> new Fleet(1, new EfficiencyModel[0]));
+  }
+
+  /**
+   * export() writes one toString line per vehicle.
+   */
+  @Test
+  void exportWritesStatusLines() throws IOException {
+    Fleet fleet = new Fleet();
+    fleet.add("Ford MachE", 100.0, 0.5, 2.636);
+    fleet.add("Škoda", 50.0, 1.0, 4.0);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    fleet.export(out);
+    assertEquals("Ford MachE SOC: 50.0% Range (miles): 131.8\n"
+        + "Škoda SOC: 100.0% Range (miles): 200.0\n",
+        out.toString(StandardCharsets.UTF_8));
+    assertThrows(IllegalArgumentException.class, () -> fleet.export(null));
+  }
+}
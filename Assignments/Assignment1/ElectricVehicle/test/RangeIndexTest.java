@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests - RangeIndex
+ */
+public class RangeIndexTest {
+
+  private static Fleet fleetWithRanges() {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);   // 100
+    fleet.add("B", 50.0, 0.2, 3.0);   // 30
+    fleet.add("C", 100.0, 0.5, 1.0);  // 50
+    fleet.add("D", 20.0, 0.5, 3.2);   // 32
+    return fleet;
+  }
+
+  /**
+   * below() returns vehicles under the limit, lowest range first.
+   */
+  @Test
+  void belowReturnsSortedMatches() {
+    RangeIndex index = new RangeIndex(fleetWithRanges());
+    assertArrayEquals(new int[] {1, 3}, index.below(40.0));
+    assertArrayEquals(new int[] {1, 3}, index.below(50.0));
+    assertArrayEquals(new int[] {1, 3, 2, 0}, index.below(1000.0));
+    assertArrayEquals(new int[0], index.below(30.0));
+  }
+
+  /**
+   * lowest() returns the k lowest ranges.
+   */
+  @Test
+  void lowestReturnsTopK() {
+    RangeIndex index = new RangeIndex(fleetWithRanges());
+    assertArrayEquals(new int[] {1, 3, 2}, index.lowest(3));
+    assertArrayEquals(new int[] {1, 3, 2, 0}, index.lowest(10));
+    assertArrayEquals(new int[0], index.lowest(0));
+    assertThrows(IllegalArgumentException.class, () -> index.lowest(-1));
+  }
+
+  /**
+   * Changes through views, batch updates and new vehicles reorder the index.
+   */
+  @Test
+  void followsFleetChanges() {
+    Fleet fleet = fleetWithRanges();
+    RangeIndex index = new RangeIndex(fleet);
+
+    fleet.get(0).setStateOfCharge(0.2);     // A: 40
+    assertArrayEquals(new int[] {1, 3, 0}, index.below(45.0));
+    fleet.get(3).updateEfficiency(90.0);    // D: 27.2
+    assertArrayEquals(new int[] {3, 1, 0}, index.lowest(3));
+
+    fleet.updateEfficiencyAll(new double[] {70.0, 70.0, 15.0, 70.0});   // C: 25, D: 32
+    assertArrayEquals(new int[] {2, 1, 3, 0}, index.below(45.0));
+
+    fleet.add("E", 10.0, 0.15, 0.5);        // 0.75
+    assertArrayEquals(new int[] {4, 2}, index.lowest(2));
+  }
+
+  /**
+   * Queries running while vehicles move up past them never return a vehicle
+   * twice (skip list iterators are weakly consistent).
+   */
+  @Test
+  void queriesReturnEachVehicleOnce() throws InterruptedException {
+    Fleet fleet = new Fleet(256);
+    for (int i = 0; i < 256; i++) {
+      fleet.add("EV" + i, 50.0, 0.15 + i * 0.003, 4.0);
+    }
+    RangeIndex index = new RangeIndex(fleet);
+    AtomicBoolean done = new AtomicBoolean();
+    Thread writer = new Thread(() -> {
+      // lowest vehicle jumps to the top and back, again and again
+      for (int round = 0; !done.get(); round++) {
+        for (int i = 0; i < 256; i++) {
+          fleet.get(i).setStateOfCharge(round % 2 == 0 ? 1.0 : 0.15 + i * 0.003);
+        }
+      }
+    });
+    writer.start();
+    try {
+      for (int q = 0; q < 2000; q++) {
+        assertNoRepeats(index.below(Double.MAX_VALUE));
+        assertNoRepeats(index.lowest(256));
+      }
+    } finally {
+      done.set(true);
+      writer.join();
+    }
+  }
+
+  private static void assertNoRepeats(int[] indexes) {
+    BitSet seen = new BitSet();
+    for (int i : indexes) {
+      assertFalse(seen.get(i), "vehicle " + i + " returned twice");
+      seen.set(i);
+    }
+  }
+
+  /**
+   * close() detaches only the index's own watcher and ends queries.
+   */
+  @Test
+  void closeUnsubscribesFromFleet() {
+    Fleet fleet = fleetWithRanges();
+    int[] calls = new int[1];
+    fleet.watchRange((i, previous, current) -> calls[0]++);
+
+    try (RangeIndex index = new RangeIndex(fleet)) {
+      assertArrayEquals(new int[] {1}, index.lowest(1));
+    }
+    RangeIndex closed = new RangeIndex(fleet);
+    closed.close();
+    closed.close();
+    assertThrows(IllegalStateException.class, () -> closed.below(40.0));
+    assertThrows(IllegalStateException.class, () -> closed.lowest(1));
+
+    fleet.get(0).setStateOfCharge(0.2);
+    assertEquals(1, calls[0]);
+    // only the plain watcher is left
+    assertEquals(1, fleet.rangeSubscriptionCount());
+  }
+
+  /**
+   * A null fleet is rejected.
+   */
+  @Test
+  void rejectsNullFleet() {
+    assertThrows(IllegalArgumentException.class, () -> new RangeIndex(null));
+  }
+}
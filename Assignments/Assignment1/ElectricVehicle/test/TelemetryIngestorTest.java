@@ -0,0 +1,208 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests - TelemetryIngestor
+ */
+public class TelemetryIngestorTest {
+
+  // tolerance for floating-point comparisons
+  private static final double EPS = 1e-9;
+
+  private static ByteBuffer frame(double[][] records) {
+    ByteBuffer buf = ByteBuffer.allocate(TelemetryIngestor.HEADER_BYTES
+        + records.length * TelemetryIngestor.RECORD_BYTES);
+    buf.putInt(records.length);
+    for (double[] r : records) {
+      TelemetryIngestor.putRecord(buf, (int) r[0], r[1], r[2]);
+    }
+    buf.flip();
+    return buf;
+  }
+
+  /**
+   * Records are applied with the ElectricVehicle clamping and temperature rules.
+   */
+  @Test
+  void appliesRecordsWithClamping() throws InterruptedException {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);
+    fleet.add("B", 100.0, 0.5, 2.0);
+    TelemetryIngestor ingestor = new TelemetryIngestor(fleet, 1000.0, 8);
+
+    ByteBuffer buf = frame(new double[][] {{0, 2.0, 90.0}, {1, 0.01, 55.0}});
+    assertEquals(2, ingestor.ingest(buf));
+    assertEquals(0, buf.remaining());
+
+    assertEquals(1.0, fleet.get(0).getStateOfCharge(), EPS);
+    assertEquals(3.4, fleet.get(0).getEfficiency(), EPS);
+    assertEquals(0.15, fleet.get(1).getStateOfCharge(), EPS);
+    assertEquals(1.8, fleet.get(1).getEfficiency(), EPS);
+    assertEquals(2, ingestor.getRecords());
+    assertTrue(ingestor.downstream().isEmpty());
+  }
+
+  /**
+   * Only changes above the threshold since the last report go downstream.
+   */
+  @Test
+  void reportsChangesAboveThreshold() throws InterruptedException {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);   // range 100
+    TelemetryIngestor ingestor = new TelemetryIngestor(fleet, 10.0, 8);
+
+    ingestor.ingest(frame(new double[][] {{0, 0.45, 70.0}}));   // 90: not above 10
+    assertTrue(ingestor.downstream().isEmpty());
+    ingestor.ingest(frame(new double[][] {{0, 0.40, 70.0}}));   // 80
+    RangeChange change = ingestor.downstream().poll();
+    assertNotNull(change);
+    assertEquals(0, change.getIndex());
+    assertEquals(100.0, change.getPreviousRange(), EPS);
+    assertEquals(80.0, change.getRange(), EPS);
+
+    ingestor.ingest(frame(new double[][] {{0, 0.35, 70.0}}));   // 70: 10 from last report
+    assertTrue(ingestor.downstream().isEmpty());
+  }
+
+  /**
+   * Unknown vehicles are skipped and counted; vehicles added later are tracked.
+   */
+  @Test
+  void skipsUnknownVehicles() throws InterruptedException {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);
+    TelemetryIngestor ingestor = new TelemetryIngestor(fleet, 0.0, 8);
+
+    assertEquals(1, ingestor.ingest(frame(new double[][] {{1, 1.0, 70.0}, {0, 1.0, 70.0}})));
+    assertEquals(1, ingestor.getRejected());
+
+    fleet.add("B", 100.0, 0.5, 2.0);
+    assertEquals(1, ingestor.ingest(frame(new double[][] {{1, 1.0, 70.0}})));
+    assertEquals(2, ingestor.downstream().size());
+  }
+
+  /**
+   * NaN and infinite readings are skipped and counted, leaving the vehicle as it was.
+   */
+  @Test
+  void skipsNonFiniteReadings() throws InterruptedException {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);   // range 100
+    TelemetryIngestor ingestor = new TelemetryIngestor(fleet, 10.0, 8);
+
+    assertEquals(0, ingestor.ingest(frame(new double[][] {
+        {0, Double.NaN, 70.0},
+        {0, 0.4, Double.NaN},
+        {0, Double.POSITIVE_INFINITY, 70.0},
+        {0, 0.4, Double.NEGATIVE_INFINITY}})));
+    assertEquals(4, ingestor.getRejected());
+    assertEquals(0, ingestor.getRecords());
+    assertEquals(100.0, fleet.get(0).range(), EPS);
+    assertTrue(ingestor.downstream().isEmpty());
+
+    // the next good reading is compared with the last reported range, not NaN
+    assertEquals(1, ingestor.ingest(frame(new double[][] {{0, 0.4, 70.0}})));
+    assertEquals(80.0, ingestor.downstream().poll().getRange(), EPS);
+  }
+
+  /**
+   * A record changes charge and efficiency in one step: subscribers see one
+   * change, never the new charge with the old efficiency.
+   */
+  @Test
+  void recordIsOneRangeChange() throws InterruptedException {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.45, 4.0);   // range 90
+    List<String> crossings = new ArrayList<>();
+    fleet.subscribeRange(100.0, (i, previous, current) -> crossings.add(previous + " -> " + current));
+    int[] moves = new int[1];
+    fleet.watchRange((i, previous, current) -> moves[0]++);
+    TelemetryIngestor ingestor = new TelemetryIngestor(fleet, 1000.0, 8);
+
+    // charge alone would give 120 (over 100); with 30F the range is 78
+    ingestor.ingest(frame(new double[][] {{0, 0.6, 30.0}}));
+    assertEquals(78.0, fleet.get(0).range(), EPS);
+    assertTrue(crossings.isEmpty());
+    assertEquals(1, moves[0]);
+  }
+
+  /**
+   * A full queue blocks ingest until the consumer takes a report.
+   */
+  @Test
+  void fullQueueBlocksProducer() throws Exception {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);
+    fleet.add("B", 50.0, 0.5, 4.0);
+    TelemetryIngestor ingestor = new TelemetryIngestor(fleet, 0.0, 1);
+
+    Thread producer = new Thread(() -> {
+      try {
+        ingestor.ingest(frame(new double[][] {{0, 1.0, 70.0}, {1, 1.0, 70.0}}));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    producer.start();
+    producer.join(200);
+    assertTrue(producer.isAlive());
+
+    assertEquals(0, ingestor.downstream().take().getIndex());
+    producer.join(5000);
+    assertFalse(producer.isAlive());
+    assertEquals(1, ingestor.downstream().take().getIndex());
+  }
+
+  /**
+   * An interrupted ingest moves the position and the count past the records
+   * it applied, so the rest of the frame can be resumed without repeats.
+   */
+  @Test
+  void interruptLeavesFrameResumable() throws Exception {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);
+    fleet.add("B", 50.0, 0.5, 4.0);
+    fleet.add("C", 50.0, 0.5, 4.0);
+    TelemetryIngestor ingestor = new TelemetryIngestor(fleet, 0.0, 1);
+
+    // fill the queue, then interrupt: the report for B cannot be delivered
+    ingestor.ingest(frame(new double[][] {{0, 1.0, 70.0}}));
+    ByteBuffer rest = frame(new double[][] {{1, 1.0, 70.0}, {2, 1.0, 70.0}});
+    Thread.currentThread().interrupt();
+    assertThrows(InterruptedException.class, () -> ingestor.ingest(rest));
+    assertEquals(2, ingestor.getRecords());
+    assertEquals(TelemetryIngestor.HEADER_BYTES + TelemetryIngestor.RECORD_BYTES, rest.position());
+    assertEquals(200.0, fleet.get(1).range(), EPS);
+    assertEquals(100.0, fleet.get(2).range(), EPS);
+    assertEquals(0, ingestor.downstream().take().getIndex());
+
+    // the dropped report for B comes back with its next reading
+    ingestor.ingest(frame(new double[][] {{1, 0.9, 70.0}}));
+    RangeChange change = ingestor.downstream().take();
+    assertEquals(1, change.getIndex());
+    assertEquals(100.0, change.getPreviousRange(), EPS);
+  }
+
+  /**
+   * Bad arguments and truncated frames are rejected.
+   */
+  @Test
+  void rejectsBadArguments() {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.5, 4.0);
+    assertThrows(IllegalArgumentException.class, () -> new TelemetryIngestor(null, 1.0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new TelemetryIngestor(fleet, -1.0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new TelemetryIngestor(fleet, 1.0, 0));
+
+    TelemetryIngestor ingestor = new TelemetryIngestor(fleet, 1.0, 1);
+    ByteBuffer truncated = ByteBuffer.allocate(8).putInt(1).putInt(0);
+    truncated.flip();
+    assertThrows(IllegalArgumentException.class, () -> ingestor.ingest(truncated));
+    assertEquals(0, truncated.position());
+    assertThrows(IllegalArgumentException.class, () -> ingestor.ingest(null));
+  }
+}
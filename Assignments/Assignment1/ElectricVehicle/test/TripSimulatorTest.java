@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Unit tests - TripSimulator
+ */
+public class TripSimulatorTest {
+
+  // tolerance for floating-point comparisons
+  private static final double EPS = 1e-9;
+
+  /**
+   * Trips draw the battery down to the 15% floor and report where that is.
+   */
+  @Test
+  void reportsStrandingMile() {
+    Fleet fleet = new Fleet();
+    fleet.add("A", 50.0, 0.65, 4.0);   // 25 kWh above the floor
+    fleet.add("B", 50.0, 1.0, 4.0);    // 42.5 kWh above the floor
+    Route mild = new Route(new double[] {40.0, 40.0, 40.0}, new double[] {70.0, 70.0, 70.0});
+    Route cold = new Route(new double[] {20.0, 100.0}, new double[] {70.0, 15.0});
+
+    TripSimulator sim = new TripSimulator(2);
+    try {
+      double[] out = sim.simulate(fleet, new Route[] {mild, cold});
+      assertEquals(4, out.length);
+      assertEquals(100.0, out[0], EPS);                        // 25 kWh * 4 mi/kWh
+      assertEquals(20.0 + (25.0 - 5.0) * 2.0, out[1], EPS);    // 2 mi/kWh at 15F
+      assertEquals(TripSimulator.NOT_STRANDED, out[2], EPS);   // 120 miles = 30 kWh
+      assertEquals(20.0 + (42.5 - 5.0) * 2.0, out[3], EPS);
+    } finally {
+      sim.shutdown();
+    }
+    assertEquals(0.65, fleet.get(0).getStateOfCharge(), EPS);
+  }
+
+  /**
+   * Large grids are split across tasks with the same answers as one trip at a time.
+   */
+  @Test
+  void parallelMatchesSingleTrips() {
+    Random random = new Random(7);
+    Fleet fleet = new Fleet();
+    for (int i = 0; i < 300; i++) {
+      fleet.add("EV" + i, 10.0 + random.nextDouble() * 140.0,
+          0.15 + random.nextDouble() * 0.85, 0.5 + random.nextDouble() * 4.0);
+    }
+    Route[] routes = new Route[5];
+    for (int r = 0; r < routes.length; r++) {
+      double[] d = new double[20];
+      double[] t = new double[20];
+      for (int s = 0; s < d.length; s++) {
+        d[s] = random.nextDouble() * 30.0;
+        t[s] = -10.0 + random.nextDouble() * 100.0;
+      }
+      routes[r] = new Route(d, t);
+    }
+    TripSimulator sim = new TripSimulator(4);
+    try {
+      double[] out = sim.simulate(fleet, routes);
+      for (int v = 0; v < fleet.size(); v++) {
+        for (int r = 0; r < routes.length; r++) {
+          assertEquals(TripSimulator.drive(fleet, v, routes[r]), out[v * routes.length + r], 0.0);
+        }
+      }
+    } finally {
+      sim.shutdown();
+    }
+  }
+
+  /**
+   * Bad routes and arguments are rejected.
+   */
+  @Test
+  void rejectsBadArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new Route(new double[1], new double[2]));
+    assertThrows(IllegalArgumentException.class,
+        () -> new Route(new double[] {-1.0}, new double[] {70.0}));
+    assertThrows(IllegalArgumentException.class,
+        () -> new Route(new double[] {10.0, 10.0}, new double[] {70.0, Double.NaN}));
+    assertThrows(IllegalArgumentException.class,
+        () -> new Route(new double[] {10.0}, new double[] {Double.NEGATIVE_INFINITY}));
+    assertThrows(IllegalArgumentException.class, () -> new TripSimulator(0));
+    TripSimulator sim = new TripSimulator(1);
+    try {
+      assertThrows(IllegalArgumentException.class, () -> sim.simulate(null, new Route[0]));
+      assertThrows(IllegalArgumentException.class, () -> sim.simulate(new Fleet(), new Route[1]));
+
+      // 2100 vehicles x 2^20 routes is over 2^31 pairs: rejected, not overflowed
+      Fleet big = new Fleet(2100);
+      for (int i = 0; i < 2100; i++) {
+        big.add("EV" + i, 50.0, 0.5, 4.0);
+      }
+      Route[] many = new Route[1 << 20];
+      Arrays.fill(many, new Route(new double[] {1.0}, new double[] {70.0}));
+      assertThrows(IllegalArgumentException.class, () -> sim.simulate(big, many));
+    } finally {
+      sim.shutdown();
+    }
+  }
+}
@@ -0,0 +1,280 @@
+import java.util.Collection;
+
+/**
+ * All squares attacked by each color, as one 64-bit mask per Color.
+ *
+ * "Attacked" means a piece of that color could capture on the square:
+ * - pawns attack diagonally forward (canKill), not straight ahead
+ * - sliders stop at the first piece in each direction, that piece's square
+ *   included (so a defended friendly piece counts as attacked)
+ *
+ * Instead of calling canKill for every attacker / victim pair, the map keeps
+ * for each square how many pieces of each color attack it, plus each piece's
+ * own attack mask. When a piece is added, removed or moved, only these are
+ * recomputed:
+ * - the piece itself
+ * - sliders whose attack mask touches a changed square (their rays opened or
+ *   closed)
+ * Everything else is reused, so attacked(color) is always an O(1) read.
+ */
+public class AttackMap {
+
+  private final Board board;
+  // attack mask of the piece standing on each square (0 if empty)
+  private final long[] attacksFrom = new long[64];
+  // indexed by [color.ordinal()][square]: number of attackers
+  private final int[][] counts = new int[2][64];
+  private final long[] attacked = new long[2];
+
+  /**
+   * Builds the map for a full set of pieces.
+   *
+   * @param pieces all pieces on the board
+   * @throws IllegalArgumentException if pieces is null, holds null,
+   *                                  or two pieces share a square
+   */
+  public AttackMap(Collection<? extends ChessPiece> pieces) {
+    this.board = new Board(pieces);
+    long occupied = board.occupancy();
+    while (occupied != 0) {
+      int sq = Long.numberOfTrailingZeros(occupied);
+      occupied &= occupied - 1;
+      refresh(sq);
+    }
+  }
+
+  /**
+   * One-pass attack mask of a color, without building a cached map.
+   *
+   * @param pieces all pieces on the board
+   * @param by attacking color
+   * @return squares attacked by that color
+   * @throws IllegalArgumentException if pieces or by is null, pieces holds null,
+   *                                  or two pieces share a square
+   */
+  public static long attacks(Collection<? extends ChessPiece> pieces, Color by) {
+    if (by == null) {
+      throw new IllegalArgumentException("color cannot be null");
+    }
+    Board board = new Board(pieces);
+    long occupied = board.occupancy();
+    long result = 0L;
+    long own = board.occupancy(by);
+    while (own != 0) {
+      int sq = Long.numberOfTrailingZeros(own);
+      own &= own - 1;
+      result |= Bitboards.attacks(board.typeOn(sq), by, sq, occupied);
+    }
+    return result;
+  }
+
+  /**
+   * Squares attacked by the given color.
+   *
+   * @param by attacking color
+   * @return attack mask
+   */
+  public long attacked(Color by) {
+    return attacked[by.ordinal()];
+  }
+
+  /**
+   * Check whether (row, col) is attacked by the given color.
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @param by attacking color
+   * @return true if attacked; false for squares off the board
+   */
+  public boolean isAttacked(int row, int col, Color by) {
+    return ChessPiece.inBounds(row, col) && (attacked[by.ordinal()] & Bitboards.bit(row, col)) != 0;
+  }
+
+  /**
+   * Number of pieces of the given color attacking (row, col).
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @param by attacking color
+   * @return attacker count
+   * @throws IllegalArgumentException if (row,col) is out of bounds
+   */
+  public int attackerCount(int row, int col, Color by) {
+    checkBounds(row, col);
+    return counts[by.ordinal()][Bitboards.square(row, col)];
+  }
+
+  /**
+   * Check whether the king of the given color is attacked.
+   *
+   * @param color king color
+   * @return true if that king stands on a square the other color attacks
+   */
+  public boolean inCheck(Color color) {
+    long king = board.pieces(PieceType.KING, color);
+    return (king & attacked[Position.opposite(color).ordinal()]) != 0;
+  }
+
+  /**
+   * Adds a piece on an empty square.
+   *
+   * @param piece piece to add
+   * @throws IllegalArgumentException if piece is null or its square is taken
+   */
+  public void add(ChessPiece piece) {
+    if (piece == null) {
+      throw new IllegalArgumentException("piece cannot be null");
+    }
+    int sq = Bitboards.square(piece.getRow(), piece.getColumn());
+    if ((board.occupancy() & (1L << sq)) != 0) {
+      throw new IllegalArgumentException("Square already occupied: ("
+          + piece.getRow() + "," + piece.getColumn() + ")");
+    }
+    long touched = affectedSliders(1L << sq);
+    unapply(touched);
+    board.put(piece.getType(), piece.getColor(), sq);
+    reapply(touched | (1L << sq));
+  }
+
+  /**
+   * Removes the piece on (row, col), if any.
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @throws IllegalArgumentException if (row,col) is out of bounds
+   */
+  public void remove(int row, int col) {
+    checkBounds(row, col);
+    int sq = Bitboards.square(row, col);
+    if ((board.occupancy() & (1L << sq)) == 0) {
+      return;
+    }
+    long touched = affectedSliders(1L << sq) | (1L << sq);
+    unapply(touched);
+    board.clear(sq);
+    reapply(touched & ~(1L << sq));
+  }
+
+  /**
+   * Moves the piece on (fromRow, fromCol) to (toRow, toCol), removing whatever
+   * stood on the target square (a capture). No rule checking is done here.
+   *
+   * @param fromRow from row
+   * @param fromCol from column
+   * @param toRow to row
+   * @param toCol to column
+   * @throws IllegalArgumentException if a square is out of bounds or from is empty
+   */
+  public void move(int fromRow, int fromCol, int toRow, int toCol) {
+    checkBounds(fromRow, fromCol);
+    checkBounds(toRow, toCol);
+    int from = Bitboards.square(fromRow, fromCol);
+    int to = Bitboards.square(toRow, toCol);
+    PieceType type = board.typeOn(from);
+    if (type == null) {
+      throw new IllegalArgumentException("No piece on (" + fromRow + "," + fromCol + ")");
+    }
+    if (from == to) {
+      return;
+    }
+    Color color = board.colorOn(from);
+    long changed = (1L << from) | (1L << to);
+    long touched = affectedSliders(changed) | (changed & board.occupancy());
+    unapply(touched);
+    board.clear(from);
+    board.clear(to);
+    board.put(type, color, to);
+    reapply((touched & ~(1L << from)) | (1L << to));
+  }
+
+  /**
+   * Returns a copy of the pieces the map is built on.
+   *
+   * @return board copy
+   */
+  public Board getBoard() {
+    return board.copy();
+  }
+
+  // Private Helper Methods
+
+  /**
+   * Sliders (of both colors) whose current attack mask includes a changed
+   * square: their rays are the only ones a change can open or close.
+   */
+  private long affectedSliders(long changed) {
+    long sliders = board.occupancy() & ~(board.pieces(PieceType.PAWN, Color.WHITE)
+        | board.pieces(PieceType.PAWN, Color.BLACK)
+        | board.pieces(PieceType.KNIGHT, Color.WHITE)
+        | board.pieces(PieceType.KNIGHT, Color.BLACK)
+        | board.pieces(PieceType.KING, Color.WHITE)
+        | board.pieces(PieceType.KING, Color.BLACK));
+    long touched = 0L;
+    while (sliders != 0) {
+      int sq = Long.numberOfTrailingZeros(sliders);
+      sliders &= sliders - 1;
+      if ((attacksFrom[sq] & changed) != 0) {
+        touched |= 1L << sq;
+      }
+    }
+    return touched;
+  }
+
+  /**
+   * Takes the contributions of the pieces on the given squares out of the counts.
+   */
+  private void unapply(long squares) {
+    while (squares != 0) {
+      int sq = Long.numberOfTrailingZeros(squares);
+      squares &= squares - 1;
+      int c = board.colorOn(sq).ordinal();
+      long mask = attacksFrom[sq];
+      while (mask != 0) {
+        int target = Long.numberOfTrailingZeros(mask);
+        mask &= mask - 1;
+        if (--counts[c][target] == 0) {
+          attacked[c] &= ~(1L << target);
+        }
+      }
+      attacksFrom[sq] = 0L;
+    }
+  }
+
+  /**
+   * Recomputes the attack masks of the pieces on the given squares and adds
+   * them to the counts.
+   */
+  private void reapply(long squares) {
+    while (squares != 0) {
+      int sq = Long.numberOfTrailingZeros(squares);
+      squares &= squares - 1;
+      refresh(sq);
+    }
+  }
+
+  /**
+   * Computes one piece's attack mask and adds it to the counts.
+   */
+  private void refresh(int sq) {
+    Color color = board.colorOn(sq);
+    int c = color.ordinal();
+    long mask = Bitboards.attacks(board.typeOn(sq), color, sq, board.occupancy());
+    attacksFrom[sq] = mask;
+    while (mask != 0) {
+      int target = Long.numberOfTrailingZeros(mask);
+      mask &= mask - 1;
+      if (counts[c][target]++ == 0) {
+        attacked[c] |= 1L << target;
+      }
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException if (row,col) is off the board
+   */
+  private static void checkBounds(int row, int col) {
+    if (!ChessPiece.inBounds(row, col)) {
+      throw new IllegalArgumentException("Square out of bounds: (" + row + "," + col + ")");
+    }
+  }
+}
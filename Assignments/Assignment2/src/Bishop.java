@@ -8,6 +8,10 @@
  *
  * Kill rule:
  * - For bishops, capture uses the same pattern as movement so no override.
+ *
+ * Blockers:
+ * - canMove(row, col) ignores pieces in between; use
+ *   canMove(row, col, occ) / canKill(piece, occ) from ChessPiece to respect them.
  */
 
 public class Bishop extends ChessPiece {
@@ -24,6 +28,16 @@ public class Bishop extends ChessPiece {
     super(row, col, color);
   }
 
+  /**
+   * Returns the type of this piece.
+   *
+   * @return PieceType.BISHOP
+   */
+  @Override
+  public PieceType getType() {
+    return PieceType.BISHOP;
+  }
+
   /**
    * Determine whether this bishop can move to (row, col)
    *
@@ -0,0 +1,388 @@
+/**
+ * Precomputed 64-bit attack tables for every piece type.
+ *
+ * Square numbering:
+ * - square = row * 8 + col  (0 - 63)
+ * - bit (1L << square) stands for that square in a bitboard
+ *
+ * Tables:
+ * - King / Knight: one attack mask per square
+ * - Pawn: per square and color, one mask each for the capture diagonals, the
+ *   single push and the double push from the start row (whether a push is
+ *   blocked depends on occupancy, see Board)
+ * - Between: squares strictly between two squares on a shared rank, file or
+ *   diagonal (0 if the two squares are not lined up)
+ * - Rook / Bishop: "magic" lookups. The blockers on the piece's rays are
+ *   multiplied by a magic number and shifted so that every blocker set maps to
+ *   its own slot in a per-square table. Queen = rook | bishop.
+ *
+ * All tables are built once at class-init time; lookups never allocate.
+ */
+public final class Bitboards {
+
+  // Directions as {dRow, dCol}
+  private static final int[][] ROOK_DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+  private static final int[][] BISHOP_DIRS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+  private static final int[][] KING_STEPS = {
+      {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+  private static final int[][] KNIGHT_STEPS = {
+      {2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+
+  private static final long[] KING_ATTACKS = new long[64];
+  private static final long[] KNIGHT_ATTACKS = new long[64];
+  // indexed by [color.ordinal()][square]
+  private static final long[][] PAWN_ATTACKS = new long[2][64];
+  private static final long[][] PAWN_PUSHES = new long[2][64];
+  private static final long[][] PAWN_DOUBLE_PUSHES = new long[2][64];
+
+  // indexed by [from][to]
+  private static final long[][] BETWEEN = new long[64][64];
+
+  private static final long[] ROOK_MASKS = new long[64];
+  private static final long[] ROOK_MAGICS = new long[64];
+  private static final int[] ROOK_SHIFTS = new int[64];
+  private static final long[][] ROOK_TABLE = new long[64][];
+
+  private static final long[] BISHOP_MASKS = new long[64];
+  private static final long[] BISHOP_MAGICS = new long[64];
+  private static final int[] BISHOP_SHIFTS = new int[64];
+  private static final long[][] BISHOP_TABLE = new long[64][];
+
+  // state of the xorshift generator used while searching for magics (fixed seed
+  // so the tables are the same on every run)
+  private static long seed = 0x2545F4914F6CDD1DL;
+
+  static {
+    for (int sq = 0; sq < 64; sq++) {
+      KING_ATTACKS[sq] = stepAttacks(sq, KING_STEPS);
+      KNIGHT_ATTACKS[sq] = stepAttacks(sq, KNIGHT_STEPS);
+      PAWN_ATTACKS[Color.WHITE.ordinal()][sq] = stepAttacks(sq, new int[][] {{1, 1}, {1, -1}});
+      PAWN_ATTACKS[Color.BLACK.ordinal()][sq] = stepAttacks(sq, new int[][] {{-1, 1}, {-1, -1}});
+      PAWN_PUSHES[Color.WHITE.ordinal()][sq] = stepAttacks(sq, new int[][] {{1, 0}});
+      PAWN_PUSHES[Color.BLACK.ordinal()][sq] = stepAttacks(sq, new int[][] {{-1, 0}});
+      if (sq >>> 3 == 1) {
+        PAWN_DOUBLE_PUSHES[Color.WHITE.ordinal()][sq] = 1L << (sq + 16);
+      } else if (sq >>> 3 == 6) {
+        PAWN_DOUBLE_PUSHES[Color.BLACK.ordinal()][sq] = 1L << (sq - 16);
+      }
+
+      initBetween(sq);
+      initMagic(sq, ROOK_DIRS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLE);
+      initMagic(sq, BISHOP_DIRS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLE);
+    }
+  }
+
+  private Bitboards() {
+    // static tables only
+  }
+
+  /**
+   * Converts (row, col) into a square index.
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @return square index (0 - 63)
+   */
+  public static int square(int row, int col) {
+    return (row << 3) | col;
+  }
+
+  /**
+   * Returns the bitboard with only (row, col) set.
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @return single-bit mask
+   */
+  public static long bit(int row, int col) {
+    return 1L << square(row, col);
+  }
+
+  /**
+   * Squares a king on sq attacks.
+   *
+   * @param sq square index
+   * @return attack mask
+   */
+  public static long kingAttacks(int sq) {
+    return KING_ATTACKS[sq];
+  }
+
+  /**
+   * Squares a knight on sq attacks.
+   *
+   * @param sq square index
+   * @return attack mask
+   */
+  public static long knightAttacks(int sq) {
+    return KNIGHT_ATTACKS[sq];
+  }
+
+  /**
+   * Squares a pawn of the given color on sq attacks (diagonally forward).
+   *
+   * @param color pawn color
+   * @param sq square index
+   * @return attack mask
+   */
+  public static long pawnAttacks(Color color, int sq) {
+    return PAWN_ATTACKS[color.ordinal()][sq];
+  }
+
+  /**
+   * Square one step forward of a pawn of the given color on sq (empty mask
+   * on the last row).
+   *
+   * @param color pawn color
+   * @param sq square index
+   * @return push mask
+   */
+  public static long pawnPushes(Color color, int sq) {
+    return PAWN_PUSHES[color.ordinal()][sq];
+  }
+
+  /**
+   * Square two steps forward of a pawn of the given color on sq; only set
+   * on the start row (row 1 for WHITE, row 6 for BLACK).
+   *
+   * @param color pawn color
+   * @param sq square index
+   * @return double-push mask
+   */
+  public static long pawnDoublePushes(Color color, int sq) {
+    return PAWN_DOUBLE_PUSHES[color.ordinal()][sq];
+  }
+
+  /**
+   * Squares a rook on sq attacks, stopping at (and including) the first blocker
+   * in each direction.
+   *
+   * @param sq square index
+   * @param occupied all occupied squares
+   * @return attack mask
+   */
+  public static long rookAttacks(int sq, long occupied) {
+    int index = (int) (((occupied & ROOK_MASKS[sq]) * ROOK_MAGICS[sq]) >>> ROOK_SHIFTS[sq]);
+    return ROOK_TABLE[sq][index];
+  }
+
+  /**
+   * Squares a bishop on sq attacks, stopping at (and including) the first blocker
+   * in each direction.
+   *
+   * @param sq square index
+   * @param occupied all occupied squares
+   * @return attack mask
+   */
+  public static long bishopAttacks(int sq, long occupied) {
+    int index = (int) (((occupied & BISHOP_MASKS[sq]) * BISHOP_MAGICS[sq]) >>> BISHOP_SHIFTS[sq]);
+    return BISHOP_TABLE[sq][index];
+  }
+
+  /**
+   * Squares a queen on sq attacks (rook | bishop).
+   *
+   * @param sq square index
+   * @param occupied all occupied squares
+   * @return attack mask
+   */
+  public static long queenAttacks(int sq, long occupied) {
+    return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+  }
+
+  /**
+   * Squares strictly between from and to, if they share a rank, file or
+   * diagonal. Empty (0) when they are not lined up or are neighbors.
+   *
+   * @param from square index
+   * @param to square index
+   * @return mask of the squares in between
+   */
+  public static long between(int from, int to) {
+    return BETWEEN[from][to];
+  }
+
+  /**
+   * Squares a piece of the given type and color on sq attacks.
+   *
+   * @param type piece type
+   * @param color piece color (only matters for pawns)
+   * @param sq square index
+   * @param occupied all occupied squares (only matters for sliders)
+   * @return attack mask
+   */
+  public static long attacks(PieceType type, Color color, int sq, long occupied) {
+    switch (type) {
+      case PAWN:
+        return pawnAttacks(color, sq);
+      case KNIGHT:
+        return knightAttacks(sq);
+      case BISHOP:
+        return bishopAttacks(sq, occupied);
+      case ROOK:
+        return rookAttacks(sq, occupied);
+      case QUEEN:
+        return queenAttacks(sq, occupied);
+      default:
+        return kingAttacks(sq);
+    }
+  }
+
+  // Table builders (class-init only)
+
+  /**
+   * Builds the mask of single-step targets (king, knight, pawn captures).
+   *
+   * @param sq square index
+   * @param steps list of {dRow, dCol}
+   * @return attack mask
+   */
+  private static long stepAttacks(int sq, int[][] steps) {
+    int row = sq >>> 3;
+    int col = sq & 7;
+    long mask = 0L;
+    for (int[] step : steps) {
+      int r = row + step[0];
+      int c = col + step[1];
+      if (ChessPiece.inBounds(r, c)) {
+        mask |= bit(r, c);
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Fills BETWEEN[from][*] by walking the 8 rays out of from and remembering
+   * the squares passed so far.
+   *
+   * @param from square index
+   */
+  private static void initBetween(int from) {
+    for (int[][] dirs : new int[][][] {ROOK_DIRS, BISHOP_DIRS}) {
+      for (int[] dir : dirs) {
+        long passed = 0L;
+        int r = (from >>> 3) + dir[0];
+        int c = (from & 7) + dir[1];
+        while (ChessPiece.inBounds(r, c)) {
+          BETWEEN[from][square(r, c)] = passed;
+          passed |= bit(r, c);
+          r += dir[0];
+          c += dir[1];
+        }
+      }
+    }
+  }
+
+  /**
+   * Walks each ray square by square, stopping after the first occupied square.
+   * Slow, only used to fill the magic tables.
+   *
+   * @param sq square index
+   * @param occupied blockers
+   * @param dirs ray directions
+   * @return attack mask
+   */
+  private static long slowRayAttacks(int sq, long occupied, int[][] dirs) {
+    long mask = 0L;
+    for (int[] dir : dirs) {
+      int r = (sq >>> 3) + dir[0];
+      int c = (sq & 7) + dir[1];
+      while (ChessPiece.inBounds(r, c)) {
+        mask |= bit(r, c);
+        if ((occupied & bit(r, c)) != 0) {
+          break;
+        }
+        r += dir[0];
+        c += dir[1];
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Squares whose occupancy can change a slider's attacks from sq.
+   * The last square on each ray is left out: it is attacked whether or not
+   * something stands on it.
+   *
+   * @param sq square index
+   * @param dirs ray directions
+   * @return relevant-blocker mask
+   */
+  private static long relevantMask(int sq, int[][] dirs) {
+    long mask = 0L;
+    for (int[] dir : dirs) {
+      int r = (sq >>> 3) + dir[0];
+      int c = (sq & 7) + dir[1];
+      while (ChessPiece.inBounds(r + dir[0], c + dir[1])) {
+        mask |= bit(r, c);
+        r += dir[0];
+        c += dir[1];
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Finds a magic number for sq and fills its attack table.
+   *
+   * Every subset of the relevant mask is enumerated (carry-rippler trick),
+   * and random sparse candidates are tried until no two blocker sets that
+   * need different answers land on the same slot.
+   */
+  private static void initMagic(int sq, int[][] dirs, long[] masks, long[] magics,
+                                int[] shifts, long[][] tables) {
+    long mask = relevantMask(sq, dirs);
+    int bits = Long.bitCount(mask);
+    int size = 1 << bits;
+
+    long[] blockers = new long[size];
+    long[] answers = new long[size];
+    long subset = 0L;
+    for (int i = 0; i < size; i++) {
+      blockers[i] = subset;
+      answers[i] = slowRayAttacks(sq, subset, dirs);
+      subset = (subset - mask) & mask;
+    }
+
+    long[] table = new long[size];
+    int[] usedBy = new int[size];   // stores attempt number, avoids clearing
+    int attempt = 0;
+    while (true) {
+      attempt++;
+      long magic = nextRandom() & nextRandom() & nextRandom();
+      // a good magic spreads the mask into the top bits
+      if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+        continue;
+      }
+      boolean ok = true;
+      for (int i = 0; i < size && ok; i++) {
+        int index = (int) ((blockers[i] * magic) >>> (64 - bits));
+        if (usedBy[index] != attempt) {
+          usedBy[index] = attempt;
+          table[index] = answers[i];
+        } else if (table[index] != answers[i]) {
+          ok = false;
+        }
+      }
+      if (ok) {
+        masks[sq] = mask;
+        magics[sq] = magic;
+        shifts[sq] = 64 - bits;
+        tables[sq] = table;
+        return;
+      }
+    }
+  }
+
+  /**
+   * xorshift64 pseudo-random generator.
+   *
+   * @return next random long
+   */
+  private static long nextRandom() {
+    seed ^= seed << 13;
+    seed ^= seed >>> 7;
+    seed ^= seed << 17;
+    return seed;
+  }
+}
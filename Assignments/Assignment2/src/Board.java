@@ -0,0 +1,305 @@
+import java.util.Collection;
+
+/**
+ * An 8 x 8 board stored as 64-bit bitboards.
+ *
+ * - one bitboard per color (which squares hold WHITE / BLACK pieces)
+ * - one bitboard per PieceType (which squares hold pawns, knights, ...)
+ * - the pieces of a type and color = byType[type] & byColor[color]
+ * - plus a 64-entry array saying which piece is on each square, so
+ *   "what stands on sq" is one array read instead of a scan over the bitboards
+ *
+ * A piece's full move set is returned as one long mask (see moves),
+ * so "can this piece go to (row, col)" is a single bit test instead of
+ * one canMove call per target square.
+ *
+ * Moves here are pseudo-legal: blockers and friendly pieces are respected,
+ * but the board does not check whether the own king is left in check.
+ */
+public class Board {
+
+  private final long[] byColor = new long[2];
+  private final long[] byType = new long[6];
+  // per square: 0 = empty, otherwise color.ordinal() * 6 + type.ordinal() + 1
+  private final byte[] squares = new byte[64];
+
+  private static final PieceType[] TYPES = PieceType.values();
+  private static final Color[] COLORS = Color.values();
+
+  /**
+   * Constructs an empty board.
+   */
+  public Board() {
+    // all bitboards start at 0
+  }
+
+  /**
+   * Constructs a board holding the given pieces.
+   *
+   * @param pieces pieces to place
+   * @throws IllegalArgumentException if pieces is null, holds null,
+   *                                  or two pieces share a square
+   */
+  public Board(Collection<? extends ChessPiece> pieces) {
+    if (pieces == null) {
+      throw new IllegalArgumentException("pieces cannot be null");
+    }
+    for (ChessPiece piece : pieces) {
+      place(piece);
+    }
+  }
+
+  /**
+   * Returns an independent copy of this board.
+   *
+   * @return board copy
+   */
+  public Board copy() {
+    Board copy = new Board();
+    System.arraycopy(byColor, 0, copy.byColor, 0, byColor.length);
+    System.arraycopy(byType, 0, copy.byType, 0, byType.length);
+    System.arraycopy(squares, 0, copy.squares, 0, squares.length);
+    return copy;
+  }
+
+  /**
+   * Puts a piece on its square.
+   *
+   * @param piece piece to place
+   * @throws IllegalArgumentException if piece is null or its square is taken
+   */
+  public void place(ChessPiece piece) {
+    if (piece == null) {
+      throw new IllegalArgumentException("piece cannot be null");
+    }
+    long b = Bitboards.bit(piece.getRow(), piece.getColumn());
+    if ((occupancy() & b) != 0) {
+      throw new IllegalArgumentException("Square already occupied: ("
+          + piece.getRow() + "," + piece.getColumn() + ")");
+    }
+    put(piece.getType(), piece.getColor(), Bitboards.square(piece.getRow(), piece.getColumn()));
+  }
+
+  /**
+   * Removes whatever piece stands on (row, col).
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @throws IllegalArgumentException if (row,col) is out of bounds
+   */
+  public void remove(int row, int col) {
+    checkBounds(row, col);
+    clear(Bitboards.square(row, col));
+  }
+
+  /**
+   * Returns the piece on (row, col), or null if the square is empty.
+   * The piece is the shared instance from ChessPiece.of, nothing is allocated.
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @return the piece, or null
+   * @throws IllegalArgumentException if (row,col) is out of bounds
+   */
+  public ChessPiece pieceAt(int row, int col) {
+    checkBounds(row, col);
+    int sq = Bitboards.square(row, col);
+    if (squares[sq] == 0) {
+      return null;
+    }
+    return ChessPiece.of(typeOn(sq), row, col, colorOn(sq));
+  }
+
+  /**
+   * Puts a piece of the given type and color on square sq, without creating
+   * a ChessPiece object. The square must be empty.
+   *
+   * @param type piece type
+   * @param color piece color
+   * @param sq square index (0 - 63)
+   */
+  public void put(PieceType type, Color color, int sq) {
+    long b = 1L << sq;
+    byColor[color.ordinal()] |= b;
+    byType[type.ordinal()] |= b;
+    squares[sq] = (byte) (color.ordinal() * 6 + type.ordinal() + 1);
+  }
+
+  /**
+   * Empties square sq.
+   *
+   * @param sq square index (0 - 63)
+   */
+  public void clear(int sq) {
+    int code = squares[sq] - 1;
+    if (code < 0) {
+      return;
+    }
+    long keep = ~(1L << sq);
+    byColor[code / 6] &= keep;
+    byType[code % 6] &= keep;
+    squares[sq] = 0;
+  }
+
+  /**
+   * Type of the piece on square sq.
+   *
+   * @param sq square index (0 - 63)
+   * @return piece type, or null if the square is empty
+   */
+  public PieceType typeOn(int sq) {
+    int code = squares[sq] - 1;
+    return code < 0 ? null : TYPES[code % 6];
+  }
+
+  /**
+   * Color of the piece on square sq.
+   *
+   * @param sq square index (0 - 63)
+   * @return piece color, or null if the square is empty
+   */
+  public Color colorOn(int sq) {
+    int code = squares[sq] - 1;
+    return code < 0 ? null : COLORS[code / 6];
+  }
+
+  /**
+   * All pieces of the given color that attack square sq, using the given
+   * blockers for sliding pieces.
+   *
+   * Trick: a pawn of color "by" attacks sq exactly when a pawn of the other
+   * color standing on sq would attack it back, same for every other type.
+   *
+   * @param sq square index (0 - 63)
+   * @param by attacking color
+   * @param occupied blockers
+   * @return bitboard of attackers
+   */
+  public long attackersOf(int sq, Color by, long occupied) {
+    Color other = by == Color.WHITE ? Color.BLACK : Color.WHITE;
+    long rookLike = byType[PieceType.ROOK.ordinal()] | byType[PieceType.QUEEN.ordinal()];
+    long bishopLike = byType[PieceType.BISHOP.ordinal()] | byType[PieceType.QUEEN.ordinal()];
+    long attackers = (Bitboards.pawnAttacks(other, sq) & byType[PieceType.PAWN.ordinal()])
+        | (Bitboards.knightAttacks(sq) & byType[PieceType.KNIGHT.ordinal()])
+        | (Bitboards.kingAttacks(sq) & byType[PieceType.KING.ordinal()])
+        | (Bitboards.rookAttacks(sq, occupied) & rookLike)
+        | (Bitboards.bishopAttacks(sq, occupied) & bishopLike);
+    return attackers & byColor[by.ordinal()];
+  }
+
+  /**
+   * Check whether any piece of color "by" attacks square sq.
+   *
+   * @param sq square index (0 - 63)
+   * @param by attacking color
+   * @return true if attacked
+   */
+  public boolean isAttacked(int sq, Color by) {
+    return attackersOf(sq, by, occupancy()) != 0;
+  }
+
+  /**
+   * All occupied squares.
+   *
+   * @return occupancy bitboard
+   */
+  public long occupancy() {
+    return byColor[0] | byColor[1];
+  }
+
+  /**
+   * Squares occupied by one color.
+   *
+   * @param color the color
+   * @return occupancy bitboard for that color
+   */
+  public long occupancy(Color color) {
+    return byColor[color.ordinal()];
+  }
+
+  /**
+   * Squares holding pieces of the given type and color.
+   *
+   * @param type piece type
+   * @param color piece color
+   * @return bitboard of those pieces
+   */
+  public long pieces(PieceType type, Color color) {
+    return byType[type.ordinal()] & byColor[color.ordinal()];
+  }
+
+  /**
+   * Returns every square the given piece can move to (or capture on) from its
+   * current square, as one bitboard.
+   *
+   * - King / Knight: attack table minus own pieces
+   * - Rook / Bishop / Queen: magic lookup with this board's blockers, minus own pieces
+   * - Pawn: forward pushes onto empty squares (2 from the start row if both are empty)
+   *         plus diagonal captures of enemy pieces
+   *
+   * @param piece the moving piece
+   * @return target mask
+   * @throws IllegalArgumentException if piece is null
+   */
+  public long moves(ChessPiece piece) {
+    if (piece == null) {
+      throw new IllegalArgumentException("piece cannot be null");
+    }
+    return moves(piece.getType(), piece.getColor(),
+        Bitboards.square(piece.getRow(), piece.getColumn()));
+  }
+
+  /**
+   * Same as moves(piece), for a piece described by type, color and square,
+   * so move generators do not need a ChessPiece object.
+   *
+   * @param type piece type
+   * @param color piece color
+   * @param sq square index (0 - 63)
+   * @return target mask
+   */
+  public long moves(PieceType type, Color color, int sq) {
+    long own = byColor[color.ordinal()];
+    long occupied = occupancy();
+
+    if (type != PieceType.PAWN) {
+      return Bitboards.attacks(type, color, sq, occupied) & ~own;
+    }
+
+    long enemy = occupied & ~own;
+    long captures = Bitboards.pawnAttacks(color, sq) & enemy;
+    long empty = ~occupied;
+    long one = Bitboards.pawnPushes(color, sq) & empty;
+    // the double push also needs the square in front to be free
+    long two = one != 0 ? Bitboards.pawnDoublePushes(color, sq) & empty : 0L;
+    return one | two | captures;
+  }
+
+  /**
+   * Determine whether the piece can move to (row, col) on this board.
+   * Bit test against moves(piece).
+   *
+   * @param piece the moving piece
+   * @param row target row
+   * @param col target column
+   * @return true if (row,col) is in the piece's move set
+   * @throws IllegalArgumentException if piece is null
+   */
+  public boolean canMove(ChessPiece piece, int row, int col) {
+    if (!ChessPiece.inBounds(row, col)) {
+      return false;
+    }
+    return (moves(piece) & Bitboards.bit(row, col)) != 0;
+  }
+
+  // Private Helper Methods
+
+  /**
+   * @throws IllegalArgumentException if (row,col) is off the board
+   */
+  private static void checkBounds(int row, int col) {
+    if (!ChessPiece.inBounds(row, col)) {
+      throw new IllegalArgumentException("Square out of bounds: (" + row + "," + col + ")");
+    }
+  }
+}
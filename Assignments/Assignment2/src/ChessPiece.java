@@ -1,13 +1,44 @@
 /**
  * Abstract base class for chess pieces.
  * include shared fields (row, col, color)
+ *
+ * Because pieces never change, one instance per (type, square, color) is
+ * enough: ChessPiece.of hands out shared instances from a table built once,
+ * so code that turns moves into pieces does not allocate.
  */
 public abstract class ChessPiece implements ChessPieceContract {
   // pieces are final as they will not change after created
   private final int row;
   private final int col;
+  private final int square;   // row * 8 + col, for table lookups
   private final Color color;
 
+  /**
+   * Holder for the shared instances, indexed by ((type * 64) + square) * 2 + color.
+   * Built the first time ChessPiece.of is called (holder-class idiom), which
+   * also keeps ChessPiece's own class init free of subclass construction.
+   * Combinations the constructors reject (pawn on its royal row) stay null.
+   */
+  private static final class Canonical {
+    private static final ChessPiece[] TABLE = build();
+
+    private static ChessPiece[] build() {
+      ChessPiece[] table = new ChessPiece[6 * 64 * 2];
+      for (PieceType type : PieceType.values()) {
+        for (int sq = 0; sq < 64; sq++) {
+          for (Color color : Color.values()) {
+            try {
+              table[index(type, sq, color)] = create(type, sq >>> 3, sq & 7, color);
+            } catch (IllegalArgumentException e) {
+              // invalid combination, left null
+            }
+          }
+        }
+      }
+      return table;
+    }
+  }
+
   /**
    * Construct a chess piece at (row, col) with a given color.
    *
@@ -25,9 +56,71 @@ public abstract class ChessPiece implements ChessPieceContract {
     }
     this.row = row;
     this.col = col;
+    this.square = (row << 3) | col;
     this.color = color;
   }
 
+  /**
+   * Returns the shared piece of the given type, position and color.
+   * Same validation as the constructors (which ran once, when the table
+   * was built); equal arguments always return the same instance.
+   *
+   * @param type piece type (must not be null)
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @param color BLACK or WHITE (must not be null)
+   * @return the shared piece
+   * @throws IllegalArgumentException if type or color is null, (row,col) is
+   *                                  out of bounds, or the piece may not stand
+   *                                  there (pawn on its royal row)
+   */
+  public static ChessPiece of(PieceType type, int row, int col, Color color) {
+    if (type == null) {
+      throw new IllegalArgumentException("type cannot be null");
+    }
+    if (color == null) {
+      throw new IllegalArgumentException("color cannot be null");
+    }
+    if (!inBounds(row, col)) {
+      throw new IllegalArgumentException("Piece position out of bounds: (" + row + "," + col + ")");
+    }
+    ChessPiece piece = Canonical.TABLE[index(type, (row << 3) | col, color)];
+    if (piece == null) {
+      // rejected at build time: run the constructor again for its message
+      return create(type, row, col, color);
+    }
+    return piece;
+  }
+
+  /**
+   * Table index for (type, square, color).
+   */
+  private static int index(PieceType type, int sq, Color color) {
+    return ((type.ordinal() << 6) + sq) * 2 + color.ordinal();
+  }
+
+  /**
+   * Builds a new piece object of the given type through its constructor.
+   *
+   * @throws IllegalArgumentException if the constructor rejects the input
+   */
+  private static ChessPiece create(PieceType type, int row, int col, Color color) {
+    switch (type) {
+      case PAWN:
+        return new Pawn(row, col, color);
+      case KNIGHT:
+        return new Knight(row, col, color);
+      case BISHOP:
+        return new Bishop(row, col, color);
+      case ROOK:
+        return new Rook(row, col, color);
+      case QUEEN:
+        return new Queen(row, col, color);
+      default:
+        return new King(row, col, color);
+    }
+  }
+
   /**
    * Helper method: check if the piece is inbound or not
    * row is 0 - 7; col is 0 - 7; board is 8 * 8
@@ -72,6 +165,28 @@ public abstract class ChessPiece implements ChessPieceContract {
     return this.row == r && this.col == c;
   }
 
+  /**
+   * Square index of this piece (row * 8 + col), see Bitboards.
+   *
+   * @return square index (0 - 63)
+   */
+  protected int getSquare() {
+    return square;
+  }
+
+  /**
+   * Check whether (r, c) is on the board and its bit is set in a move table
+   * row for this piece's square.
+   *
+   * @param targets move mask from this piece's square
+   * @param r target row
+   * @param c target col
+   * @return true if the target is in the mask
+   */
+  protected static boolean hasTarget(long targets, int r, int c) {
+    return inBounds(r, c) && (targets & (1L << Bitboards.square(r, c))) != 0;
+  }
+
   @Override
   public int getRow() {
     return row;
@@ -110,4 +225,61 @@ public abstract class ChessPiece implements ChessPieceContract {
     // For most pieces(except Pawn), kill the same as move pattern
     return this.canMove(piece.getRow(), piece.getColumn());
   }
+
+  /**
+   * Blocker-aware move check.
+   * Same as canMove(row, col), and additionally no occupied square may lie
+   * strictly between this piece and the target. The target square itself may
+   * be occupied (whether that is a capture is up to canKill).
+   *
+   * - Rook / Bishop / Queen: the slide must not jump over anything
+   * - Pawn: a 2-square push needs the square in front to be empty
+   * - King / Knight: nothing lies "between", so the answer equals canMove
+   *
+   * The squares in between come from the precomputed Bitboards.between table,
+   * so this is O(1) and allocates nothing.
+   *
+   * @param row target row
+   * @param col target column
+   * @param occ occupied squares (must not be null)
+   * @return true if the move is valid and unobstructed
+   * @throws IllegalArgumentException if occ is null
+   */
+  @Override
+  public boolean canMove(int row, int col, Occupancy occ) {
+    if (occ == null) {
+      throw new IllegalArgumentException("occ cannot be null");
+    }
+    return canMove(row, col) && isPathClear(row, col, occ);
+  }
+
+  /**
+   * Blocker-aware kill check: canKill(piece) and nothing in between.
+   *
+   * @param piece target piece
+   * @param occ occupied squares (must not be null)
+   * @return true if kill is valid and unobstructed
+   * @throws IllegalArgumentException if occ is null
+   */
+  @Override
+  public boolean canKill(ChessPiece piece, Occupancy occ) {
+    if (occ == null) {
+      throw new IllegalArgumentException("occ cannot be null");
+    }
+    return canKill(piece) && isPathClear(piece.getRow(), piece.getColumn(), occ);
+  }
+
+  /**
+   * Check that no occupied square lies strictly between this piece and (r, c).
+   * Caller must make sure (r, c) is in bounds.
+   *
+   * @param r target row
+   * @param c target col
+   * @param occ occupied squares
+   * @return true if the path is clear
+   */
+  protected boolean isPathClear(int r, int c, Occupancy occ) {
+    long between = Bitboards.between(Bitboards.square(row, col), Bitboards.square(r, c));
+    return (between & occ.getBits()) == 0;
+  }
 }
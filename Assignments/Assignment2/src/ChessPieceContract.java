@@ -3,7 +3,9 @@
  * - report its current row
  * - report its current column
  * - report its color
+ * - report its type
  * - determine whether it can move to a target position
+ *   (optionally taking blocking pieces into account)
  * - determine whether it can kill another piece given its position
  */
 public interface ChessPieceContract {
@@ -14,7 +16,13 @@ public interface ChessPieceContract {
 
   Color getColor();
 
+  PieceType getType();
+
   boolean canMove(int row, int col);
 
   boolean canKill(ChessPiece piece);
+
+  boolean canMove(int row, int col, Occupancy occ);
+
+  boolean canKill(ChessPiece piece, Occupancy occ);
 }
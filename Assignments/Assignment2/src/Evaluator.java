@@ -0,0 +1,82 @@
+/**
+ * Static evaluation of a position, in centipawns (100 = one pawn),
+ * from the point of view of the side to move (positive = good for it).
+ *
+ * Terms:
+ * - material: pawn 100, knight 320, bishop 330, rook 500, queen 900
+ * - knights and bishops: bonus for standing near the center
+ * - pawns: bonus for each row advanced (larger on the 4 center files)
+ * - king: bonus for staying on its back rows while queens are on the board
+ */
+public final class Evaluator {
+
+  /** Material value per PieceType ordinal (king has no material value). */
+  public static final int[] VALUES = {100, 320, 330, 500, 900, 0};
+
+  // 0 on the rim, up to 15 on the 4 middle squares
+  private static final int[] CENTER = new int[64];
+
+  private static final PieceType[] TYPES = PieceType.values();
+
+  static {
+    for (int sq = 0; sq < 64; sq++) {
+      int row = sq >>> 3;
+      int col = sq & 7;
+      int rowDist = Math.min(row, 7 - row);
+      int colDist = Math.min(col, 7 - col);
+      CENTER[sq] = 5 * Math.min(rowDist, colDist);
+    }
+  }
+
+  private Evaluator() {
+    // static helpers only
+  }
+
+  /**
+   * Evaluates a position for the side to move.
+   *
+   * @param pos the position
+   * @return score in centipawns
+   */
+  public static int evaluate(Position pos) {
+    int white = evaluate(pos.board(), Color.WHITE);
+    int black = evaluate(pos.board(), Color.BLACK);
+    int score = white - black;
+    return pos.getSideToMove() == Color.WHITE ? score : -score;
+  }
+
+  /**
+   * Sum of all terms for one color.
+   */
+  private static int evaluate(Board board, Color color) {
+    int score = 0;
+    for (int t = 0; t < 5; t++) {
+      score += VALUES[t] * Long.bitCount(board.pieces(TYPES[t], color));
+    }
+
+    long minors = board.pieces(PieceType.KNIGHT, color) | board.pieces(PieceType.BISHOP, color);
+    while (minors != 0) {
+      score += CENTER[Long.numberOfTrailingZeros(minors)];
+      minors &= minors - 1;
+    }
+
+    long pawns = board.pieces(PieceType.PAWN, color);
+    while (pawns != 0) {
+      int sq = Long.numberOfTrailingZeros(pawns);
+      int row = sq >>> 3;
+      int col = sq & 7;
+      int advance = color == Color.WHITE ? row - 1 : 6 - row;
+      score += advance * (col >= 2 && col <= 5 ? 5 : 2);
+      pawns &= pawns - 1;
+    }
+
+    long queens = board.pieces(PieceType.QUEEN, Color.WHITE) | board.pieces(PieceType.QUEEN, Color.BLACK);
+    long king = board.pieces(PieceType.KING, color);
+    if (queens != 0 && king != 0) {
+      int row = Long.numberOfTrailingZeros(king) >>> 3;
+      int fromHome = color == Color.WHITE ? row : 7 - row;
+      score -= 10 * fromHome;
+    }
+    return score;
+  }
+}
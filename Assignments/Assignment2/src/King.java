@@ -28,14 +28,23 @@ public class King extends ChessPiece {
     super(row, col, color);
   }
 
+  /**
+   * Returns the type of this piece.
+   *
+   * @return PieceType.KING
+   */
+  @Override
+  public PieceType getType() {
+    return PieceType.KING;
+  }
+
   /**
    * Determine whether this king can move to (row, col)
    *
-   * Steps:
-   *  1) Check out-of-bounds
-   *  2) Check same square
-   *  3) Compute dr and dc.
-   *  4) Return true if the move is valid
+   * The king steps for every square are precomputed (Bitboards.kingAttacks,
+   * built once from the 8 step directions), so this is one table load and
+   * one bit test: the target must be in bounds and its bit set in the mask
+   * of the king's own square (which never contains the square itself).
    *
    * @param row target row
    * @param col target column
@@ -43,17 +52,6 @@ public class King extends ChessPiece {
    */
   @Override
   public boolean canMove(int row, int col) {
-    // Must be inbound; cannot be same spot
-    if (!inBounds(row, col) || isSameSquare(row, col)) {
-      return false;
-    }
-
-    // How many rows/cols moved (absolute value)
-    int rowSteps = Math.abs(row - getRow());        // 0 or 1 allowed
-    int colSteps = Math.abs(col - getColumn());     // 0 or 1 allowed
-
-    // King can move at most 1 square in row direction and at most 1 in col direction.
-    // only (1,0), (0,1), and (1,1) moves are legal
-    return rowSteps <= 1 && colSteps <= 1;
+    return hasTarget(Bitboards.kingAttacks(getSquare()), row, col);
   }
 }
@@ -32,17 +32,21 @@ public class Knight extends ChessPiece {
     super(row, col, color);
   }
 
+  /**
+   * Returns the type of this piece.
+   *
+   * @return PieceType.KNIGHT
+   */
+  @Override
+  public PieceType getType() {
+    return PieceType.KNIGHT;
+  }
+
   /**
    * Determine whether this knight can move to (row, col)
    *
-   * Steps:
-   * 1) Check out-of-bounds
-   * 2) Check same square
-   * 3) Compute how far the move
-   *    - rowSteps = |row - currentRow|
-   *    - colSteps = |col - currentCol|
-   * 4) Check the two valid move patterns:
-   *    - (2,1) or (1,2)
+   * The (2,1) / (1,2) jumps for every square are precomputed
+   * (Bitboards.knightAttacks), so this is one table load and one bit test.
    *
    * @param row target row
    * @param col target column
@@ -50,16 +54,6 @@ public class Knight extends ChessPiece {
    */
   @Override
   public boolean canMove(int row, int col) {
-    // Must be inbound; cannot be same spot
-    if (!inBounds(row, col) || isSameSquare(row, col)) {
-      return false;
-    }
-
-    // Compute how many steps moved
-    int rowSteps = Math.abs(row - getRow());
-    int colSteps = Math.abs(col - getColumn());
-
-    // valid step: 2 in one direction and 1 in the other
-    return (rowSteps == 2 && colSteps == 1) || (rowSteps == 1 && colSteps == 2);
+    return hasTarget(Bitboards.knightAttacks(getSquare()), row, col);
   }
 }
@@ -0,0 +1,180 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy SMP: parallel search with no work splitting.
+ *
+ * N threads search the same root position at the same time, each with its
+ * own Search (own move buffers, killers and history), and all of them share
+ * one TranspositionTable. Results one thread stores are picked up by the
+ * others, so together they finish each depth sooner than one thread alone.
+ * Helpers start at different depths so they spread over different parts of
+ * the tree.
+ *
+ * The calling thread is worker 0 and its answer is the result; when it
+ * finishes, the shared stop signal ends the helpers.
+ *
+ * Sharing without locks is safe because:
+ * - each helper searches its own Position.copy() (positions are changed
+ *   in place by makeMove / unmakeMove)
+ * - Zobrist and Bitboards only hold read-only tables
+ * - TranspositionTable verifies each entry with key ^ data
+ */
+public class LazySmpSearch {
+
+  private final Search[] workers;
+  private final AtomicBoolean stopSignal = new AtomicBoolean();
+  private final ExecutorService helpers;
+
+  /**
+   * Constructs a parallel search.
+   *
+   * @param tt shared transposition table
+   * @param threads number of search threads (1 - 256), including the caller
+   * @throws IllegalArgumentException if tt is null or threads is out of range
+   */
+  public LazySmpSearch(TranspositionTable tt, int threads) {
+    if (tt == null) {
+      throw new IllegalArgumentException("tt cannot be null");
+    }
+    if (threads < 1 || threads > 256) {
+      throw new IllegalArgumentException("threads must be 1 - 256");
+    }
+    workers = new Search[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Search(tt, stopSignal);
+    }
+    helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, r -> {
+      Thread t = new Thread(r, "lazy-smp-helper");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Searches with all threads; same contract as Search.findBestMove.
+   *
+   * @param pos position to search
+   * @param maxDepth depth limit (1 - Search.MAX_PLY)
+   * @param timeMillis time limit in milliseconds, 0 for none
+   * @return best move found by the main thread, or 0 if none
+   * @throws IllegalArgumentException if pos is null or a limit is out of range
+   * @throws IllegalStateException if this search was shut down or a helper failed
+   */
+  public int findBestMove(Position pos, int maxDepth, long timeMillis) {
+    if (pos == null) {
+      throw new IllegalArgumentException("pos cannot be null");
+    }
+    if (maxDepth < 1 || maxDepth > Search.MAX_PLY || timeMillis < 0) {
+      throw new IllegalArgumentException("Invalid search limits");
+    }
+    if (helpers != null && helpers.isShutdown()) {
+      throw new IllegalStateException("search was shut down");
+    }
+    stopSignal.set(false);
+
+    List<Future<Integer>> running = new ArrayList<>();
+    for (int i = 1; i < workers.length; i++) {
+      Search helper = workers[i];
+      Position own = pos.copy();
+      // odd helpers skip depth 1 so threads are not in lockstep
+      int firstDepth = Math.min(1 + (i & 1), maxDepth);
+      running.add(helpers.submit(() -> helper.findBestMove(own, firstDepth, maxDepth, timeMillis)));
+    }
+
+    int move;
+    try {
+      move = workers[0].findBestMove(pos, maxDepth, timeMillis);
+    } finally {
+      stopSignal.set(true);
+      waitFor(running);
+    }
+    return move;
+  }
+
+  /**
+   * @return score of the main thread's best move
+   */
+  public int getBestScore() {
+    return workers[0].getBestScore();
+  }
+
+  /**
+   * @return deepest depth the main thread finished
+   */
+  public int getCompletedDepth() {
+    return workers[0].getCompletedDepth();
+  }
+
+  /**
+   * @return positions visited by all threads in the last search
+   */
+  public long getNodes() {
+    long total = 0;
+    for (Search worker : workers) {
+      total += worker.getNodes();
+    }
+    return total;
+  }
+
+  /**
+   * @return number of search threads
+   */
+  public int getThreads() {
+    return workers.length;
+  }
+
+  /**
+   * Stops the helper threads. The search cannot be used afterwards.
+   */
+  public void shutdown() {
+    if (helpers != null) {
+      helpers.shutdownNow();
+    }
+  }
+
+  /**
+   * Waits for every helper to return after the stop signal.
+   */
+  private static void waitFor(List<Future<Integer>> running) {
+    for (Future<Integer> future : running) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("helper search failed", e.getCause());
+      }
+    }
+  }
+
+  /**
+   * Prints nodes per second for 1, 2, 4, ... threads on one position.
+   *
+   * @param args [seconds per run] [max threads] [fen]
+   */
+  public static void main(String[] args) {
+    long millis = args.length > 0 ? Long.parseLong(args[0]) * 1000 : 5000;
+    int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+        : Runtime.getRuntime().availableProcessors();
+    Position pos = Position.fromFen(args.length > 2
+        ? String.join(" ", Arrays.copyOfRange(args, 2, args.length))
+        : Position.START_FEN);
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      LazySmpSearch search = new LazySmpSearch(new TranspositionTable(256), threads);
+      long start = System.nanoTime();
+      int move = search.findBestMove(pos, Search.MAX_PLY, millis);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("threads %2d  depth %2d  move %s  nps %.0f%n", threads,
+          search.getCompletedDepth(), Move.toUci(move), search.getNodes() / seconds);
+      search.shutdown();
+    }
+  }
+}
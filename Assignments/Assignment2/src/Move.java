@@ -0,0 +1,108 @@
+/**
+ * A chess move packed into one int, so move lists are plain int[] arrays and
+ * generating moves allocates nothing.
+ *
+ * Bit layout:
+ * - bits  0 - 5  : from square (row * 8 + col)
+ * - bits  6 - 11 : to square
+ * - bits 12 - 14 : promotion piece (PieceType ordinal + 1, 0 = none)
+ * - bits 15 - 16 : flag (NORMAL, DOUBLE_PUSH, EN_PASSANT, CASTLE)
+ */
+public final class Move {
+
+  public static final int NORMAL = 0;
+  public static final int DOUBLE_PUSH = 1;
+  public static final int EN_PASSANT = 2;
+  public static final int CASTLE = 3;
+
+  private static final PieceType[] TYPES = PieceType.values();
+
+  private Move() {
+    // static helpers only
+  }
+
+  /**
+   * Packs a move.
+   *
+   * @param from from square (0 - 63)
+   * @param to to square (0 - 63)
+   * @param promotion promotion piece, or null
+   * @param flag NORMAL, DOUBLE_PUSH, EN_PASSANT or CASTLE
+   * @return packed move
+   */
+  public static int of(int from, int to, PieceType promotion, int flag) {
+    int promo = promotion == null ? 0 : promotion.ordinal() + 1;
+    return from | (to << 6) | (promo << 12) | (flag << 15);
+  }
+
+  /**
+   * Packs a normal (non-promotion, no flag) move.
+   *
+   * @param from from square (0 - 63)
+   * @param to to square (0 - 63)
+   * @return packed move
+   */
+  public static int of(int from, int to) {
+    return from | (to << 6);
+  }
+
+  /**
+   * @param move packed move
+   * @return from square
+   */
+  public static int from(int move) {
+    return move & 63;
+  }
+
+  /**
+   * @param move packed move
+   * @return to square
+   */
+  public static int to(int move) {
+    return (move >>> 6) & 63;
+  }
+
+  /**
+   * @param move packed move
+   * @return promotion piece, or null if this is not a promotion
+   */
+  public static PieceType promotion(int move) {
+    int promo = (move >>> 12) & 7;
+    return promo == 0 ? null : TYPES[promo - 1];
+  }
+
+  /**
+   * @param move packed move
+   * @return NORMAL, DOUBLE_PUSH, EN_PASSANT or CASTLE
+   */
+  public static int flag(int move) {
+    return (move >>> 15) & 3;
+  }
+
+  /**
+   * Writes the move in coordinate notation, e.g. "e2e4" or "e7e8q".
+   * Column 0 is file 'a', row 0 is rank '1'.
+   *
+   * @param move packed move
+   * @return coordinate notation
+   */
+  public static String toUci(int move) {
+    StringBuilder sb = new StringBuilder(5);
+    sb.append(squareName(from(move))).append(squareName(to(move)));
+    PieceType promo = promotion(move);
+    if (promo != null) {
+      sb.append("pnbrqk".charAt(promo.ordinal()));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Square name such as "e4".
+   *
+   * @param sq square index (0 - 63)
+   * @return square name
+   */
+  public static String squareName(int sq) {
+    return "" + (char) ('a' + (sq & 7)) + (char) ('1' + (sq >>> 3));
+  }
+}
@@ -0,0 +1,209 @@
+/**
+ * Generates the legal moves of a Position into an int[] (see Move).
+ *
+ * Steps for each piece of the side to move:
+ * 1) take its pseudo-legal target mask from Board.moves
+ * 2) add the special moves the single pieces cannot know about:
+ *    promotions, en passant and castling
+ * 3) keep a move only if the own king is not attacked afterwards
+ *
+ * Step 3 is done on bitboards (occupancy after the move, captured piece
+ * removed) without building the next position, so nothing is allocated.
+ */
+public final class MoveGenerator {
+
+  /** Upper bound on the number of legal moves in any chess position. */
+  public static final int MAX_MOVES = 256;
+
+  private static final PieceType[] TYPES = PieceType.values();
+  private static final PieceType[] PROMOTIONS = {
+      PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+  private MoveGenerator() {
+    // static helpers only
+  }
+
+  /**
+   * Writes all legal moves of pos into moves, starting at index 0.
+   *
+   * @param pos the position
+   * @param moves output buffer (at least MAX_MOVES long)
+   * @return number of moves written
+   */
+  public static int generate(Position pos, int[] moves) {
+    int count = 0;
+    for (PieceType type : TYPES) {
+      count = generate(pos, type, moves, count);
+    }
+    return count;
+  }
+
+  /**
+   * Appends the legal moves of one piece type (of the side to move).
+   *
+   * @param pos the position
+   * @param type piece type to generate for
+   * @param moves output buffer
+   * @param count number of moves already in the buffer
+   * @return new number of moves in the buffer
+   */
+  public static int generate(Position pos, PieceType type, int[] moves, int count) {
+    Board board = pos.board();
+    Color us = pos.getSideToMove();
+    long pieces = board.pieces(type, us);
+    while (pieces != 0) {
+      int from = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+
+      long targets = board.moves(type, us, from);
+      while (targets != 0) {
+        int to = Long.numberOfTrailingZeros(targets);
+        targets &= targets - 1;
+        if (type == PieceType.PAWN) {
+          count = addPawnMove(pos, from, to, moves, count);
+        } else if (isLegal(pos, from, to, Move.NORMAL)) {
+          moves[count++] = Move.of(from, to);
+        }
+      }
+
+      if (type == PieceType.PAWN) {
+        int ep = pos.getEnPassantSquare();
+        if (ep >= 0 && (Bitboards.pawnAttacks(us, from) & (1L << ep)) != 0
+            && isLegal(pos, from, ep, Move.EN_PASSANT)) {
+          moves[count++] = Move.of(from, ep, null, Move.EN_PASSANT);
+        }
+      } else if (type == PieceType.KING) {
+        count = addCastles(pos, from, moves, count);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Cross-checks one move against the piece model:
+   * - the moving piece's canMove(row, col, occ) for quiet moves
+   * - its canKill(victim, occ) for captures (en passant: the victim is
+   *   treated as standing on the target square, where the pawn lands)
+   * Castling is a two-piece move the single pieces do not model, so it is
+   * accepted as is.
+   *
+   * @param pos position the move is played from
+   * @param move packed move
+   * @return true if the piece rules allow the move (or it is castling)
+   */
+  public static boolean obeysPieceRules(Position pos, int move) {
+    return obeysPieceRules(pos, move, new Occupancy());
+  }
+
+  /**
+   * Same as obeysPieceRules(pos, move), but loads the board's occupancy
+   * into occ instead of allocating one, so a caller checking every move
+   * can reuse a single Occupancy.
+   *
+   * @param pos position the move is played from
+   * @param move packed move
+   * @param occ scratch occupancy (overwritten)
+   * @return true if the piece rules allow the move (or it is castling)
+   */
+  public static boolean obeysPieceRules(Position pos, int move, Occupancy occ) {
+    int flag = Move.flag(move);
+    if (flag == Move.CASTLE) {
+      return true;
+    }
+    Board board = pos.board();
+    int from = Move.from(move);
+    int to = Move.to(move);
+    ChessPiece piece = board.pieceAt(from >>> 3, from & 7);
+    if (piece == null) {
+      return false;
+    }
+    occ.setBits(board.occupancy());
+    ChessPiece victim = board.pieceAt(to >>> 3, to & 7);
+    if (flag == Move.EN_PASSANT) {
+      victim = ChessPiece.of(PieceType.PAWN, to >>> 3, to & 7, Position.opposite(piece.getColor()));
+    }
+    if (victim != null) {
+      return piece.canKill(victim, occ);
+    }
+    return piece.canMove(to >>> 3, to & 7, occ);
+  }
+
+  // Private Helper Methods
+
+  /**
+   * Adds a pawn move, expanding it into 4 moves when it reaches the last row.
+   */
+  private static int addPawnMove(Position pos, int from, int to, int[] moves, int count) {
+    int flag = Math.abs(to - from) == 16 ? Move.DOUBLE_PUSH : Move.NORMAL;
+    if (!isLegal(pos, from, to, flag)) {
+      return count;
+    }
+    int toRow = to >>> 3;
+    if (toRow == 0 || toRow == 7) {
+      for (PieceType promo : PROMOTIONS) {
+        moves[count++] = Move.of(from, to, promo, Move.NORMAL);
+      }
+    } else {
+      moves[count++] = Move.of(from, to, null, flag);
+    }
+    return count;
+  }
+
+  /**
+   * Adds castling moves for a king on from.
+   * Needs: the right, the rook on its corner, empty squares between king and
+   * rook, and no attacked square on the king's path (including its start).
+   */
+  private static int addCastles(Position pos, int from, int[] moves, int count) {
+    Board board = pos.board();
+    Color us = pos.getSideToMove();
+    Color them = Position.opposite(us);
+    int rights = pos.getCastlingRights();
+    int home = us == Color.WHITE ? 4 : 60;
+    if (from != home) {
+      return count;
+    }
+    int kingside = us == Color.WHITE ? Position.WHITE_KINGSIDE : Position.BLACK_KINGSIDE;
+    int queenside = us == Color.WHITE ? Position.WHITE_QUEENSIDE : Position.BLACK_QUEENSIDE;
+    long rooks = board.pieces(PieceType.ROOK, us);
+    long occupied = board.occupancy();
+
+    if ((rights & (kingside | queenside)) == 0 || board.isAttacked(from, them)) {
+      return count;
+    }
+    if ((rights & kingside) != 0 && (rooks & (1L << (from + 3))) != 0
+        && (occupied & ((1L << (from + 1)) | (1L << (from + 2)))) == 0
+        && !board.isAttacked(from + 1, them) && !board.isAttacked(from + 2, them)) {
+      moves[count++] = Move.of(from, from + 2, null, Move.CASTLE);
+    }
+    if ((rights & queenside) != 0 && (rooks & (1L << (from - 4))) != 0
+        && (occupied & ((1L << (from - 1)) | (1L << (from - 2)) | (1L << (from - 3)))) == 0
+        && !board.isAttacked(from - 1, them) && !board.isAttacked(from - 2, them)) {
+      moves[count++] = Move.of(from, from - 2, null, Move.CASTLE);
+    }
+    return count;
+  }
+
+  /**
+   * Check whether moving from -> to leaves the own king safe.
+   * Builds the occupancy after the move and asks which enemy pieces (minus
+   * the one just captured) would attack the king square.
+   */
+  private static boolean isLegal(Position pos, int from, int to, int flag) {
+    Board board = pos.board();
+    Color us = pos.getSideToMove();
+    long fromBit = 1L << from;
+    long toBit = 1L << to;
+    long captured = toBit;
+    if (flag == Move.EN_PASSANT) {
+      captured = 1L << (us == Color.WHITE ? to - 8 : to + 8);
+    }
+    long occupied = (board.occupancy() & ~fromBit & ~captured) | toBit;
+    int king = (board.pieces(PieceType.KING, us) & fromBit) != 0
+        ? to : pos.kingSquare(us);
+    if (king < 0) {
+      return true;   // no king on the board: nothing to protect
+    }
+    return (board.attackersOf(king, Position.opposite(us), occupied) & ~captured) == 0;
+  }
+}
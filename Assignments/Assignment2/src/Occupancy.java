@@ -0,0 +1,89 @@
+/**
+ * The set of occupied squares on the board, as one 64-bit mask.
+ * bit (row * 8 + col) is 1 when something stands on (row, col).
+ *
+ * Mutable on purpose: a scanner keeps one instance and updates it
+ * in place (set / clear / setBits) instead of allocating per query.
+ */
+public class Occupancy {
+
+  private long bits;
+
+  /**
+   * Constructs an empty occupancy (no square occupied).
+   */
+  public Occupancy() {
+    this(0L);
+  }
+
+  /**
+   * Constructs an occupancy from a raw bitboard.
+   *
+   * @param bits bit (row * 8 + col) set for each occupied square
+   */
+  public Occupancy(long bits) {
+    this.bits = bits;
+  }
+
+  /**
+   * Returns the raw bitboard.
+   *
+   * @return occupied squares
+   */
+  public long getBits() {
+    return bits;
+  }
+
+  /**
+   * Replaces the whole occupancy, e.g. with Board.occupancy().
+   *
+   * @param bits new occupied squares
+   */
+  public void setBits(long bits) {
+    this.bits = bits;
+  }
+
+  /**
+   * Marks (row, col) as occupied.
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @throws IllegalArgumentException if (row,col) is out of bounds
+   */
+  public void set(int row, int col) {
+    checkBounds(row, col);
+    bits |= Bitboards.bit(row, col);
+  }
+
+  /**
+   * Marks (row, col) as empty.
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @throws IllegalArgumentException if (row,col) is out of bounds
+   */
+  public void clear(int row, int col) {
+    checkBounds(row, col);
+    bits &= ~Bitboards.bit(row, col);
+  }
+
+  /**
+   * Check whether (row, col) is occupied.
+   *
+   * @param row row (0 - 7)
+   * @param col column (0 - 7)
+   * @return true if occupied, false if empty or out of bounds
+   */
+  public boolean isOccupied(int row, int col) {
+    return ChessPiece.inBounds(row, col) && (bits & Bitboards.bit(row, col)) != 0;
+  }
+
+  /**
+   * @throws IllegalArgumentException if (row,col) is off the board
+   */
+  private static void checkBounds(int row, int col) {
+    if (!ChessPiece.inBounds(row, col)) {
+      throw new IllegalArgumentException("Square out of bounds: (" + row + "," + col + ")");
+    }
+  }
+}
@@ -19,6 +19,18 @@
  */
 public class Pawn extends ChessPiece {
 
+  // indexed by [color.ordinal()][square]: single push | double push
+  private static final long[][] MOVES = new long[2][64];
+
+  static {
+    for (Color color : Color.values()) {
+      for (int sq = 0; sq < 64; sq++) {
+        MOVES[color.ordinal()][sq] = Bitboards.pawnPushes(color, sq)
+            | Bitboards.pawnDoublePushes(color, sq);
+      }
+    }
+  }
+
   /**
    * Construct a Pawn at the given position and color.
    *
@@ -43,6 +55,16 @@ public class Pawn extends ChessPiece {
     }
   }
 
+  /**
+   * Returns the type of this piece.
+   *
+   * @return PieceType.PAWN
+   */
+  @Override
+  public PieceType getType() {
+    return PieceType.PAWN;
+  }
+
   /**
    * Determine whether this pawn can move to (row, col),
    * For movement:
@@ -52,91 +74,36 @@ public class Pawn extends ChessPiece {
    *     Black forward = -1 row
    * - Can move 2 squares only from the start row.
    *
+   * Single pushes and start-row double pushes come from their own
+   * precomputed tables (Bitboards.pawnPushes / pawnDoublePushes); MOVES holds
+   * their union per color and square, so the check is one table load and
+   * one bit test.
+   *
    * @param row target row
    * @param col target column
    * @return true if this is a valid move, false otherwise
    */
   @Override
   public boolean canMove(int row, int col) {
-    // Must be inbound; cannot be same spot
-    if (!inBounds(row, col) || isSameSquare(row, col)) {
-      return false;
-    }
-    // dRow = targetRow - currentRow
-    // dCol = targetCol - currentCol
-    int dRow = row - getRow();
-    int dCol = col - getColumn();
-
-    // must be straight move (same column)
-    if (dCol != 0) {
-      return false;
-    }
-
-    //  WHITE pawn moves
-    if (getColor() == Color.WHITE) {
-      // standard move: exactly 1 forward (row + 1)
-      if (dRow == 1) {
-        return true;
-      }
-
-      // if from start row 1, pawn can move 2 forward (row + 2)
-      return getRow() == 1 && dRow == 2;
-    }
-
-    // BLACK pawn moves
-    if (dRow == -1) {
-      return true;
-    }
-
-    // if start from row 6, pawn may move 2 forward (row - 2)
-    return getRow() == 6 && dRow == -2;
+    return hasTarget(MOVES[getColor().ordinal()][getSquare()], row, col);
   }
 
   /**
    * Determine whether this pawn can kill the given piece.
    *
    * - Pawn kill diagonally forward by 1
+   *   (precomputed per color and square, Bitboards.pawnAttacks)
    *
    * @param piece the target piece
    * @return true if this pawn can kill the target, false otherwise
    */
-
-    @Override
-    public boolean canKill(ChessPiece piece) {
-    // target must not be null
-    if (piece == null) {
-      return false;
-    }
-
-    // cannot kill friend
-    if (piece.getColor() == getColor()) {
-      return false;
-    }
-
-    // Target location
-    int targetRow = piece.getRow();
-    int targetCol = piece.getColumn();
-
-    // target must be on the board and not the same square
-    if (!inBounds(targetRow, targetCol)) {
-      return false;
-    }
-    if (targetRow == getRow() && targetCol == getColumn()) {
+  @Override
+  public boolean canKill(ChessPiece piece) {
+    // target must not be null; cannot kill friend
+    if (piece == null || piece.getColor() == getColor()) {
       return false;
     }
-
-    // dr, dc from current pawn to target square
-    int dRow = targetRow - getRow();
-    int dCol = Math.abs(targetCol - getColumn()); //abs
-
-    // WHITE kills one step forward diagonally:
-    // dRow must be +1, and column must change by 1.
-    if (getColor() == Color.WHITE) {
-      return dRow == 1 && dCol == 1;
-    }
-
-    // BLACK kills one step forward diagonally:
-    // dRow must be -1, and column must change by 1.
-    return dRow == -1 && dCol == 1;
+    return hasTarget(Bitboards.pawnAttacks(getColor(), getSquare()),
+        piece.getRow(), piece.getColumn());
   }
 }
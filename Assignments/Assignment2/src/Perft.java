@@ -0,0 +1,270 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Perft ("performance test"): counts every leaf of the legal move tree to a
+ * fixed depth. The counts for well-known positions are published, so a
+ * wrong count means a move generation bug, and nodes per second measures
+ * move generation speed.
+ *
+ * Two modes:
+ * - run(pos, depth): plain count, timed as a whole (nodes per second)
+ * - runDetailed(pos, depth): also times move generation per PieceType and,
+ *   if verify is on, checks every generated move against the piece classes'
+ *   own canMove / canKill rules (throws IllegalStateException on a mismatch)
+ *
+ * The tree is walked with makeMove / unmakeMove on the one Position passed
+ * in, which is back in its start state when a run returns.
+ *
+ * Usage: java Perft depth [fen]
+ */
+public class Perft {
+
+  private static final int MAX_PLY = 64;
+  private static final PieceType[] TYPES = PieceType.values();
+
+  // one move buffer per ply, reused for the whole run
+  private final int[][] moveLists = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+  private final Occupancy occ = new Occupancy();
+  private boolean verify;
+
+  // results of the last run
+  private long nodes;
+  private long nanos;
+  private final long[] typeMoves = new long[TYPES.length];
+  private final long[] typeNanos = new long[TYPES.length];
+
+  /**
+   * Turns the piece-rule cross check on or off for runDetailed.
+   *
+   * @param verify true to check every move with canMove / canKill
+   */
+  public void setVerify(boolean verify) {
+    this.verify = verify;
+  }
+
+  /**
+   * Counts the leaves of the move tree.
+   *
+   * @param pos start position
+   * @param depth depth in plies (0 - 63)
+   * @return number of leaf nodes
+   * @throws IllegalArgumentException if pos is null or depth is out of range
+   */
+  public long run(Position pos, int depth) {
+    checkArgs(pos, depth);
+    long start = System.nanoTime();
+    nodes = count(pos, depth, 0);
+    nanos = System.nanoTime() - start;
+    return nodes;
+  }
+
+  /**
+   * Same count as run, with per-type generation timing and optional
+   * piece-rule verification. Slower because of the extra timing calls.
+   *
+   * @param pos start position
+   * @param depth depth in plies (0 - 63)
+   * @return number of leaf nodes
+   * @throws IllegalArgumentException if pos is null or depth is out of range
+   * @throws IllegalStateException if verify is on and a move breaks a piece rule
+   */
+  public long runDetailed(Position pos, int depth) {
+    checkArgs(pos, depth);
+    Arrays.fill(typeMoves, 0);
+    Arrays.fill(typeNanos, 0);
+    long start = System.nanoTime();
+    nodes = countDetailed(pos, depth, 0);
+    nanos = System.nanoTime() - start;
+    return nodes;
+  }
+
+  /**
+   * Leaf counts below each root move ("divide"), for finding which move
+   * subtree disagrees with a reference engine.
+   *
+   * @param pos start position
+   * @param depth depth in plies (1 - 63)
+   * @return map from move (coordinate notation) to leaf count
+   * @throws IllegalArgumentException if pos is null or depth is out of range
+   */
+  public Map<String, Long> divide(Position pos, int depth) {
+    checkArgs(pos, depth);
+    if (depth < 1) {
+      throw new IllegalArgumentException("divide needs depth >= 1");
+    }
+    Map<String, Long> result = new LinkedHashMap<>();
+    int[] moves = moveLists[0];
+    int n = MoveGenerator.generate(pos, moves);
+    for (int i = 0; i < n; i++) {
+      pos.makeMove(moves[i]);
+      result.put(Move.toUci(moves[i]), count(pos, depth - 1, 1));
+      pos.unmakeMove();
+    }
+    return result;
+  }
+
+  /**
+   * @return leaf nodes counted by the last run
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * @return wall time of the last run in nanoseconds
+   */
+  public long getNanos() {
+    return nanos;
+  }
+
+  /**
+   * @return nodes per second of the last run
+   */
+  public double getNodesPerSecond() {
+    return nanos == 0 ? 0.0 : nodes * 1e9 / nanos;
+  }
+
+  /**
+   * Moves generated for a piece type during the last runDetailed.
+   *
+   * @param type piece type
+   * @return number of moves
+   */
+  public long getTypeMoves(PieceType type) {
+    return typeMoves[type.ordinal()];
+  }
+
+  /**
+   * Time spent generating moves for a piece type during the last runDetailed.
+   *
+   * @param type piece type
+   * @return nanoseconds
+   */
+  public long getTypeNanos(PieceType type) {
+    return typeNanos[type.ordinal()];
+  }
+
+  /**
+   * Human-readable summary of the last run.
+   *
+   * @return report text
+   */
+  public String report() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("nodes %d  time %.3f s  nps %.0f%n",
+        nodes, nanos / 1e9, getNodesPerSecond()));
+    for (PieceType type : TYPES) {
+      if (typeMoves[type.ordinal()] > 0) {
+        sb.append(String.format("  %-6s moves %12d  gen time %.3f s%n",
+            type, typeMoves[type.ordinal()], typeNanos[type.ordinal()] / 1e9));
+      }
+    }
+    return sb.toString();
+  }
+
+  // Recursion
+
+  /**
+   * Plain perft with bulk counting at the last ply.
+   */
+  private long count(Position pos, int depth, int ply) {
+    if (depth == 0) {
+      return 1;
+    }
+    int[] moves = moveLists[ply];
+    int n = MoveGenerator.generate(pos, moves);
+    if (depth == 1) {
+      return n;
+    }
+    long total = 0;
+    for (int i = 0; i < n; i++) {
+      pos.makeMove(moves[i]);
+      total += count(pos, depth - 1, ply + 1);
+      pos.unmakeMove();
+    }
+    return total;
+  }
+
+  /**
+   * Perft with per-type timing and optional verification.
+   */
+  private long countDetailed(Position pos, int depth, int ply) {
+    if (depth == 0) {
+      return 1;
+    }
+    int[] moves = moveLists[ply];
+    int n = 0;
+    for (PieceType type : TYPES) {
+      long t0 = System.nanoTime();
+      int before = n;
+      n = MoveGenerator.generate(pos, type, moves, n);
+      typeNanos[type.ordinal()] += System.nanoTime() - t0;
+      typeMoves[type.ordinal()] += n - before;
+    }
+    if (verify) {
+      for (int i = 0; i < n; i++) {
+        checkPieceRules(pos, moves[i]);
+      }
+    }
+    if (depth == 1) {
+      return n;
+    }
+    long total = 0;
+    for (int i = 0; i < n; i++) {
+      pos.makeMove(moves[i]);
+      total += countDetailed(pos, depth - 1, ply + 1);
+      pos.unmakeMove();
+    }
+    return total;
+  }
+
+  /**
+   * @throws IllegalStateException if the move breaks its piece's own rules
+   */
+  private void checkPieceRules(Position pos, int move) {
+    if (!MoveGenerator.obeysPieceRules(pos, move, occ)) {
+      throw new IllegalStateException("Generated move " + Move.toUci(move)
+          + " breaks " + pos.board().typeOn(Move.from(move)) + " rules in " + pos.toFen());
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException if pos is null or depth is out of range
+   */
+  private static void checkArgs(Position pos, int depth) {
+    if (pos == null) {
+      throw new IllegalArgumentException("pos cannot be null");
+    }
+    if (depth < 0 || depth >= MAX_PLY) {
+      throw new IllegalArgumentException("depth must be 0 - " + (MAX_PLY - 1));
+    }
+  }
+
+  /**
+   * Command line driver.
+   *
+   * @param args depth [fen]
+   */
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.out.println("usage: java Perft depth [fen]");
+      return;
+    }
+    int depth = Integer.parseInt(args[0]);
+    String fen = args.length > 1
+        ? String.join(" ", Arrays.copyOfRange(args, 1, args.length))
+        : Position.START_FEN;
+    Position pos = Position.fromFen(fen);
+
+    Perft perft = new Perft();
+    perft.run(pos, depth);
+    System.out.print(perft.report());
+
+    perft.setVerify(true);
+    perft.runDetailed(pos, depth);
+    System.out.println("detailed run (verified against piece rules):");
+    System.out.print(perft.report());
+  }
+}
@@ -0,0 +1,51 @@
+import java.util.Arrays;
+
+/**
+ * Repeatable throughput numbers for move generation.
+ *
+ * JMH is not on this project's classpath, so this follows the same recipe by
+ * hand: a few warm-up runs so the JIT has compiled the hot paths, then
+ * several measured runs, reporting the mean and the spread of nodes/second.
+ *
+ * Usage: java PerftBenchmark [depth] [warmups] [iterations] [fen]
+ */
+public class PerftBenchmark {
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args [depth] [warmups] [iterations] [fen]
+   */
+  public static void main(String[] args) {
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+    int warmups = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+    int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+    String fen = args.length > 3
+        ? String.join(" ", Arrays.copyOfRange(args, 3, args.length))
+        : Position.START_FEN;
+    Position pos = Position.fromFen(fen);
+    Perft perft = new Perft();
+
+    for (int i = 0; i < warmups; i++) {
+      perft.run(pos, depth);
+      System.out.printf("warmup %d: %.0f nps%n", i + 1, perft.getNodesPerSecond());
+    }
+
+    double[] nps = new double[iterations];
+    double sum = 0;
+    for (int i = 0; i < iterations; i++) {
+      perft.run(pos, depth);
+      nps[i] = perft.getNodesPerSecond();
+      sum += nps[i];
+      System.out.printf("iteration %d: %.0f nps%n", i + 1, nps[i]);
+    }
+    double mean = sum / iterations;
+    double var = 0;
+    for (double x : nps) {
+      var += (x - mean) * (x - mean);
+    }
+    double stdDev = iterations > 1 ? Math.sqrt(var / (iterations - 1)) : 0.0;
+    System.out.printf("perft(%d) = %d nodes, mean %.0f nps +- %.0f%n",
+        depth, perft.getNodes(), mean, stdDev);
+  }
+}
@@ -0,0 +1,563 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Replays the games of a PGN file (or the records of an EPD file) and checks
+ * every move, reporting bad games with their byte offsets in the file.
+ *
+ * How it scales to archives of many GB:
+ * - the file is memory-mapped, never read into the heap; each task maps only
+ *   its own range (at most a few MB), so memory use does not grow with the
+ *   file size
+ * - the file is split fork/join style: a range that is too big is cut at a
+ *   game boundary near its middle (a blank line followed by a tag line; for
+ *   EPD, any line break) and both halves are validated in parallel
+ * - tokens are read byte by byte from the mapped buffer and SAN moves are
+ *   resolved in place by SanParser, so no String is built per token (only
+ *   for FEN tags and error messages)
+ *
+ * Each SAN move must match exactly one legal move (MoveGenerator), and that
+ * move must also pass the piece classes' own canMove / canKill rules.
+ * After the first bad move the rest of that game is skipped.
+ *
+ * Usage: java PgnValidator file...   (files ending in .epd are read as EPD)
+ */
+public class PgnValidator {
+
+  private static final long DEFAULT_SPLIT_SIZE = 8L << 20;
+  // how far to look at a time when searching for a game boundary
+  private static final int SCAN_WINDOW = 1 << 20;
+
+  private final ForkJoinPool pool;
+  private final long splitSize;
+
+  /**
+   * Constructs a validator.
+   *
+   * @param threads number of worker threads (1 - 256)
+   * @throws IllegalArgumentException if threads is out of range
+   */
+  public PgnValidator(int threads) {
+    this(threads, DEFAULT_SPLIT_SIZE);
+  }
+
+  /**
+   * Constructs a validator with a custom split size (for testing splits on
+   * small files).
+   *
+   * @param threads number of worker threads (1 - 256)
+   * @param splitSize ranges up to this many bytes are not split further
+   * @throws IllegalArgumentException if threads or splitSize is out of range
+   */
+  PgnValidator(int threads, long splitSize) {
+    if (threads < 1 || threads > 256) {
+      throw new IllegalArgumentException("threads must be 1 - 256");
+    }
+    if (splitSize < 1 || splitSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid split size: " + splitSize);
+    }
+    this.pool = new ForkJoinPool(threads);
+    this.splitSize = splitSize;
+  }
+
+  /**
+   * Validates a file, read as EPD if its name ends in ".epd", else as PGN.
+   *
+   * @param file the file
+   * @return totals and errors
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if file is null
+   */
+  public ValidationReport validate(Path file) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    boolean epd = file.getFileName().toString().toLowerCase().endsWith(".epd");
+    return validate(file, epd);
+  }
+
+  /**
+   * Validates a PGN or EPD file.
+   *
+   * @param file the file
+   * @param epd true to read EPD records, false for PGN games
+   * @return totals and errors
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if file is null
+   */
+  public ValidationReport validate(Path file, boolean epd) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return pool.invoke(new RangeTask(channel, 0, channel.size(), epd));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Stops the worker threads. The validator cannot be used afterwards.
+   */
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  // Splitting
+
+  /**
+   * Validates file bytes [start, end), which begin at a game boundary.
+   */
+  private class RangeTask extends RecursiveTask<ValidationReport> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final FileChannel channel;
+    private final long start;
+    private final long end;
+    private final boolean epd;
+
+    RangeTask(FileChannel channel, long start, long end, boolean epd) {
+      this.channel = channel;
+      this.start = start;
+      this.end = end;
+      this.epd = epd;
+    }
+
+    @Override
+    protected ValidationReport compute() {
+      try {
+        if (end - start > splitSize) {
+          long split = findBoundary(channel, start + (end - start) / 2, end, epd);
+          if (split > start && split < end) {
+            RangeTask left = new RangeTask(channel, start, split, epd);
+            RangeTask right = new RangeTask(channel, split, end, epd);
+            left.fork();
+            ValidationReport later = right.compute();
+            return left.join().merge(later);
+          }
+        }
+        if (end - start > Integer.MAX_VALUE) {
+          throw new IOException("No game boundary found after offset " + start);
+        }
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        ValidationReport report = new ValidationReport();
+        if (epd) {
+          new EpdReader(buf, start, report).run();
+        } else {
+          new PgnReader(buf, start, report).run();
+        }
+        return report;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * First game start at or after from (before end), or -1 if there is none.
+   * PGN: a '[' that begins a line right after a blank line.
+   * EPD: the start of any line.
+   */
+  private static long findBoundary(FileChannel channel, long from, long end, boolean epd)
+      throws IOException {
+    long lo = Math.max(0, from - 3);
+    while (lo < end) {
+      int length = (int) Math.min(SCAN_WINDOW, end - lo);
+      MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, lo, length);
+      for (int i = 3; i < length; i++) {
+        if (buf.get(i - 1) != '\n') {
+          continue;
+        }
+        if (epd) {
+          return lo + i;
+        }
+        if (buf.get(i) == '[' && (buf.get(i - 2) == '\n'
+            || (buf.get(i - 2) == '\r' && buf.get(i - 3) == '\n'))) {
+          return lo + i;
+        }
+      }
+      if (lo + length >= end) {
+        break;
+      }
+      lo += length - 3;   // overlap so a boundary across windows is not missed
+    }
+    return -1;
+  }
+
+  // Readers
+
+  /**
+   * Shared helpers for reading tokens from a mapped range.
+   */
+  private abstract static class Reader {
+
+    final ByteBuffer buf;
+    final int length;
+    final long base;
+    final ValidationReport report;
+    final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    final Occupancy occ = new Occupancy();
+
+    Reader(ByteBuffer buf, long base, ValidationReport report) {
+      this.buf = buf;
+      this.length = buf.limit();
+      this.base = base;
+      this.report = report;
+    }
+
+    abstract void run();
+
+    /**
+     * Plays one SAN move on pos after checking it.
+     *
+     * @return false (after reporting) if the move is bad
+     */
+    boolean play(Position pos, int from, int to, long gameStart) {
+      int move = SanParser.parse(pos, buf, from, to, moves);
+      if (move == 0) {
+        error(gameStart, from, "illegal or ambiguous move " + text(from, to)
+            + " in " + pos.toFen());
+        return false;
+      }
+      if (!MoveGenerator.obeysPieceRules(pos, move, occ)) {
+        error(gameStart, from, "move " + text(from, to) + " breaks "
+            + pos.board().typeOn(Move.from(move)) + " rules in " + pos.toFen());
+        return false;
+      }
+      pos.makeMove(move);
+      report.addMove();
+      return true;
+    }
+
+    void error(long gameStart, int at, String message) {
+      report.addError(new ValidationError(base + gameStart, base + at, message));
+    }
+
+    /**
+     * Index after the token starting at i.
+     */
+    int tokenEnd(int i) {
+      while (i < length && !isSpace(buf.get(i)) && !isDelimiter(buf.get(i))) {
+        i++;
+      }
+      return i;
+    }
+
+    /**
+     * Index after the next occurrence of ch (or the end).
+     */
+    int skipPast(int i, char ch) {
+      while (i < length && buf.get(i) != ch) {
+        i++;
+      }
+      return Math.min(i + 1, length);
+    }
+
+    boolean matches(int i, int end, String word) {
+      if (end - i != word.length()) {
+        return false;
+      }
+      for (int k = 0; k < word.length(); k++) {
+        if (buf.get(i + k) != word.charAt(k)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    String text(int from, int to) {
+      byte[] bytes = new byte[to - from];
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = buf.get(from + i);
+      }
+      return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    static boolean isSpace(byte ch) {
+      return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t';
+    }
+
+    static boolean isDelimiter(byte ch) {
+      return ch == '{' || ch == '}' || ch == '(' || ch == ')' || ch == ';' || ch == '[';
+    }
+  }
+
+  /**
+   * PGN: tag pairs, then move text with move numbers, comments, variations,
+   * NAGs and a result.
+   */
+  private static class PgnReader extends Reader {
+
+    // standard start position, reset by taking the game's moves back
+    private final Position startPosition = Position.fromFen(Position.START_FEN);
+    private Position pos = startPosition;
+    private int gameStart = -1;
+    private boolean inMoveText;
+    private boolean failed;
+
+    PgnReader(ByteBuffer buf, long base, ValidationReport report) {
+      super(buf, base, report);
+    }
+
+    @Override
+    void run() {
+      int i = 0;
+      while (i < length) {
+        byte ch = buf.get(i);
+        if (isSpace(ch)) {
+          i++;
+          continue;
+        }
+        if (ch == '[') {
+          if (inMoveText) {
+            endGame();
+          }
+          if (gameStart < 0) {
+            gameStart = i;
+          }
+          i = readTag(i);
+          continue;
+        }
+        if (gameStart < 0) {
+          gameStart = i;    // move text without tags
+        }
+        inMoveText = true;
+        if (ch == '{') {
+          i = skipPast(i, '}');
+        } else if (ch == ';' || (ch == '%' && (i == 0 || buf.get(i - 1) == '\n'))) {
+          i = skipPast(i, '\n');
+        } else if (ch == '(') {
+          i = skipVariation(i);
+        } else if (ch == '$') {
+          i = tokenEnd(i + 1);    // NAG such as $1
+        } else if (ch == ')' || ch == '}' || ch == '.') {
+          i++;                    // stray closer, or "..." after a comment
+        } else if (ch == '*') {
+          endGame();
+          i++;
+        } else {
+          i = readMoveText(i);
+        }
+      }
+      if (gameStart >= 0) {
+        endGame();
+      }
+    }
+
+    /**
+     * One token of move text: move number, result or SAN move.
+     */
+    private int readMoveText(int i) {
+      int end = tokenEnd(i);
+      if (matches(i, end, "1-0") || matches(i, end, "0-1") || matches(i, end, "1/2-1/2")) {
+        endGame();
+        return end;
+      }
+      int j = i;
+      while (j < end && buf.get(j) >= '0' && buf.get(j) <= '9') {
+        j++;
+      }
+      if (j > i && j < end && buf.get(j) == '.') {
+        while (j < end && buf.get(j) == '.') {
+          j++;
+        }
+        return j;    // move number; "12.e4" continues with the move
+      }
+      if (!failed) {
+        failed = !play(pos, i, end, gameStart);
+      }
+      return end;
+    }
+
+    /**
+     * Reads [Name "value"]; only the FEN tag is used.
+     */
+    private int readTag(int i) {
+      int nameStart = i + 1;
+      int nameEnd = nameStart;
+      while (nameEnd < length && !isSpace(buf.get(nameEnd)) && buf.get(nameEnd) != ']') {
+        nameEnd++;
+      }
+      int j = nameEnd;
+      int valueStart = -1;
+      int valueEnd = -1;
+      while (j < length && buf.get(j) != ']' && buf.get(j) != '\n') {
+        if (buf.get(j) == '"') {
+          valueStart = j + 1;
+          j++;
+          while (j < length && buf.get(j) != '"' && buf.get(j) != '\n') {
+            j += buf.get(j) == '\\' ? 2 : 1;
+          }
+          valueEnd = Math.min(j, length);
+        }
+        j++;
+      }
+      if (valueStart >= 0 && matches(nameStart, nameEnd, "FEN")) {
+        try {
+          pos = Position.fromFen(text(valueStart, valueEnd));
+        } catch (IllegalArgumentException e) {
+          error(gameStart, i, "bad FEN tag: " + e.getMessage());
+          failed = true;
+        }
+      }
+      return Math.min(j + 1, length);
+    }
+
+    /**
+     * Skips a (possibly nested) variation; comments inside may hold parentheses.
+     */
+    private int skipVariation(int i) {
+      int depth = 0;
+      while (i < length) {
+        byte ch = buf.get(i);
+        if (ch == '{') {
+          i = skipPast(i, '}');
+          continue;
+        }
+        if (ch == '(') {
+          depth++;
+        } else if (ch == ')' && --depth == 0) {
+          return i + 1;
+        }
+        i++;
+      }
+      return length;
+    }
+
+    private void endGame() {
+      report.addGame();
+      while (startPosition.getPly() > 0) {
+        startPosition.unmakeMove();
+      }
+      pos = startPosition;
+      gameStart = -1;
+      inMoveText = false;
+      failed = false;
+    }
+  }
+
+  /**
+   * EPD: one position per line (the first four FEN fields), then operations
+   * such as bm / am whose SAN operands are checked against the position.
+   */
+  private static class EpdReader extends Reader {
+
+    EpdReader(ByteBuffer buf, long base, ValidationReport report) {
+      super(buf, base, report);
+    }
+
+    @Override
+    void run() {
+      int i = 0;
+      while (i < length) {
+        int lineEnd = i;
+        while (lineEnd < length && buf.get(lineEnd) != '\n') {
+          lineEnd++;
+        }
+        readLine(i, lineEnd);
+        i = lineEnd + 1;
+      }
+    }
+
+    private void readLine(int start, int end) {
+      int i = start;
+      while (i < end && isSpace(buf.get(i))) {
+        i++;
+      }
+      if (i == end) {
+        return;   // blank line
+      }
+      report.addGame();
+      int lineStart = i;
+      // the four FEN fields
+      for (int field = 0; field < 4; field++) {
+        while (i < end && isSpace(buf.get(i))) {
+          i++;
+        }
+        while (i < end && !isSpace(buf.get(i))) {
+          i++;
+        }
+      }
+      Position pos;
+      try {
+        pos = Position.fromFen(text(lineStart, i));
+      } catch (IllegalArgumentException e) {
+        error(lineStart, lineStart, "bad EPD position: " + e.getMessage());
+        return;
+      }
+
+      // operations: opcode operand ... ;
+      while (i < end) {
+        while (i < end && isSpace(buf.get(i))) {
+          i++;
+        }
+        if (i == end) {
+          return;
+        }
+        int opStart = i;
+        while (i < end && !isSpace(buf.get(i)) && buf.get(i) != ';') {
+          i++;
+        }
+        boolean moveOp = matches(opStart, i, "bm") || matches(opStart, i, "am")
+            || matches(opStart, i, "pm");
+        while (i < end && buf.get(i) != ';') {
+          byte ch = buf.get(i);
+          if (ch == '"') {
+            i = Math.min(skipPast(i + 1, '"'), end);
+            continue;
+          }
+          if (isSpace(ch)) {
+            i++;
+            continue;
+          }
+          int tokenStart = i;
+          while (i < end && !isSpace(buf.get(i)) && buf.get(i) != ';') {
+            i++;
+          }
+          if (moveOp && play(pos, tokenStart, i, lineStart)) {
+            pos.unmakeMove();   // operands are alternatives from the same position
+          }
+        }
+        i++;
+      }
+    }
+  }
+
+  /**
+   * Command line driver.
+   *
+   * @param args PGN / EPD files
+   * @throws IOException if a file cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.out.println("usage: java PgnValidator file...");
+      return;
+    }
+    PgnValidator validator = new PgnValidator(Runtime.getRuntime().availableProcessors());
+    try {
+      for (String name : args) {
+        long start = System.nanoTime();
+        ValidationReport report = validator.validate(Paths.get(name));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %s  (%.2f s, %.0f moves/s)%n",
+            name, report, seconds, report.getMoves() / seconds);
+        for (ValidationError error : report.getErrors()) {
+          System.out.println("  " + error);
+        }
+      }
+    } finally {
+      validator.shutdown();
+    }
+  }
+}
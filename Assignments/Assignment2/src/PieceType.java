@@ -0,0 +1,13 @@
+/**
+ * Represents the six kinds of chess pieces.
+ * The ordinal is used as an index into per-type tables (bitboards, etc.).
+ */
+
+public enum PieceType {
+  PAWN,
+  KNIGHT,
+  BISHOP,
+  ROOK,
+  QUEEN,
+  KING
+}
@@ -0,0 +1,557 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A full game position: the board plus the state that the pieces themselves
+ * do not know about.
+ *
+ * - side to move
+ * - castling rights (bit flags, see WHITE_KINGSIDE ...)
+ * - en passant square (the square a pawn skipped with a 2-square push, or -1)
+ * - half-move clock and full-move number (kept for FEN round trips)
+ * - 64-bit Zobrist key of all of the above (the en passant square only
+ *   counts when a pawn of the side to move could capture on it, see
+ *   hashesEnPassant)
+ *
+ * Positions are mutable: makeMove(move) changes this position in place and
+ * unmakeMove() takes the last move back. Each step only touches the squares
+ * the move involves: the board's bitboards and square array are updated
+ * piece by piece, and the Zobrist key is updated by XOR-ing out the old and
+ * in the new piece / castling / en passant / side keys. The state a move
+ * destroys (captured piece, old rights, old key ...) goes on an undo stack
+ * held in primitive arrays, so make / unmake never allocate or copy.
+ *
+ * The keys of earlier positions stay on the stack, which makes repetition
+ * detection a short scan (see isRepetition).
+ *
+ * Coordinates follow the pieces: row 0 is White's back rank ("rank 1"),
+ * column 0 is file 'a'.
+ */
+public class Position {
+
+  public static final String START_FEN =
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  public static final int WHITE_KINGSIDE = 1;
+  public static final int WHITE_QUEENSIDE = 2;
+  public static final int BLACK_KINGSIDE = 4;
+  public static final int BLACK_QUEENSIDE = 8;
+
+  // largest half-move clock that fits the 18 bits packUndo gives it
+  public static final int MAX_HALFMOVE_CLOCK = (1 << 18) - 1;
+
+  // castling rights that survive a move touching each square
+  // (moving or capturing a king / rook on its start square drops the right)
+  private static final int[] CASTLE_KEEP = new int[64];
+
+  // FEN letters in PieceType order
+  private static final String PIECE_LETTERS = "pnbrqk";
+  private static final PieceType[] TYPES = PieceType.values();
+
+  static {
+    for (int sq = 0; sq < 64; sq++) {
+      CASTLE_KEEP[sq] = 15;
+    }
+    CASTLE_KEEP[0] &= ~WHITE_QUEENSIDE;
+    CASTLE_KEEP[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+    CASTLE_KEEP[7] &= ~WHITE_KINGSIDE;
+    CASTLE_KEEP[56] &= ~BLACK_QUEENSIDE;
+    CASTLE_KEEP[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    CASTLE_KEEP[63] &= ~BLACK_KINGSIDE;
+  }
+
+  private final Board board;
+  private Color sideToMove;
+  private int castling;
+  private int epSquare;
+  private int halfmoveClock;
+  private int fullmoveNumber;
+  private long key;
+
+  // undo stack, one entry per move made: the move, the state it destroyed
+  // (see packUndo) and the key before the move
+  private int ply;
+  private int[] moveStack = new int[256];
+  private int[] undoStack = new int[256];
+  private long[] keyStack = new long[256];
+
+  /**
+   * Constructs a position from its parts.
+   *
+   * @param board the pieces (copied, later changes to it do not leak in)
+   * @param sideToMove color to move
+   * @param castling castling rights bit flags (0 - 15)
+   * @param epSquare en passant square, or -1 (row 5 with White to move,
+   *                 row 2 with Black to move)
+   * @param halfmoveClock moves since last pawn move or capture
+   *                      (0 - MAX_HALFMOVE_CLOCK)
+   * @param fullmoveNumber move number, starting at 1
+   * @throws IllegalArgumentException if board or sideToMove is null, or a
+   *                                  number is out of range
+   */
+  public Position(Board board, Color sideToMove, int castling, int epSquare,
+                  int halfmoveClock, int fullmoveNumber) {
+    if (board == null || sideToMove == null) {
+      throw new IllegalArgumentException("board and sideToMove cannot be null");
+    }
+    if (castling < 0 || castling > 15 || epSquare < -1 || epSquare > 63
+        || halfmoveClock < 0 || halfmoveClock > MAX_HALFMOVE_CLOCK || fullmoveNumber < 1) {
+      throw new IllegalArgumentException("Invalid position state");
+    }
+    // the pawn that skipped the square belongs to the side not to move
+    int epRow = sideToMove == Color.WHITE ? 5 : 2;
+    if (epSquare >= 0 && epSquare >>> 3 != epRow) {
+      throw new IllegalArgumentException("Invalid en passant square for " + sideToMove
+          + ": " + Move.squareName(epSquare));
+    }
+    this.board = board.copy();
+    this.sideToMove = sideToMove;
+    this.castling = castling;
+    this.epSquare = epSquare;
+    this.halfmoveClock = halfmoveClock;
+    this.fullmoveNumber = fullmoveNumber;
+    this.key = Zobrist.hash(this);
+  }
+
+  /**
+   * Returns an independent copy of this position, including its move
+   * history (so repetitions and unmakeMove keep working on the copy).
+   * Used to give each search thread its own position.
+   *
+   * @return the copy
+   */
+  public Position copy() {
+    Position copy = new Position(board, sideToMove, castling, epSquare,
+        halfmoveClock, fullmoveNumber);
+    copy.ply = ply;
+    copy.moveStack = Arrays.copyOf(moveStack, moveStack.length);
+    copy.undoStack = Arrays.copyOf(undoStack, undoStack.length);
+    copy.keyStack = Arrays.copyOf(keyStack, keyStack.length);
+    return copy;
+  }
+
+  /**
+   * Parses a FEN string, e.g. START_FEN.
+   * The move counters are optional (default "0 1").
+   * Every piece comes from ChessPiece.of, so the piece rules apply
+   * (e.g. a white pawn on row 0 is rejected). The en passant square must be
+   * on rank 6 with White to move and on rank 3 with Black to move, and the
+   * half-move clock at most MAX_HALFMOVE_CLOCK.
+   *
+   * @param fen FEN text
+   * @return the position
+   * @throws IllegalArgumentException if fen is null or malformed
+   */
+  public static Position fromFen(String fen) {
+    if (fen == null) {
+      throw new IllegalArgumentException("fen cannot be null");
+    }
+    String[] parts = fen.trim().split("\\s+");
+    if (parts.length < 4) {
+      throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+    }
+
+    String[] ranks = parts[0].split("/");
+    if (ranks.length != 8) {
+      throw new IllegalArgumentException("FEN needs 8 ranks: " + fen);
+    }
+    List<ChessPiece> pieces = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      int row = 7 - i;   // FEN lists rank 8 first
+      int col = 0;
+      for (char ch : ranks[i].toCharArray()) {
+        if (ch >= '1' && ch <= '8') {
+          col += ch - '0';
+          continue;
+        }
+        int index = PIECE_LETTERS.indexOf(Character.toLowerCase(ch));
+        if (index < 0 || col > 7) {
+          throw new IllegalArgumentException("Bad FEN rank: " + ranks[i]);
+        }
+        Color color = Character.isUpperCase(ch) ? Color.WHITE : Color.BLACK;
+        pieces.add(ChessPiece.of(TYPES[index], row, col, color));
+        col++;
+      }
+      if (col != 8) {
+        throw new IllegalArgumentException("Bad FEN rank: " + ranks[i]);
+      }
+    }
+
+    Color side;
+    if (parts[1].equals("w")) {
+      side = Color.WHITE;
+    } else if (parts[1].equals("b")) {
+      side = Color.BLACK;
+    } else {
+      throw new IllegalArgumentException("Bad side to move: " + parts[1]);
+    }
+
+    int rights = 0;
+    if (!parts[2].equals("-")) {
+      for (char ch : parts[2].toCharArray()) {
+        int index = "KQkq".indexOf(ch);
+        if (index < 0) {
+          throw new IllegalArgumentException("Bad castling field: " + parts[2]);
+        }
+        rights |= 1 << index;
+      }
+    }
+
+    int ep = parts[3].equals("-") ? -1 : parseSquare(parts[3]);
+
+    int half = 0;
+    int full = 1;
+    try {
+      if (parts.length > 4) {
+        half = Integer.parseInt(parts[4]);
+      }
+      if (parts.length > 5) {
+        full = Integer.parseInt(parts[5]);
+      }
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Bad move counters: " + fen);
+    }
+
+    return new Position(new Board(pieces), side, rights, ep, half, full);
+  }
+
+  /**
+   * Writes this position as FEN.
+   *
+   * @return FEN text
+   */
+  public String toFen() {
+    StringBuilder sb = new StringBuilder();
+    for (int row = 7; row >= 0; row--) {
+      int empty = 0;
+      for (int col = 0; col < 8; col++) {
+        int sq = Bitboards.square(row, col);
+        PieceType type = board.typeOn(sq);
+        if (type == null) {
+          empty++;
+          continue;
+        }
+        if (empty > 0) {
+          sb.append(empty);
+          empty = 0;
+        }
+        char letter = PIECE_LETTERS.charAt(type.ordinal());
+        sb.append(board.colorOn(sq) == Color.WHITE ? Character.toUpperCase(letter) : letter);
+      }
+      if (empty > 0) {
+        sb.append(empty);
+      }
+      if (row > 0) {
+        sb.append('/');
+      }
+    }
+    sb.append(sideToMove == Color.WHITE ? " w " : " b ");
+    if (castling == 0) {
+      sb.append('-');
+    }
+    for (int i = 0; i < 4; i++) {
+      if ((castling & (1 << i)) != 0) {
+        sb.append("KQkq".charAt(i));
+      }
+    }
+    sb.append(' ').append(epSquare < 0 ? "-" : Move.squareName(epSquare));
+    sb.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+    return sb.toString();
+  }
+
+  /**
+   * Plays a move on this position. The move must come from MoveGenerator
+   * for this position; it is not validated again here.
+   *
+   * @param move packed move (see Move)
+   */
+  public void makeMove(int move) {
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int flag = Move.flag(move);
+    Color us = sideToMove;
+    Color them = opposite(us);
+    PieceType moving = board.typeOn(from);
+    // en passant: the captured pawn sits behind the target square
+    int captureSq = flag == Move.EN_PASSANT ? (us == Color.WHITE ? to - 8 : to + 8) : to;
+    PieceType captured = board.typeOn(captureSq);
+
+    push(move, packUndo(captured, castling, epSquare, halfmoveClock));
+
+    if (hashesEnPassant(board, us, epSquare)) {
+      key ^= Zobrist.enPassant(epSquare);
+    }
+    if (captured != null) {
+      board.clear(captureSq);
+      key ^= Zobrist.piece(them, captured, captureSq);
+    }
+    board.clear(from);
+    key ^= Zobrist.piece(us, moving, from);
+    PieceType promotion = Move.promotion(move);
+    PieceType placed = promotion != null ? promotion : moving;
+    board.put(placed, us, to);
+    key ^= Zobrist.piece(us, placed, to);
+
+    if (flag == Move.CASTLE) {
+      int rookFrom = castleRookFrom(from, to);
+      int rookTo = castleRookTo(from, to);
+      board.clear(rookFrom);
+      board.put(PieceType.ROOK, us, rookTo);
+      key ^= Zobrist.piece(us, PieceType.ROOK, rookFrom) ^ Zobrist.piece(us, PieceType.ROOK, rookTo);
+    }
+
+    key ^= Zobrist.castling(castling);
+    castling &= CASTLE_KEEP[from] & CASTLE_KEEP[to];
+    key ^= Zobrist.castling(castling);
+
+    epSquare = flag == Move.DOUBLE_PUSH ? (from + to) >>> 1 : -1;
+    if (hashesEnPassant(board, them, epSquare)) {
+      key ^= Zobrist.enPassant(epSquare);
+    }
+    // saturates so the clock always fits its undo bits
+    halfmoveClock = moving == PieceType.PAWN || captured != null
+        ? 0 : Math.min(halfmoveClock + 1, MAX_HALFMOVE_CLOCK);
+    if (us == Color.BLACK) {
+      fullmoveNumber++;
+    }
+    sideToMove = them;
+    key ^= Zobrist.side();
+  }
+
+  /**
+   * Takes back the last move made with makeMove.
+   *
+   * @throws IllegalStateException if no move has been made
+   */
+  public void unmakeMove() {
+    if (ply == 0) {
+      throw new IllegalStateException("no move to take back");
+    }
+    ply--;
+    int move = moveStack[ply];
+    int undo = undoStack[ply];
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int flag = Move.flag(move);
+    Color them = sideToMove;
+    Color us = opposite(them);
+
+    PieceType moved = Move.promotion(move) != null ? PieceType.PAWN : board.typeOn(to);
+    board.clear(to);
+    board.put(moved, us, from);
+    if (flag == Move.CASTLE) {
+      board.clear(castleRookTo(from, to));
+      board.put(PieceType.ROOK, us, castleRookFrom(from, to));
+    }
+    int capturedCode = undo & 7;
+    if (capturedCode != 0) {
+      int captureSq = flag == Move.EN_PASSANT ? (us == Color.WHITE ? to - 8 : to + 8) : to;
+      board.put(TYPES[capturedCode - 1], them, captureSq);
+    }
+
+    castling = (undo >>> 3) & 15;
+    epSquare = ((undo >>> 7) & 127) - 1;
+    halfmoveClock = undo >>> 14;
+    if (us == Color.BLACK) {
+      fullmoveNumber--;
+    }
+    sideToMove = us;
+    key = keyStack[ply];
+  }
+
+  /**
+   * Check whether the current position already occurred earlier in the
+   * moves made on this object (same key). Only positions since the last
+   * pawn move or capture can repeat, so the scan stops there.
+   *
+   * @return true if this position is a repetition
+   */
+  public boolean isRepetition() {
+    int stop = Math.max(0, ply - halfmoveClock);
+    for (int i = ply - 2; i >= stop; i -= 2) {
+      if (keyStack[i] == key) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return Zobrist key of the current position (kept up to date by make / unmake)
+   */
+  public long getKey() {
+    return key;
+  }
+
+  /**
+   * @return number of moves made on this object that can be taken back
+   */
+  public int getPly() {
+    return ply;
+  }
+
+  /**
+   * Check whether the side to move is in check.
+   *
+   * @return true if the side to move's king is attacked
+   */
+  public boolean inCheck() {
+    int king = kingSquare(sideToMove);
+    return king >= 0 && board.isAttacked(king, opposite(sideToMove));
+  }
+
+  /**
+   * Square of the king of the given color.
+   *
+   * @param color king color
+   * @return square index, or -1 if there is no such king
+   */
+  public int kingSquare(Color color) {
+    long king = board.pieces(PieceType.KING, color);
+    return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+  }
+
+  /**
+   * Returns a copy of the board.
+   *
+   * @return board copy
+   */
+  public Board getBoard() {
+    return board.copy();
+  }
+
+  /**
+   * Direct access to the board for move generation and search.
+   *
+   * @return the internal board (must not be modified)
+   */
+  Board board() {
+    return board;
+  }
+
+  /**
+   * @return color to move
+   */
+  public Color getSideToMove() {
+    return sideToMove;
+  }
+
+  /**
+   * @return castling rights bit flags (WHITE_KINGSIDE | ...)
+   */
+  public int getCastlingRights() {
+    return castling;
+  }
+
+  /**
+   * @return en passant square, or -1
+   */
+  public int getEnPassantSquare() {
+    return epSquare;
+  }
+
+  /**
+   * @return moves since the last pawn move or capture
+   */
+  public int getHalfmoveClock() {
+    return halfmoveClock;
+  }
+
+  /**
+   * @return full-move number, starting at 1
+   */
+  public int getFullmoveNumber() {
+    return fullmoveNumber;
+  }
+
+  @Override
+  public String toString() {
+    return toFen();
+  }
+
+  /**
+   * Saves one undo entry, growing the stacks if a game gets very long.
+   */
+  private void push(int move, int undo) {
+    if (ply == moveStack.length) {
+      moveStack = Arrays.copyOf(moveStack, ply * 2);
+      undoStack = Arrays.copyOf(undoStack, ply * 2);
+      keyStack = Arrays.copyOf(keyStack, ply * 2);
+    }
+    moveStack[ply] = move;
+    undoStack[ply] = undo;
+    keyStack[ply] = key;
+    ply++;
+  }
+
+  /**
+   * Packs the state a move destroys into one int:
+   * bits 0 - 2 captured type + 1 (0 = none), 3 - 6 castling,
+   * 7 - 13 en passant square + 1, 14 - 31 half-move clock.
+   */
+  private static int packUndo(PieceType captured, int castling, int epSquare, int halfmoveClock) {
+    int capturedCode = captured == null ? 0 : captured.ordinal() + 1;
+    return capturedCode | (castling << 3) | ((epSquare + 1) << 7) | (halfmoveClock << 14);
+  }
+
+  /**
+   * Check whether the en passant square is part of the Zobrist key: only when
+   * a pawn of the side to move stands next to the pushed pawn and could take
+   * it. Otherwise the square changes nothing about the position, and keying
+   * it would split transpositions and hide repetitions.
+   *
+   * @param board the pieces
+   * @param side color to move
+   * @param epSquare en passant square, or -1
+   * @return true if the en passant key is XOR-ed in
+   */
+  static boolean hashesEnPassant(Board board, Color side, int epSquare) {
+    // squares a pawn of side would attack epSquare from
+    return epSquare >= 0
+        && (Bitboards.pawnAttacks(opposite(side), epSquare) & board.pieces(PieceType.PAWN, side)) != 0;
+  }
+
+  /**
+   * Rook start square of a castling move: kingside h-file, queenside a-file.
+   */
+  private static int castleRookFrom(int kingFrom, int kingTo) {
+    return kingTo > kingFrom ? kingFrom + 3 : kingFrom - 4;
+  }
+
+  /**
+   * Rook target square of a castling move: kingside f-file, queenside d-file.
+   */
+  private static int castleRookTo(int kingFrom, int kingTo) {
+    return kingTo > kingFrom ? kingFrom + 1 : kingFrom - 1;
+  }
+
+  /**
+   * Returns the other color.
+   *
+   * @param color a color
+   * @return the opposite color
+   */
+  public static Color opposite(Color color) {
+    return color == Color.WHITE ? Color.BLACK : Color.WHITE;
+  }
+
+  /**
+   * Parses a square name such as "e3".
+   *
+   * @param name square name
+   * @return square index
+   * @throws IllegalArgumentException if the name is malformed
+   */
+  public static int parseSquare(String name) {
+    if (name.length() != 2) {
+      throw new IllegalArgumentException("Bad square: " + name);
+    }
+    int col = name.charAt(0) - 'a';
+    int row = name.charAt(1) - '1';
+    if (!ChessPiece.inBounds(row, col)) {
+      throw new IllegalArgumentException("Bad square: " + name);
+    }
+    return Bitboards.square(row, col);
+  }
+}
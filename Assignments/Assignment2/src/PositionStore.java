@@ -0,0 +1,246 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-only, memory-mapped table from Zobrist key to a 64-bit value, for
+ * precomputed answers such as opening book moves or endgame tablebase
+ * results (see Tablebase). What the value means is up to the writer.
+ *
+ * File layout (big-endian):
+ * - header: magic, version, capacity (a power of two), entry count (4 ints)
+ * - capacity slots of (key, value) longs; key 0 marks an empty slot
+ *
+ * A probe hashes straight to a slot (key & (capacity - 1)) and walks forward
+ * to the first matching or empty slot. The table is at most half full, so
+ * that is O(1) on average. The file is mapped, not read, so opening a store
+ * is instant and only the pages that are probed are ever loaded.
+ *
+ * In front of the mapped table sits an optional cache of recent answers,
+ * for services that are asked the same positions over and over: hits are
+ * answered from the heap without touching (possibly cold) file pages.
+ * It is a fixed-size, direct-mapped array (a key can only sit in slot
+ * key & (slots - 1), and a new answer replaces whatever was there), read and
+ * written without locks: entries are immutable, so threads can race on a
+ * slot and at worst lose an answer, never see a torn one. Hits therefore
+ * cost one array read, with no lock and no boxing.
+ */
+public class PositionStore {
+
+  /** Returned by probe when the key is not in the store. */
+  public static final long NOT_FOUND = Long.MIN_VALUE;
+
+  private static final int MAGIC = 0x5053544f;   // "PSTO"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 16;
+  private static final int SLOT_BYTES = 16;
+  private static final int MAX_CAPACITY = 1 << 26;
+
+  private final MappedByteBuffer buf;
+  private final int mask;
+  private final int size;
+  private final CacheEntry[] cache;
+  private final int cacheMask;
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+
+  /**
+   * Opens a store file written by write, with no front cache.
+   *
+   * @param file store file
+   * @return the store
+   * @throws IOException if the file cannot be read or is not a store file
+   * @throws IllegalArgumentException if file is null
+   */
+  public static PositionStore open(Path file) throws IOException {
+    return open(file, 0);
+  }
+
+  /**
+   * Opens a store file written by write.
+   *
+   * @param file store file
+   * @param cacheSize number of recent answers kept in the front cache (0 for
+   *                  none; rounded up to a power of two)
+   * @return the store
+   * @throws IOException if the file cannot be read or is not a store file
+   * @throws IllegalArgumentException if file is null or cacheSize is negative
+   *                                  or above 2^26
+   */
+  public static PositionStore open(Path file, int cacheSize) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    if (cacheSize < 0 || cacheSize > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Invalid cacheSize: " + cacheSize);
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES) {
+        throw new IOException("Not a position store: " + file);
+      }
+      MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      int capacity = buf.getInt(8);
+      int size = buf.getInt(12);
+      // write keeps the table at most half full, so probes always reach an empty slot
+      if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION
+          || Integer.bitCount(capacity) != 1 || capacity > MAX_CAPACITY
+          || channel.size() != HEADER_BYTES + (long) capacity * SLOT_BYTES
+          || size < 0 || size > capacity / 2) {
+        throw new IOException("Not a position store: " + file);
+      }
+      return new PositionStore(buf, capacity, size, cacheSize);
+    }
+  }
+
+  private PositionStore(MappedByteBuffer buf, int capacity, int size, int cacheSize) {
+    this.buf = buf;
+    this.mask = capacity - 1;
+    this.size = size;
+    int slots = 1;
+    while (slots < cacheSize) {
+      slots <<= 1;
+    }
+    this.cache = cacheSize == 0 ? null : new CacheEntry[slots];
+    this.cacheMask = slots - 1;
+  }
+
+  /**
+   * Writes a store file. Later duplicates of a key replace earlier ones.
+   *
+   * @param file file to create or replace
+   * @param keys Zobrist keys (non-zero)
+   * @param values value for each key
+   * @param count number of entries to take from keys / values
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if an argument is null, count is out of
+   *                                  range or a key is 0
+   */
+  public static void write(Path file, long[] keys, long[] values, int count) throws IOException {
+    if (file == null || keys == null || values == null) {
+      throw new IllegalArgumentException("arguments cannot be null");
+    }
+    if (count < 0 || count > keys.length || count > values.length || count > MAX_CAPACITY / 2) {
+      throw new IllegalArgumentException("Invalid count: " + count);
+    }
+    int capacity = 16;
+    while (capacity < count * 2) {
+      capacity <<= 1;
+    }
+    long[] slots = new long[capacity * 2];
+    int stored = 0;
+    for (int i = 0; i < count; i++) {
+      if (keys[i] == 0) {
+        throw new IllegalArgumentException("key 0 is reserved for empty slots");
+      }
+      int slot = (int) keys[i] & (capacity - 1);
+      while (slots[slot * 2] != 0 && slots[slot * 2] != keys[i]) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      if (slots[slot * 2] == 0) {
+        stored++;
+      }
+      slots[slot * 2] = keys[i];
+      slots[slot * 2 + 1] = values[i];
+    }
+
+    long bytes = HEADER_BYTES + (long) capacity * SLOT_BYTES;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+      out.putInt(MAGIC).putInt(VERSION).putInt(capacity).putInt(stored);
+      for (long word : slots) {
+        out.putLong(word);
+      }
+      out.force();
+    }
+  }
+
+  /**
+   * Looks up a key: first in the front cache, then in the mapped table.
+   * Safe to call from several threads; no lock is taken.
+   *
+   * @param key Zobrist key
+   * @return stored value, or NOT_FOUND
+   */
+  public long probe(long key) {
+    if (cache == null) {
+      return probeTable(key);
+    }
+    // Zobrist keys are uniformly random, so their low bits pick the slot
+    int slot = (int) key & cacheMask;
+    CacheEntry cached = cache[slot];
+    if (cached != null && cached.key == key) {
+      cacheHits.increment();
+      return cached.value;
+    }
+    cacheMisses.increment();
+    long value = probeTable(key);
+    cache[slot] = new CacheEntry(key, value);
+    return value;
+  }
+
+  /**
+   * @return number of entries in the store
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return probes answered by the front cache
+   */
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * @return probes that went to the mapped table while a cache was in use
+   */
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  // Private Helper Methods
+
+  /**
+   * Linear probe in the mapped table. Absolute reads only, so threads can
+   * share the buffer. Stops after capacity slots, so a damaged file whose
+   * slots are all filled cannot make it loop forever.
+   */
+  private long probeTable(long key) {
+    if (key == 0) {
+      return NOT_FOUND;
+    }
+    int slot = (int) key & mask;
+    for (int step = 0; step <= mask; step++) {
+      int at = HEADER_BYTES + slot * SLOT_BYTES;
+      long stored = buf.getLong(at);
+      if (stored == key) {
+        return buf.getLong(at + 8);
+      }
+      if (stored == 0) {
+        return NOT_FOUND;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * One cached answer. Immutable (final fields), so it can be shared
+   * between threads through the plain cache array.
+   */
+  private static final class CacheEntry {
+
+    private final long key;
+    private final long value;
+
+    CacheEntry(long key, long value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
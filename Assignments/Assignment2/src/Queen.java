@@ -9,6 +9,10 @@
  * Kill rule:
  * - For queens, kill uses the same pattern as movement, no override.
  *
+ * Blockers:
+ * - canMove(row, col) ignores pieces in between; use
+ *   canMove(row, col, occ) / canKill(piece, occ) from ChessPiece to respect them.
+ *
  */
 public class Queen extends ChessPiece {
 
@@ -25,6 +29,16 @@ public class Queen extends ChessPiece {
     super(row, col, color);
   }
 
+  /**
+   * Returns the type of this piece.
+   *
+   * @return PieceType.QUEEN
+   */
+  @Override
+  public PieceType getType() {
+    return PieceType.QUEEN;
+  }
+
   /**
    * Determine whether this queen can move to (row, col)
    *
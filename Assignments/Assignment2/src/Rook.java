@@ -8,6 +8,10 @@
  *
  * kill rule:
  * - kill uses the same pattern as movement, no overrides.
+ *
+ * Blockers:
+ * - canMove(row, col) ignores pieces in between; use
+ *   canMove(row, col, occ) / canKill(piece, occ) from ChessPiece to respect them.
  */
 public class Rook extends ChessPiece {
 
@@ -24,6 +28,16 @@ public class Rook extends ChessPiece {
     super(row, col, color);
   }
 
+  /**
+   * Returns the type of this piece.
+   *
+   * @return PieceType.ROOK
+   */
+  @Override
+  public PieceType getType() {
+    return PieceType.ROOK;
+  }
+
   /**
    * Determine whether this rook can move to (row, col)
    *   * Steps:
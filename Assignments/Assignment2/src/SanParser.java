@@ -0,0 +1,171 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resolves moves in standard algebraic notation (SAN), e.g. "Nbd7", "exd5",
+ * "e8=Q+", "O-O-O", to packed moves (see Move).
+ *
+ * The text is read straight from a ByteBuffer range, so a PGN reader can hand
+ * over the bytes of a mapped file without building a String per token.
+ * A SAN move names the piece type, the target square and, when needed, the
+ * from file / rank; the parser picks the one legal move that fits.
+ *
+ * Accepted forms:
+ * - piece letter K Q R B N, none (or P) for pawns
+ * - optional from file and / or rank, optional 'x' or ':' for captures
+ * - promotion as "=Q" or plain "Q"
+ * - castling as O-O / O-O-O (letter O or digit 0)
+ * - trailing check / mate / annotation marks (+ # ! ?) are ignored
+ */
+public final class SanParser {
+
+  private static final String PIECE_LETTERS = "PNBRQK";
+  private static final PieceType[] TYPES = PieceType.values();
+
+  private SanParser() {
+    // static helpers only
+  }
+
+  /**
+   * Resolves a SAN move given as text.
+   *
+   * @param pos position the move is played from
+   * @param san SAN text
+   * @return packed move, or 0 if the text is malformed or matches no single
+   *         legal move
+   * @throws IllegalArgumentException if pos or san is null
+   */
+  public static int parse(Position pos, CharSequence san) {
+    if (pos == null || san == null) {
+      throw new IllegalArgumentException("pos and san cannot be null");
+    }
+    byte[] bytes = san.toString().getBytes(StandardCharsets.US_ASCII);
+    return parse(pos, ByteBuffer.wrap(bytes), 0, bytes.length,
+        new int[MoveGenerator.MAX_MOVES]);
+  }
+
+  /**
+   * Resolves the SAN move stored in buf[start, end).
+   * Reads with absolute gets, so the buffer's position is not changed.
+   *
+   * @param pos position the move is played from
+   * @param buf buffer holding the text
+   * @param start index of the first byte
+   * @param end index after the last byte
+   * @param moves scratch buffer for the legal moves (at least MAX_MOVES long)
+   * @return packed move, or 0 if the text is malformed or matches no single
+   *         legal move
+   */
+  public static int parse(Position pos, ByteBuffer buf, int start, int end, int[] moves) {
+    while (end > start && isSuffix(buf.get(end - 1))) {
+      end--;
+    }
+    int length = end - start;
+    if (length < 2) {
+      return 0;
+    }
+    int n = MoveGenerator.generate(pos, moves);
+
+    if (isCastle(buf, start, end)) {
+      boolean queenside = length == 5;
+      for (int i = 0; i < n; i++) {
+        int move = moves[i];
+        if (Move.flag(move) == Move.CASTLE && (Move.to(move) < Move.from(move)) == queenside) {
+          return move;
+        }
+      }
+      return 0;
+    }
+
+    // piece letter
+    PieceType type = PieceType.PAWN;
+    int i = start;
+    int letter = PIECE_LETTERS.indexOf(buf.get(i));
+    if (letter >= 0) {
+      type = TYPES[letter];
+      i++;
+    }
+
+    // promotion at the end: "=Q" or "Q"
+    PieceType promotion = null;
+    int last = buf.get(end - 1);
+    int promoLetter = PIECE_LETTERS.indexOf(last);
+    if (type == PieceType.PAWN && promoLetter > 0 && promoLetter < 5) {
+      promotion = TYPES[promoLetter];
+      end--;
+      if (end > i && buf.get(end - 1) == '=') {
+        end--;
+      }
+    }
+
+    // target square: the last two characters
+    if (end - i < 2) {
+      return 0;
+    }
+    int toCol = buf.get(end - 2) - 'a';
+    int toRow = buf.get(end - 1) - '1';
+    if (!ChessPiece.inBounds(toRow, toCol)) {
+      return 0;
+    }
+    int to = Bitboards.square(toRow, toCol);
+
+    // whatever is left: from file / rank and capture mark
+    int fromCol = -1;
+    int fromRow = -1;
+    for (int j = i; j < end - 2; j++) {
+      byte ch = buf.get(j);
+      if (ch >= 'a' && ch <= 'h') {
+        fromCol = ch - 'a';
+      } else if (ch >= '1' && ch <= '8') {
+        fromRow = ch - '1';
+      } else if (ch != 'x' && ch != ':' && ch != '-') {
+        return 0;
+      }
+    }
+
+    Board board = pos.board();
+    int found = 0;
+    for (int k = 0; k < n; k++) {
+      int move = moves[k];
+      int from = Move.from(move);
+      if (Move.to(move) != to || Move.flag(move) == Move.CASTLE
+          || board.typeOn(from) != type || Move.promotion(move) != promotion
+          || (fromCol >= 0 && (from & 7) != fromCol)
+          || (fromRow >= 0 && (from >>> 3) != fromRow)) {
+        continue;
+      }
+      if (found != 0) {
+        return 0;   // ambiguous
+      }
+      found = move;
+    }
+    return found;
+  }
+
+  // Private Helper Methods
+
+  /**
+   * Check / mate / annotation marks after a move.
+   */
+  private static boolean isSuffix(byte ch) {
+    return ch == '+' || ch == '#' || ch == '!' || ch == '?';
+  }
+
+  /**
+   * "O-O" or "O-O-O", also written with zeros.
+   */
+  private static boolean isCastle(ByteBuffer buf, int start, int end) {
+    int length = end - start;
+    if (length != 3 && length != 5) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      byte ch = buf.get(i);
+      boolean expectO = ((i - start) & 1) == 0;
+      if (expectO ? ch != 'O' && ch != '0' : ch != '-') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,404 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Best-move search: iterative deepening alpha-beta (negamax form).
+ *
+ * - Iterative deepening: search depth 1, 2, 3, ... up to the limit; each
+ *   finished iteration fills the transposition table and the ordering
+ *   tables, so the next, deeper iteration cuts off much earlier.
+ * - Transposition table: positions already searched (reached by another
+ *   move order) are answered from the table, keyed by the position's
+ *   incrementally updated Zobrist key.
+ * - The tree is walked with makeMove / unmakeMove on the one Position given
+ *   to findBestMove; it is back in its start state when the search returns.
+ *   Positions repeated along the current line score as draws.
+ * - Move ordering, best first: table move, captures (most valuable victim,
+ *   least valuable attacker), killer moves (quiet moves that caused a
+ *   cutoff at the same ply), then quiet moves by history score.
+ * - Quiescence search at the leaves: captures and promotions are played
+ *   out, so the static evaluation is not taken in the middle of a trade.
+ *
+ * Scores are centipawns for the side to move; mates are MATE - plies.
+ */
+public class Search {
+
+  public static final int MATE = 30000;
+  public static final int INFINITY = 32000;
+  public static final int MAX_PLY = 64;
+
+  // ordering score bands (higher = searched earlier)
+  private static final int TT_MOVE_SCORE = 1 << 30;
+  private static final int CAPTURE_SCORE = 1 << 28;
+  private static final int KILLER_SCORE = 1 << 27;
+
+  private final TranspositionTable tt;
+  // set by another thread to stop this search early (see LazySmpSearch)
+  private final AtomicBoolean stopSignal;
+  private final int[][] moveLists = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+  private final int[][] orderScores = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+  private final int[][] killers = new int[MAX_PLY + 1][2];
+  // indexed by [color.ordinal()][from][to]
+  private final int[][][] history = new int[2][64][64];
+
+  private long nodes;
+  private long deadline;      // System.nanoTime() limit, 0 = none
+  private boolean stopped;
+  private int checkCountdown;
+  private int bestMove;
+  private int bestScore;
+  private int rootBest;
+  private int completedDepth;
+
+  /**
+   * Constructs a search that uses the given transposition table.
+   *
+   * @param tt transposition table
+   * @throws IllegalArgumentException if tt is null
+   */
+  public Search(TranspositionTable tt) {
+    this(tt, new AtomicBoolean());
+  }
+
+  /**
+   * Constructs a search that also stops when stopSignal becomes true.
+   * Used by LazySmpSearch, whose workers share one table and one signal.
+   *
+   * @param tt transposition table (may be shared with other threads)
+   * @param stopSignal external stop flag
+   * @throws IllegalArgumentException if tt or stopSignal is null
+   */
+  Search(TranspositionTable tt, AtomicBoolean stopSignal) {
+    if (tt == null || stopSignal == null) {
+      throw new IllegalArgumentException("tt and stopSignal cannot be null");
+    }
+    this.tt = tt;
+    this.stopSignal = stopSignal;
+  }
+
+  /**
+   * Searches the position to maxDepth plies, or until timeMillis runs out.
+   * The result of the last fully finished depth is kept.
+   *
+   * @param pos position to search
+   * @param maxDepth depth limit (1 - MAX_PLY)
+   * @param timeMillis time limit in milliseconds, 0 for none
+   * @return best move found, or 0 if the side to move has no legal move
+   * @throws IllegalArgumentException if pos is null or a limit is out of range
+   */
+  public int findBestMove(Position pos, int maxDepth, long timeMillis) {
+    return findBestMove(pos, 1, maxDepth, timeMillis);
+  }
+
+  /**
+   * Iterative deepening starting at firstDepth instead of 1. Lazy SMP
+   * helpers start at different depths so the threads do not all search
+   * the same tree in lockstep.
+   *
+   * @param pos position to search
+   * @param firstDepth first iteration depth (1 - maxDepth)
+   * @param maxDepth depth limit (1 - MAX_PLY)
+   * @param timeMillis time limit in milliseconds, 0 for none
+   * @return best move found, or 0 if none
+   * @throws IllegalArgumentException if pos is null or a limit is out of range
+   */
+  int findBestMove(Position pos, int firstDepth, int maxDepth, long timeMillis) {
+    if (pos == null) {
+      throw new IllegalArgumentException("pos cannot be null");
+    }
+    if (maxDepth < 1 || maxDepth > MAX_PLY || timeMillis < 0
+        || firstDepth < 1 || firstDepth > maxDepth) {
+      throw new IllegalArgumentException("Invalid search limits");
+    }
+    nodes = 0;
+    stopped = false;
+    checkCountdown = 0;
+    deadline = timeMillis == 0 ? 0 : System.nanoTime() + timeMillis * 1_000_000L;
+    bestMove = 0;
+    bestScore = 0;
+    completedDepth = 0;
+    for (int[] k : killers) {
+      k[0] = 0;
+      k[1] = 0;
+    }
+    ageHistory();
+
+    for (int depth = firstDepth; depth <= maxDepth; depth++) {
+      rootBest = 0;
+      int score = negamax(pos, depth, -INFINITY, INFINITY, 0);
+      if (stopped) {
+        break;
+      }
+      bestMove = rootBest;
+      bestScore = score;
+      completedDepth = depth;
+      if (Math.abs(score) >= MATE - MAX_PLY) {
+        break;   // forced mate found, deeper search cannot change it
+      }
+    }
+    if (bestMove == 0) {
+      bestMove = rootBest;   // out of time during depth 1: take what we have
+    }
+    return bestMove;
+  }
+
+  /**
+   * @return score of the best move from the last search
+   */
+  public int getBestScore() {
+    return bestScore;
+  }
+
+  /**
+   * @return deepest fully finished iteration of the last search
+   */
+  public int getCompletedDepth() {
+    return completedDepth;
+  }
+
+  /**
+   * @return positions visited by the last search
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  // Search
+
+  /**
+   * Alpha-beta in negamax form.
+   *
+   * @return score for the side to move, within (alpha, beta) when exact
+   */
+  private int negamax(Position pos, int depth, int alpha, int beta, int ply) {
+    if (shouldStop()) {
+      return 0;
+    }
+    nodes++;
+    if (ply > 0 && (pos.getHalfmoveClock() >= 100 || pos.isRepetition())) {
+      return 0;   // fifty-move rule or repeated position: draw
+    }
+    boolean inCheck = pos.inCheck();
+    if (inCheck && ply < MAX_PLY) {
+      depth++;    // check extension: never stop searching while in check
+    }
+    if (depth <= 0 || ply >= MAX_PLY) {
+      return quiesce(pos, alpha, beta, ply);
+    }
+
+    long key = pos.getKey();
+    long entry = tt.probe(key);
+    int ttMove = 0;
+    if (entry != 0) {
+      ttMove = TranspositionTable.move(entry);
+      if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+        int score = fromTable(TranspositionTable.score(entry), ply);
+        int bound = TranspositionTable.bound(entry);
+        if (bound == TranspositionTable.EXACT
+            || (bound == TranspositionTable.LOWER && score >= beta)
+            || (bound == TranspositionTable.UPPER && score <= alpha)) {
+          return score;
+        }
+      }
+    }
+
+    int[] moves = moveLists[ply];
+    int n = MoveGenerator.generate(pos, moves);
+    if (n == 0) {
+      return inCheck ? -MATE + ply : 0;   // checkmate or stalemate
+    }
+    scoreMoves(pos, moves, orderScores[ply], n, ttMove, ply);
+
+    int originalAlpha = alpha;
+    int best = -INFINITY;
+    int bestHere = 0;
+    for (int i = 0; i < n; i++) {
+      int move = pickNext(moves, orderScores[ply], i, n);
+      pos.makeMove(move);
+      int score = -negamax(pos, depth - 1, -beta, -alpha, ply + 1);
+      pos.unmakeMove();
+      if (stopped) {
+        return 0;
+      }
+      if (score > best) {
+        best = score;
+        bestHere = move;
+        if (ply == 0) {
+          rootBest = move;
+        }
+      }
+      if (score > alpha) {
+        alpha = score;
+      }
+      if (alpha >= beta) {
+        if (isQuiet(pos, move)) {
+          rememberCutoff(pos.getSideToMove(), move, depth, ply);
+        }
+        break;
+      }
+    }
+
+    int bound = best <= originalAlpha ? TranspositionTable.UPPER
+        : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+    tt.store(key, bestHere, toTable(best, ply), depth, bound);
+    return best;
+  }
+
+  /**
+   * Quiescence search: stand pat on the static evaluation, then try only
+   * captures and promotions until the position is quiet.
+   */
+  private int quiesce(Position pos, int alpha, int beta, int ply) {
+    nodes++;
+    int standPat = Evaluator.evaluate(pos);
+    if (standPat >= beta || ply >= MAX_PLY) {
+      return standPat;
+    }
+    if (standPat > alpha) {
+      alpha = standPat;
+    }
+
+    int[] moves = moveLists[ply];
+    int n = MoveGenerator.generate(pos, moves);
+    int[] scores = orderScores[ply];
+    scoreMoves(pos, moves, scores, n, 0, ply);
+    for (int i = 0; i < n; i++) {
+      int move = pickNext(moves, scores, i, n);
+      if (scores[i] < CAPTURE_SCORE) {
+        break;    // captures come first; the rest are quiet
+      }
+      pos.makeMove(move);
+      int score = -quiesce(pos, -beta, -alpha, ply + 1);
+      pos.unmakeMove();
+      if (score >= beta) {
+        return score;
+      }
+      if (score > alpha) {
+        alpha = score;
+      }
+    }
+    return alpha;
+  }
+
+  // Move ordering
+
+  /**
+   * Gives every move an ordering score (see the class comment).
+   */
+  private void scoreMoves(Position pos, int[] moves, int[] scores, int n, int ttMove, int ply) {
+    Board board = pos.board();
+    int side = pos.getSideToMove().ordinal();
+    for (int i = 0; i < n; i++) {
+      int move = moves[i];
+      int from = Move.from(move);
+      int to = Move.to(move);
+      PieceType victim = board.typeOn(to);
+      PieceType promo = Move.promotion(move);
+      if (move == ttMove) {
+        scores[i] = TT_MOVE_SCORE;
+      } else if (victim != null || promo != null || Move.flag(move) == Move.EN_PASSANT) {
+        int gain = victim == null ? Evaluator.VALUES[0] : Evaluator.VALUES[victim.ordinal()];
+        if (promo != null) {
+          gain += Evaluator.VALUES[promo.ordinal()];
+        }
+        // most valuable victim first, then least valuable attacker
+        scores[i] = CAPTURE_SCORE + gain * 8 - board.typeOn(from).ordinal();
+      } else if (move == killers[ply][0] || move == killers[ply][1]) {
+        scores[i] = KILLER_SCORE;
+      } else {
+        scores[i] = Math.min(history[side][from][to], KILLER_SCORE - 1);
+      }
+    }
+  }
+
+  /**
+   * Selection step: swaps the best-scored remaining move into slot i.
+   * Cheaper than a full sort because most nodes cut off after a few moves.
+   */
+  private static int pickNext(int[] moves, int[] scores, int i, int n) {
+    int bestIndex = i;
+    for (int j = i + 1; j < n; j++) {
+      if (scores[j] > scores[bestIndex]) {
+        bestIndex = j;
+      }
+    }
+    int move = moves[bestIndex];
+    moves[bestIndex] = moves[i];
+    moves[i] = move;
+    int score = scores[bestIndex];
+    scores[bestIndex] = scores[i];
+    scores[i] = score;
+    return move;
+  }
+
+  /**
+   * Updates killer and history tables after a quiet move caused a cutoff.
+   */
+  private void rememberCutoff(Color side, int move, int depth, int ply) {
+    if (killers[ply][0] != move) {
+      killers[ply][1] = killers[ply][0];
+      killers[ply][0] = move;
+    }
+    history[side.ordinal()][Move.from(move)][Move.to(move)] += depth * depth;
+  }
+
+  /**
+   * Halves all history scores, so old searches count less than new ones
+   * and the counters never overflow.
+   */
+  private void ageHistory() {
+    for (int[][] bySide : history) {
+      for (int[] byFrom : bySide) {
+        for (int to = 0; to < 64; to++) {
+          byFrom[to] >>= 1;
+        }
+      }
+    }
+  }
+
+  /**
+   * Check whether a move is neither a capture nor a promotion.
+   */
+  private static boolean isQuiet(Position pos, int move) {
+    return pos.board().typeOn(Move.to(move)) == null
+        && Move.promotion(move) == null
+        && Move.flag(move) != Move.EN_PASSANT;
+  }
+
+  /**
+   * Check the time limit and the external stop signal every 1024 nodes.
+   */
+  private boolean shouldStop() {
+    if (!stopped && --checkCountdown <= 0) {
+      checkCountdown = 1024;
+      stopped = stopSignal.get() || (deadline != 0 && System.nanoTime() > deadline);
+    }
+    return stopped;
+  }
+
+  /**
+   * Mate scores are stored relative to the node, not the root, so they stay
+   * correct when the same position is reached at another ply.
+   */
+  private static int toTable(int score, int ply) {
+    if (score >= MATE - MAX_PLY) {
+      return score + ply;
+    }
+    if (score <= -MATE + MAX_PLY) {
+      return score - ply;
+    }
+    return score;
+  }
+
+  /**
+   * Inverse of toTable.
+   */
+  private static int fromTable(int score, int ply) {
+    if (score >= MATE - MAX_PLY) {
+      return score - ply;
+    }
+    if (score <= -MATE + MAX_PLY) {
+      return score + ply;
+    }
+    return score;
+  }
+}
@@ -0,0 +1,483 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Endgame tablebase for king and one piece against a lone king:
+ * KQK, KRK and KPK, generated locally by retrograde analysis.
+ *
+ * Every placement of the three pieces with either side to move is one entry
+ * (index = side, white king, black king, piece square). Generation:
+ * 1) mark illegal placements and find the mates (black to move, in check,
+ *    no legal move); count each black position's legal moves
+ * 2) walk backwards level by level: a black position lost in n plies makes
+ *    every white position that can move into it a win in n + 1; a white win
+ *    in n takes one move off the count of each black position that can move
+ *    into it, and when the count reaches 0 (every black move loses) that
+ *    position is lost in n + 1
+ * 3) whatever is never reached is a draw
+ * KPK also starts from its promotions, looked up in freshly generated KQK
+ * and KRK tables.
+ *
+ * The move masks come from the piece classes themselves (King.canMove,
+ * canMove(row, col, occ) for the queen / rook slides with the kings as
+ * blockers, Pawn.canMove / canKill), so the tables follow the same rules as
+ * the rest of the model.
+ *
+ * Results are scores for the side to move in Search units: MATE - plies for
+ * a win, -(MATE - plies) for a loss, 0 for a draw. Positions with castling
+ * rights are not covered. Tables can be written to a PositionStore (keyed by
+ * Zobrist key) and probed from there.
+ */
+public final class Tablebase {
+
+  /** Returned by probe when the position is not covered by the table. */
+  public static final int NO_RESULT = Integer.MIN_VALUE;
+
+  private static final short UNKNOWN = -1;
+  private static final short ILLEGAL = -2;
+  private static final int ENTRIES = 2 * 64 * 64 * 64;
+  private static final int BLACK = Color.BLACK.ordinal();
+  private static final int WHITE = Color.WHITE.ordinal();
+
+  // king steps from King.canMove
+  private static final long[] KING_STEPS = new long[64];
+
+  static {
+    for (int from = 0; from < 64; from++) {
+      ChessPiece king = ChessPiece.of(PieceType.KING, from >>> 3, from & 7, Color.WHITE);
+      for (int to = 0; to < 64; to++) {
+        if (king.canMove(to >>> 3, to & 7)) {
+          KING_STEPS[from] |= 1L << to;
+        }
+      }
+    }
+  }
+
+  private final PieceType piece;
+  // plies to mate for each index (even = side to move is mated, odd = side
+  // to move mates), or ILLEGAL; draws are stored as UNKNOWN
+  private final short[] plies = new short[ENTRIES];
+  private final long[] slides;        // queen / rook only
+  private final long[] pawnPushes;    // pawn only
+  private final long[] pawnAttacks;   // pawn only
+  private final Occupancy occ = new Occupancy();
+
+  /**
+   * Generates the table for white king + piece against the black king.
+   * Positions with black as the strong side are probed color-flipped.
+   *
+   * @param piece QUEEN, ROOK or PAWN
+   * @return the generated table
+   * @throws IllegalArgumentException if piece is not QUEEN, ROOK or PAWN
+   */
+  public static Tablebase generate(PieceType piece) {
+    if (piece != PieceType.QUEEN && piece != PieceType.ROOK && piece != PieceType.PAWN) {
+      throw new IllegalArgumentException("Only KQK, KRK and KPK are supported: " + piece);
+    }
+    Tablebase table = new Tablebase(piece);
+    if (piece == PieceType.PAWN) {
+      table.solve(generate(PieceType.QUEEN), generate(PieceType.ROOK));
+    } else {
+      table.solve(null, null);
+    }
+    return table;
+  }
+
+  private Tablebase(PieceType piece) {
+    this.piece = piece;
+    if (piece == PieceType.PAWN) {
+      slides = null;
+      pawnPushes = new long[64];
+      pawnAttacks = new long[64];
+      for (int from = 8; from < 56; from++) {
+        ChessPiece pawn = ChessPiece.of(PieceType.PAWN, from >>> 3, from & 7, Color.WHITE);
+        for (int to = 0; to < 64; to++) {
+          if (pawn.canMove(to >>> 3, to & 7)) {
+            pawnPushes[from] |= 1L << to;
+          }
+          if (pawn.canKill(ChessPiece.of(PieceType.KING, to >>> 3, to & 7, Color.BLACK))) {
+            pawnAttacks[from] |= 1L << to;
+          }
+        }
+      }
+    } else {
+      pawnPushes = null;
+      pawnAttacks = null;
+      slides = slideMasks(piece);
+    }
+  }
+
+  /**
+   * @return the piece the strong side has (QUEEN, ROOK or PAWN)
+   */
+  public PieceType getPiece() {
+    return piece;
+  }
+
+  /**
+   * Looks up a position.
+   *
+   * @param pos the position
+   * @return score for the side to move, or NO_RESULT if the position does not
+   *         have exactly this material or has castling rights
+   * @throws IllegalArgumentException if pos is null
+   */
+  public int probe(Position pos) {
+    int index = indexOf(pos);
+    return index < 0 ? NO_RESULT : score(index);
+  }
+
+  /**
+   * Longest forced mate in the table, in plies, with the strong side to move.
+   *
+   * @return plies
+   */
+  public int getLongestMate() {
+    int longest = 0;
+    for (int i = WHITE << 18; i < ENTRIES; i++) {
+      if (plies[i] > longest) {
+        longest = plies[i];
+      }
+    }
+    return longest;
+  }
+
+  /**
+   * Writes every legal position of the table to a PositionStore file,
+   * keyed by Zobrist key, with the score as value.
+   *
+   * @param file store file to create
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if file is null
+   */
+  public void writeTo(Path file) throws IOException {
+    long[] keys = new long[ENTRIES];
+    long[] values = new long[ENTRIES];
+    int count = 0;
+    for (int index = 0; index < ENTRIES; index++) {
+      if (plies[index] != ILLEGAL) {
+        keys[count] = key(index);
+        values[count] = score(index);
+        count++;
+      }
+    }
+    PositionStore.write(file, keys, values, count);
+  }
+
+  /**
+   * Looks up a position in a store written by writeTo.
+   *
+   * @param store the store
+   * @param piece the strong side's piece (QUEEN, ROOK or PAWN)
+   * @param pos the position
+   * @return score for the side to move, or NO_RESULT if the position is not
+   *         covered
+   * @throws IllegalArgumentException if an argument is null
+   */
+  public static int probe(PositionStore store, PieceType piece, Position pos) {
+    if (store == null || piece == null) {
+      throw new IllegalArgumentException("store and piece cannot be null");
+    }
+    int index = indexOf(piece, pos);
+    if (index < 0) {
+      return NO_RESULT;
+    }
+    long value = store.probe(key(piece, index));
+    return value == PositionStore.NOT_FOUND ? NO_RESULT : (int) value;
+  }
+
+  // Generation
+
+  /**
+   * Retrograde analysis (see the class comment).
+   */
+  private void solve(Tablebase queens, Tablebase rooks) {
+    byte[] moveCount = new byte[ENTRIES];
+    List<IntList> levels = new ArrayList<>();
+    Arrays.fill(plies, UNKNOWN);
+
+    for (int index = 0; index < ENTRIES; index++) {
+      int side = index >>> 18;
+      int wk = (index >>> 12) & 63;
+      int bk = (index >>> 6) & 63;
+      int sq = index & 63;
+      if (!isLegal(side, wk, bk, sq)) {
+        plies[index] = ILLEGAL;
+        continue;
+      }
+      if (side == BLACK) {
+        int moves = countBlackMoves(wk, bk, sq);
+        moveCount[index] = (byte) moves;
+        if (moves == 0 && (attacks(sq, wk, bk) & (1L << bk)) != 0) {
+          plies[index] = 0;   // checkmate
+          add(levels, 0, index);
+        }
+      } else if (queens != null && sq >= 48) {
+        // promotion: best result over promoting to a queen or a rook
+        int to = sq + 8;
+        if (to != wk && to != bk) {
+          int best = Math.min(promotionPlies(queens, wk, bk, to), promotionPlies(rooks, wk, bk, to));
+          if (best != Integer.MAX_VALUE) {
+            plies[index] = (short) best;
+            add(levels, best, index);
+          }
+        }
+      }
+    }
+
+    for (int n = 0; n < levels.size(); n++) {
+      IntList level = levels.get(n);
+      for (int i = 0; i < level.size; i++) {
+        int index = level.items[i];
+        if (plies[index] != n) {
+          continue;    // improved after it was queued
+        }
+        if (index >>> 18 == BLACK) {
+          expandLoss(index, n, levels);
+        } else {
+          expandWin(index, n, levels, moveCount);
+        }
+      }
+    }
+  }
+
+  /**
+   * Black (to move) is lost in n: every white move into this position wins in n + 1.
+   */
+  private void expandLoss(int index, int n, List<IntList> levels) {
+    int wk = (index >>> 12) & 63;
+    int bk = (index >>> 6) & 63;
+    int sq = index & 63;
+    long empty = ~((1L << wk) | (1L << bk) | (1L << sq));
+
+    // white king came from a neighbouring empty square
+    long from = KING_STEPS[wk] & empty;
+    while (from != 0) {
+      int s = Long.numberOfTrailingZeros(from);
+      from &= from - 1;
+      markWin(WHITE << 18 | s << 12 | bk << 6 | sq, n + 1, levels);
+    }
+    // the piece came from an empty square that reaches sq
+    from = pieceSources(sq, wk, bk) & empty;
+    while (from != 0) {
+      int s = Long.numberOfTrailingZeros(from);
+      from &= from - 1;
+      markWin(WHITE << 18 | wk << 12 | bk << 6 | s, n + 1, levels);
+    }
+  }
+
+  /**
+   * White (to move) wins in n: each black move into this position is one
+   * more losing move for the black position it came from.
+   */
+  private void expandWin(int index, int n, List<IntList> levels, byte[] moveCount) {
+    int wk = (index >>> 12) & 63;
+    int bk = (index >>> 6) & 63;
+    int sq = index & 63;
+    long from = KING_STEPS[bk] & ~((1L << wk) | (1L << sq));
+    while (from != 0) {
+      int s = Long.numberOfTrailingZeros(from);
+      from &= from - 1;
+      int prev = BLACK << 18 | wk << 12 | s << 6 | sq;
+      if (plies[prev] == UNKNOWN && --moveCount[prev] == 0) {
+        plies[prev] = (short) (n + 1);
+        add(levels, n + 1, prev);
+      }
+    }
+  }
+
+  private void markWin(int index, int value, List<IntList> levels) {
+    short current = plies[index];
+    if (current == UNKNOWN || current > value) {
+      plies[index] = (short) value;
+      add(levels, value, index);
+    }
+  }
+
+  /**
+   * Plies to mate after promoting on to (black to move in the other table),
+   * or Integer.MAX_VALUE if that promotion does not win.
+   */
+  private static int promotionPlies(Tablebase table, int wk, int bk, int to) {
+    short value = table.plies[BLACK << 18 | wk << 12 | bk << 6 | to];
+    return value >= 0 && (value & 1) == 0 ? value + 1 : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Legal black king moves (captures of the piece included: they reach a
+   * drawn king-against-king ending and so never count as losing).
+   */
+  private int countBlackMoves(int wk, int bk, int sq) {
+    int count = 0;
+    long to = KING_STEPS[bk] & ~KING_STEPS[wk];
+    while (to != 0) {
+      int s = Long.numberOfTrailingZeros(to);
+      to &= to - 1;
+      if (s == sq || (attacks(sq, wk, s) & (1L << s)) == 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Kings apart, squares distinct, pawn not on the first or last row, and the
+   * side not to move not in check.
+   */
+  private boolean isLegal(int side, int wk, int bk, int sq) {
+    if (wk == bk || wk == sq || bk == sq || (KING_STEPS[wk] & (1L << bk)) != 0) {
+      return false;
+    }
+    if (piece == PieceType.PAWN && (sq < 8 || sq >= 56)) {
+      return false;
+    }
+    return side == BLACK || (attacks(sq, wk, bk) & (1L << bk)) == 0;
+  }
+
+  /**
+   * Squares the piece on sq attacks, with the two kings as blockers.
+   */
+  private long attacks(int sq, int wk, int bk) {
+    return slides != null ? slides[sq << 12 | wk << 6 | bk] : pawnAttacks[sq];
+  }
+
+  /**
+   * Squares the piece could have come from to reach sq without capturing.
+   * Slides are symmetric; a pawn came from behind (one or two rows).
+   */
+  private long pieceSources(int sq, int wk, int bk) {
+    if (slides != null) {
+      return slides[sq << 12 | wk << 6 | bk];
+    }
+    occ.setBits((1L << wk) | (1L << bk));
+    long sources = 0L;
+    for (int s = sq - 16; s < sq; s += 8) {
+      if (s >= 8 && (pawnPushes[s] & (1L << sq)) != 0
+          && ChessPiece.of(PieceType.PAWN, s >>> 3, s & 7, Color.WHITE).canMove(sq >>> 3, sq & 7, occ)) {
+        sources |= 1L << s;
+      }
+    }
+    return sources;
+  }
+
+  /**
+   * Slide masks for every piece square and pair of king squares, from the
+   * piece's own canMove(row, col, occ).
+   */
+  private static long[] slideMasks(PieceType type) {
+    long[] masks = new long[64 * 64 * 64];
+    Occupancy blockers = new Occupancy();
+    for (int sq = 0; sq < 64; sq++) {
+      ChessPiece slider = ChessPiece.of(type, sq >>> 3, sq & 7, Color.WHITE);
+      long reach = 0L;
+      for (int to = 0; to < 64; to++) {
+        if (slider.canMove(to >>> 3, to & 7)) {
+          reach |= 1L << to;
+        }
+      }
+      for (int a = 0; a < 64; a++) {
+        for (int b = 0; b < 64; b++) {
+          blockers.setBits((1L << a) | (1L << b));
+          long mask = 0L;
+          long targets = reach;
+          while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (slider.canMove(to >>> 3, to & 7, blockers)) {
+              mask |= 1L << to;
+            }
+          }
+          masks[sq << 12 | a << 6 | b] = mask;
+        }
+      }
+    }
+    return masks;
+  }
+
+  private static void add(List<IntList> levels, int level, int index) {
+    while (levels.size() <= level) {
+      levels.add(new IntList());
+    }
+    levels.get(level).add(index);
+  }
+
+  // Indexing
+
+  private int indexOf(Position pos) {
+    return indexOf(piece, pos);
+  }
+
+  /**
+   * Table index of a position (color-flipped if black is the strong side),
+   * or -1 if the material does not match or castling rights are set.
+   */
+  private static int indexOf(PieceType piece, Position pos) {
+    if (pos == null) {
+      throw new IllegalArgumentException("pos cannot be null");
+    }
+    Board board = pos.board();
+    if (Long.bitCount(board.occupancy()) != 3 || pos.getCastlingRights() != 0) {
+      return -1;
+    }
+    long white = board.pieces(piece, Color.WHITE);
+    long black = board.pieces(piece, Color.BLACK);
+    Color strong = white != 0 ? Color.WHITE : Color.BLACK;
+    long pieceBit = white != 0 ? white : black;
+    long strongKing = board.pieces(PieceType.KING, strong);
+    long weakKing = board.pieces(PieceType.KING, Position.opposite(strong));
+    if (pieceBit == 0 || strongKing == 0 || weakKing == 0) {
+      return -1;
+    }
+    int flip = strong == Color.WHITE ? 0 : 56;   // mirror rows for black
+    int wk = Long.numberOfTrailingZeros(strongKing) ^ flip;
+    int bk = Long.numberOfTrailingZeros(weakKing) ^ flip;
+    int sq = Long.numberOfTrailingZeros(pieceBit) ^ flip;
+    int side = pos.getSideToMove() == strong ? WHITE : BLACK;
+    return side << 18 | wk << 12 | bk << 6 | sq;
+  }
+
+  private int score(int index) {
+    short value = plies[index];
+    if (value == ILLEGAL) {
+      return NO_RESULT;
+    }
+    if (value == UNKNOWN) {
+      return 0;
+    }
+    return (value & 1) == 1 ? Search.MATE - value : -(Search.MATE - value);
+  }
+
+  private long key(int index) {
+    return key(piece, index);
+  }
+
+  /**
+   * Zobrist key of a (white strong side) table position; no castling or
+   * en passant, so only the pieces and the side to move count.
+   */
+  private static long key(PieceType piece, int index) {
+    long key = Zobrist.piece(Color.WHITE, PieceType.KING, (index >>> 12) & 63)
+        ^ Zobrist.piece(Color.BLACK, PieceType.KING, (index >>> 6) & 63)
+        ^ Zobrist.piece(Color.WHITE, piece, index & 63);
+    return index >>> 18 == BLACK ? key ^ Zobrist.side() : key;
+  }
+
+  /**
+   * Growable int array for the positions of one level.
+   */
+  private static class IntList {
+
+    int[] items = new int[64];
+    int size;
+
+    void add(int value) {
+      if (size == items.length) {
+        items = Arrays.copyOf(items, size * 2);
+      }
+      items[size++] = value;
+    }
+  }
+}
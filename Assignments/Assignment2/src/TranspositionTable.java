@@ -0,0 +1,130 @@
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results, stored in one primitive long[].
+ *
+ * Each entry is two longs: (key XOR data), then the packed data.
+ * The slot is chosen by the low bits of the key; a colliding position simply
+ * overwrites the old entry (always-replace), so memory use never grows.
+ *
+ * Thread safety without locks: several search threads may store and probe
+ * at the same time (Lazy SMP). A reader can see the two longs of an entry
+ * from two different writes (or a long torn in half). Storing key ^ data
+ * lets probe detect that: the pair only decodes back to the probed key if
+ * both longs belong together, otherwise probe reports a miss.
+ *
+ * Data layout:
+ * - bits  0 - 16 : best move (see Move)
+ * - bits 17 - 32 : score (signed 16 bit)
+ * - bits 33 - 40 : depth
+ * - bits 41 - 42 : bound (EXACT, LOWER or UPPER; never 0, so data 0 = empty)
+ */
+public class TranspositionTable {
+
+  public static final int EXACT = 1;
+  public static final int LOWER = 2;
+  public static final int UPPER = 3;
+
+  private final long[] table;
+  private final int mask;
+
+  /**
+   * Constructs a table with room for about sizeMb megabytes of entries
+   * (rounded down to a power of two entries).
+   *
+   * @param sizeMb size in megabytes (1 - 1024)
+   * @throws IllegalArgumentException if sizeMb is out of range
+   */
+  public TranspositionTable(int sizeMb) {
+    if (sizeMb < 1 || sizeMb > 1024) {
+      throw new IllegalArgumentException("sizeMb must be 1 - 1024");
+    }
+    long entries = Long.highestOneBit(sizeMb * 1024L * 1024L / 16);
+    this.table = new long[(int) entries * 2];
+    this.mask = (int) entries - 1;
+  }
+
+  /**
+   * Looks up a position.
+   *
+   * @param key Zobrist key
+   * @return packed data, or 0 if the position is not stored
+   */
+  public long probe(long key) {
+    int index = ((int) key & mask) << 1;
+    long data = table[index + 1];
+    return (table[index] ^ data) == key ? data : 0L;
+  }
+
+  /**
+   * Stores a search result, replacing whatever was in the slot.
+   *
+   * @param key Zobrist key
+   * @param move best move found (0 if none)
+   * @param score score (must fit in 16 bits)
+   * @param depth search depth (0 - 255)
+   * @param bound EXACT, LOWER or UPPER
+   */
+  public void store(long key, int move, int score, int depth, int bound) {
+    int index = ((int) key & mask) << 1;
+    long data = pack(move, score, depth, bound);
+    table[index] = key ^ data;
+    table[index + 1] = data;
+  }
+
+  /**
+   * Empties the table.
+   */
+  public void clear() {
+    Arrays.fill(table, 0L);
+  }
+
+  /**
+   * @return number of entries the table can hold
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * @param data packed data
+   * @return stored move
+   */
+  public static int move(long data) {
+    return (int) (data & 0x1FFFF);
+  }
+
+  /**
+   * @param data packed data
+   * @return stored score
+   */
+  public static int score(long data) {
+    return (short) (data >>> 17);
+  }
+
+  /**
+   * @param data packed data
+   * @return stored depth
+   */
+  public static int depth(long data) {
+    return (int) ((data >>> 33) & 0xFF);
+  }
+
+  /**
+   * @param data packed data
+   * @return stored bound
+   */
+  public static int bound(long data) {
+    return (int) ((data >>> 41) & 3);
+  }
+
+  /**
+   * Packs one entry's data.
+   */
+  static long pack(int move, int score, int depth, int bound) {
+    return (move & 0x1FFFFL)
+        | ((score & 0xFFFFL) << 17)
+        | ((long) (depth & 0xFF) << 33)
+        | ((long) bound << 41);
+  }
+}
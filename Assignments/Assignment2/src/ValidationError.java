@@ -0,0 +1,60 @@
+/**
+ * One problem found by PgnValidator: where it is in the file and what is wrong.
+ */
+public class ValidationError implements Comparable<ValidationError> {
+
+  private final long gameOffset;
+  private final long offset;
+  private final String message;
+
+  /**
+   * Constructs an error.
+   *
+   * @param gameOffset byte offset of the start of the game (or EPD line)
+   * @param offset byte offset of the bad token
+   * @param message what is wrong
+   * @throws IllegalArgumentException if an offset is negative or message is null
+   */
+  public ValidationError(long gameOffset, long offset, String message) {
+    if (gameOffset < 0 || offset < 0) {
+      throw new IllegalArgumentException("offsets cannot be negative");
+    }
+    if (message == null) {
+      throw new IllegalArgumentException("message cannot be null");
+    }
+    this.gameOffset = gameOffset;
+    this.offset = offset;
+    this.message = message;
+  }
+
+  /**
+   * @return byte offset of the start of the game (or EPD line)
+   */
+  public long getGameOffset() {
+    return gameOffset;
+  }
+
+  /**
+   * @return byte offset of the bad token
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * @return what is wrong
+   */
+  public String getMessage() {
+    return message;
+  }
+
+  @Override
+  public int compareTo(ValidationError other) {
+    return Long.compare(offset, other.offset);
+  }
+
+  @Override
+  public String toString() {
+    return "game at " + gameOffset + ", offset " + offset + ": " + message;
+  }
+}
@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Totals of a PgnValidator run: games (or EPD records), moves checked and the
+ * errors found.
+ *
+ * At most MAX_ERRORS errors are kept (the earliest in the file), so a badly
+ * broken archive cannot fill memory; getErrorCount still counts all of them.
+ * Reports of file ranges are merged in file order.
+ */
+public class ValidationReport {
+
+  /** Maximum number of errors kept with their details. */
+  public static final int MAX_ERRORS = 1000;
+
+  private long games;
+  private long moves;
+  private long errorCount;
+  private final List<ValidationError> errors = new ArrayList<>();
+
+  /**
+   * Counts one finished game (or EPD record).
+   */
+  void addGame() {
+    games++;
+  }
+
+  /**
+   * Counts one accepted move.
+   */
+  void addMove() {
+    moves++;
+  }
+
+  /**
+   * Records an error.
+   *
+   * @param error the error
+   */
+  void addError(ValidationError error) {
+    errorCount++;
+    if (errors.size() < MAX_ERRORS) {
+      errors.add(error);
+    }
+  }
+
+  /**
+   * Adds the totals of a report for a later part of the file.
+   *
+   * @param later report to merge in
+   * @return this report
+   */
+  ValidationReport merge(ValidationReport later) {
+    games += later.games;
+    moves += later.moves;
+    errorCount += later.errorCount;
+    for (ValidationError error : later.errors) {
+      if (errors.size() == MAX_ERRORS) {
+        break;
+      }
+      errors.add(error);
+    }
+    return this;
+  }
+
+  /**
+   * @return games (or EPD records) read
+   */
+  public long getGames() {
+    return games;
+  }
+
+  /**
+   * @return moves checked and accepted
+   */
+  public long getMoves() {
+    return moves;
+  }
+
+  /**
+   * @return number of errors found, including those not kept
+   */
+  public long getErrorCount() {
+    return errorCount;
+  }
+
+  /**
+   * @return the first (up to MAX_ERRORS) errors, in file order
+   */
+  public List<ValidationError> getErrors() {
+    List<ValidationError> sorted = new ArrayList<>(errors);
+    Collections.sort(sorted);
+    return Collections.unmodifiableList(sorted);
+  }
+
+  @Override
+  public String toString() {
+    return "games " + games + "  moves " + moves + "  errors " + errorCount;
+  }
+}
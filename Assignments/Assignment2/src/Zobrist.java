@@ -0,0 +1,123 @@
+/**
+ * Zobrist hashing: every (color, piece type, square) combination, the side to
+ * move, each castling-rights value and each en passant file get a fixed
+ * random 64-bit key. A position's hash is the XOR of the keys of everything
+ * in it, so equal positions always get the same hash.
+ *
+ * Keys come from a fixed seed, so hashes are stable across runs.
+ */
+public final class Zobrist {
+
+  // indexed by [color.ordinal()][type.ordinal()][square]
+  private static final long[][][] PIECE = new long[2][6][64];
+  private static final long[] CASTLING = new long[16];
+  private static final long[] EP_FILE = new long[8];
+  private static final long SIDE;
+
+  private static final Color[] COLORS = Color.values();
+  private static final PieceType[] TYPES = PieceType.values();
+
+  static {
+    long seed = 0x9E3779B97F4A7C15L;
+    for (int c = 0; c < 2; c++) {
+      for (int t = 0; t < 6; t++) {
+        for (int sq = 0; sq < 64; sq++) {
+          seed = splitMix(seed);
+          PIECE[c][t][sq] = mix(seed);
+        }
+      }
+    }
+    for (int i = 0; i < 16; i++) {
+      seed = splitMix(seed);
+      CASTLING[i] = mix(seed);
+    }
+    CASTLING[0] = 0L;   // no rights contributes nothing
+    for (int i = 0; i < 8; i++) {
+      seed = splitMix(seed);
+      EP_FILE[i] = mix(seed);
+    }
+    seed = splitMix(seed);
+    SIDE = mix(seed);
+  }
+
+  private Zobrist() {
+    // static keys only
+  }
+
+  /**
+   * Computes the hash of a position from scratch.
+   *
+   * @param pos the position
+   * @return 64-bit hash
+   */
+  public static long hash(Position pos) {
+    Board board = pos.board();
+    long key = 0L;
+    for (Color color : COLORS) {
+      for (PieceType type : TYPES) {
+        long pieces = board.pieces(type, color);
+        while (pieces != 0) {
+          key ^= piece(color, type, Long.numberOfTrailingZeros(pieces));
+          pieces &= pieces - 1;
+        }
+      }
+    }
+    key ^= castling(pos.getCastlingRights());
+    if (Position.hashesEnPassant(board, pos.getSideToMove(), pos.getEnPassantSquare())) {
+      key ^= enPassant(pos.getEnPassantSquare());
+    }
+    if (pos.getSideToMove() == Color.BLACK) {
+      key ^= SIDE;
+    }
+    return key;
+  }
+
+  /**
+   * @param color piece color
+   * @param type piece type
+   * @param sq square index
+   * @return key for that piece on that square
+   */
+  public static long piece(Color color, PieceType type, int sq) {
+    return PIECE[color.ordinal()][type.ordinal()][sq];
+  }
+
+  /**
+   * @param rights castling rights (0 - 15)
+   * @return key for that set of castling rights
+   */
+  public static long castling(int rights) {
+    return CASTLING[rights];
+  }
+
+  /**
+   * @param epSquare en passant square (only its file matters)
+   * @return key for that en passant file
+   */
+  public static long enPassant(int epSquare) {
+    return EP_FILE[epSquare & 7];
+  }
+
+  /**
+   * @return key toggled when Black is to move
+   */
+  public static long side() {
+    return SIDE;
+  }
+
+  /**
+   * SplitMix64 step (advance the state).
+   */
+  private static long splitMix(long state) {
+    return state + 0x9E3779B97F4A7C15L;
+  }
+
+  /**
+   * SplitMix64 output function.
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
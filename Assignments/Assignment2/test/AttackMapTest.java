@@ -0,0 +1,114 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttackMapTest {
+
+  /**
+   * Reference answer the slow way: for every square, ask every piece of the
+   * color whether it could kill an enemy standing there.
+   */
+  private static long pairwise(List<ChessPiece> pieces, Color by) {
+    Occupancy occ = new Occupancy();
+    for (ChessPiece p : pieces) {
+      occ.set(p.getRow(), p.getColumn());
+    }
+    Color other = by == Color.WHITE ? Color.BLACK : Color.WHITE;
+    long result = 0L;
+    for (int r = 0; r < 8; r++) {
+      for (int c = 0; c < 8; c++) {
+        ChessPiece victim = ChessPiece.of(PieceType.KNIGHT, r, c, other);
+        for (ChessPiece p : pieces) {
+          if (p.getColor() == by && p.canKill(victim, occ)) {
+            result |= Bitboards.bit(r, c);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private static List<ChessPiece> start() {
+    List<ChessPiece> pieces = new ArrayList<>();
+    Board board = Position.fromFen(Position.START_FEN).getBoard();
+    for (int r = 0; r < 8; r++) {
+      for (int c = 0; c < 8; c++) {
+        if (board.pieceAt(r, c) != null) {
+          pieces.add(board.pieceAt(r, c));
+        }
+      }
+    }
+    return pieces;
+  }
+
+  @Test
+  public void testStartPositionMatchesPairwiseCanKill() {
+    List<ChessPiece> pieces = start();
+    AttackMap map = new AttackMap(pieces);
+    for (Color color : Color.values()) {
+      assertEquals(pairwise(pieces, color), map.attacked(color));
+      assertEquals(pairwise(pieces, color), AttackMap.attacks(pieces, color));
+    }
+    // rows 2 and 5 are fully covered by pawns
+    assertEquals(0xFFL << 16, map.attacked(Color.WHITE) & (0xFFL << 16));
+    assertEquals(3, map.attackerCount(2, 2, Color.WHITE));   // b-pawn, d-pawn, b1 knight
+    assertFalse(map.inCheck(Color.WHITE));
+  }
+
+  @Test
+  public void testIncrementalUpdatesMatchRebuild() {
+    Random random = new Random(5004);
+    List<ChessPiece> pieces = start();
+    AttackMap map = new AttackMap(pieces);
+    for (int step = 0; step < 300; step++) {
+      ChessPiece mover = pieces.get(random.nextInt(pieces.size()));
+      int r = random.nextInt(8);
+      int c = random.nextInt(8);
+      if (mover.getType() == PieceType.PAWN && (r == 0 || r == 7)) {
+        continue;   // keep pawns off the royal rows
+      }
+      if (mover.getRow() == r && mover.getColumn() == c) {
+        continue;
+      }
+      map.move(mover.getRow(), mover.getColumn(), r, c);
+      pieces.removeIf(p -> p.getRow() == r && p.getColumn() == c);
+      pieces.remove(mover);
+      pieces.add(ChessPiece.of(mover.getType(), r, c, mover.getColor()));
+      if (pieces.size() < 4) {
+        break;
+      }
+      for (Color color : Color.values()) {
+        assertEquals(pairwise(pieces, color), map.attacked(color), "after step " + step);
+      }
+    }
+  }
+
+  @Test
+  public void testAddRemoveOpensAndClosesRays() {
+    AttackMap map = new AttackMap(List.of(new Rook(0, 0, Color.WHITE), new King(7, 7, Color.BLACK)));
+    assertTrue(map.isAttacked(0, 7, Color.WHITE));
+    assertTrue(map.isAttacked(7, 0, Color.WHITE));
+
+    map.add(new Knight(0, 3, Color.BLACK));
+    assertTrue(map.isAttacked(0, 3, Color.WHITE));
+    assertFalse(map.isAttacked(0, 4, Color.WHITE));
+
+    map.remove(0, 3);
+    assertTrue(map.isAttacked(0, 4, Color.WHITE));
+
+    map.move(0, 0, 0, 7);
+    assertTrue(map.inCheck(Color.BLACK));
+  }
+
+  @Test
+  public void testRejectsBadInput() {
+    AttackMap map = new AttackMap(List.of(new King(0, 0, Color.WHITE)));
+    assertThrows(IllegalArgumentException.class, () -> new AttackMap(null));
+    assertThrows(IllegalArgumentException.class, () -> map.add(new Rook(0, 0, Color.BLACK)));
+    assertThrows(IllegalArgumentException.class, () -> map.move(3, 3, 4, 4));
+    assertThrows(IllegalArgumentException.class, () -> map.remove(8, 0));
+    assertFalse(map.isAttacked(-1, 0, Color.WHITE));
+  }
+}
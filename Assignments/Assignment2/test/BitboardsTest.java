@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the precomputed attack tables.
+ * Table answers are compared against the existing piece classes' canMove.
+ */
+public class BitboardsTest {
+
+  @Test
+  public void testSquareAndBit() {
+    assertEquals(0, Bitboards.square(0, 0));
+    assertEquals(63, Bitboards.square(7, 7));
+    assertEquals(1L << 19, Bitboards.bit(2, 3));
+  }
+
+  @Test
+  public void testLeaperTablesMatchCanMove() {
+    for (int r = 0; r < 8; r++) {
+      for (int c = 0; c < 8; c++) {
+        int sq = Bitboards.square(r, c);
+        ChessPiece king = new King(r, c, Color.WHITE);
+        ChessPiece knight = new Knight(r, c, Color.WHITE);
+        for (int tr = 0; tr < 8; tr++) {
+          for (int tc = 0; tc < 8; tc++) {
+            long b = Bitboards.bit(tr, tc);
+            assertEquals(king.canMove(tr, tc), (Bitboards.kingAttacks(sq) & b) != 0);
+            assertEquals(knight.canMove(tr, tc), (Bitboards.knightAttacks(sq) & b) != 0);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPawnAttacks() {
+    // white pawn on (3,3) attacks (4,2) and (4,4)
+    assertEquals(Bitboards.bit(4, 2) | Bitboards.bit(4, 4),
+        Bitboards.pawnAttacks(Color.WHITE, Bitboards.square(3, 3)));
+    // black pawn on the edge (4,0) attacks only (3,1)
+    assertEquals(Bitboards.bit(3, 1), Bitboards.pawnAttacks(Color.BLACK, Bitboards.square(4, 0)));
+  }
+
+  @Test
+  public void testPawnPushTables() {
+    int e2 = Bitboards.square(1, 4);
+    assertEquals(Bitboards.bit(2, 4), Bitboards.pawnPushes(Color.WHITE, e2));
+    assertEquals(Bitboards.bit(3, 4), Bitboards.pawnDoublePushes(Color.WHITE, e2));
+    assertEquals(Bitboards.bit(0, 4), Bitboards.pawnPushes(Color.BLACK, e2));
+    assertEquals(0L, Bitboards.pawnDoublePushes(Color.BLACK, e2));
+    // double pushes only from the start rows, no pushes off the board
+    assertEquals(Bitboards.bit(4, 0), Bitboards.pawnDoublePushes(Color.BLACK, Bitboards.square(6, 0)));
+    assertEquals(0L, Bitboards.pawnDoublePushes(Color.WHITE, Bitboards.square(2, 0)));
+    assertEquals(0L, Bitboards.pawnPushes(Color.WHITE, Bitboards.square(7, 7)));
+  }
+
+  @Test
+  public void testSlidersOnEmptyBoardMatchCanMove() {
+    for (int r = 0; r < 8; r++) {
+      for (int c = 0; c < 8; c++) {
+        int sq = Bitboards.square(r, c);
+        ChessPiece rook = new Rook(r, c, Color.BLACK);
+        ChessPiece bishop = new Bishop(r, c, Color.BLACK);
+        ChessPiece queen = new Queen(r, c, Color.BLACK);
+        for (int tr = 0; tr < 8; tr++) {
+          for (int tc = 0; tc < 8; tc++) {
+            long b = Bitboards.bit(tr, tc);
+            assertEquals(rook.canMove(tr, tc), (Bitboards.rookAttacks(sq, 0L) & b) != 0);
+            assertEquals(bishop.canMove(tr, tc), (Bitboards.bishopAttacks(sq, 0L) & b) != 0);
+            assertEquals(queen.canMove(tr, tc), (Bitboards.queenAttacks(sq, 0L) & b) != 0);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSlidersStopAtFirstBlocker() {
+    int sq = Bitboards.square(3, 3);
+    long blockers = Bitboards.bit(3, 5) | Bitboards.bit(5, 5) | Bitboards.bit(1, 3);
+
+    long rook = Bitboards.rookAttacks(sq, blockers);
+    assertTrue((rook & Bitboards.bit(3, 5)) != 0);   // blocker itself is attacked
+    assertFalse((rook & Bitboards.bit(3, 6)) != 0);  // behind the blocker
+    assertTrue((rook & Bitboards.bit(1, 3)) != 0);
+    assertFalse((rook & Bitboards.bit(0, 3)) != 0);
+    assertTrue((rook & Bitboards.bit(7, 3)) != 0);   // open ray
+
+    long bishop = Bitboards.bishopAttacks(sq, blockers);
+    assertTrue((bishop & Bitboards.bit(5, 5)) != 0);
+    assertFalse((bishop & Bitboards.bit(6, 6)) != 0);
+    assertTrue((bishop & Bitboards.bit(0, 0)) != 0);
+  }
+}
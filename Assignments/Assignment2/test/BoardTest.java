@@ -0,0 +1,81 @@
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bitboard Board.
+ */
+public class BoardTest {
+
+  @Test
+  public void testConstructorRejectsNullAndDuplicates() {
+    assertThrows(IllegalArgumentException.class, () -> new Board(null));
+    assertThrows(IllegalArgumentException.class,
+        () -> new Board(List.of(new Rook(0, 0, Color.WHITE), new King(0, 0, Color.BLACK))));
+  }
+
+  @Test
+  public void testPlacePieceAtAndRemove() {
+    Board board = new Board();
+    board.place(new Knight(2, 5, Color.BLACK));
+
+    ChessPiece p = board.pieceAt(2, 5);
+    assertSame(ChessPiece.of(PieceType.KNIGHT, 2, 5, Color.BLACK), p);
+    assertEquals(PieceType.KNIGHT, p.getType());
+    assertEquals(Color.BLACK, p.getColor());
+    assertEquals(Bitboards.bit(2, 5), board.occupancy(Color.BLACK));
+    assertNull(board.pieceAt(2, 4));
+
+    board.remove(2, 5);
+    assertNull(board.pieceAt(2, 5));
+    assertEquals(0L, board.occupancy());
+    assertThrows(IllegalArgumentException.class, () -> board.pieceAt(8, 0));
+  }
+
+  @Test
+  public void testMovesOnEmptyBoardMatchCanMove() {
+    List<ChessPiece> pieces = List.of(
+        new Queen(3, 3, Color.WHITE), new Rook(0, 7, Color.BLACK),
+        new Bishop(6, 1, Color.WHITE), new King(7, 4, Color.BLACK),
+        new Knight(4, 6, Color.WHITE), new Pawn(1, 2, Color.WHITE), new Pawn(6, 5, Color.BLACK));
+    for (ChessPiece piece : pieces) {
+      Board board = new Board(List.of(piece));
+      for (int r = 0; r < 8; r++) {
+        for (int c = 0; c < 8; c++) {
+          assertEquals(piece.canMove(r, c), board.canMove(piece, r, c));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSliderIsBlockedAndCapturesEnemyOnly() {
+    ChessPiece rook = new Rook(3, 3, Color.WHITE);
+    Board board = new Board(List.of(rook,
+        new Pawn(3, 5, Color.BLACK),    // enemy on the right
+        new Knight(5, 3, Color.WHITE)));  // friend above
+
+    assertTrue(board.canMove(rook, 3, 4));
+    assertTrue(board.canMove(rook, 3, 5));    // capture
+    assertFalse(board.canMove(rook, 3, 6));   // behind enemy
+    assertTrue(board.canMove(rook, 4, 3));
+    assertFalse(board.canMove(rook, 5, 3));   // own piece
+    assertFalse(board.canMove(rook, 6, 3));
+    assertFalse(board.canMove(rook, 8, 3));   // off board
+  }
+
+  @Test
+  public void testPawnPushesAndCaptures() {
+    ChessPiece white = new Pawn(1, 4, Color.WHITE);
+    Board board = new Board(List.of(white, new Rook(2, 5, Color.BLACK), new Rook(2, 3, Color.WHITE)));
+    assertEquals(Bitboards.bit(2, 4) | Bitboards.bit(3, 4) | Bitboards.bit(2, 5), board.moves(white));
+
+    // blocked directly in front: no double push either
+    board.place(new Knight(2, 4, Color.BLACK));
+    assertEquals(Bitboards.bit(2, 5), board.moves(white));
+
+    ChessPiece black = new Pawn(6, 0, Color.BLACK);
+    Board board2 = new Board(List.of(black, new Bishop(4, 0, Color.WHITE)));
+    assertEquals(Bitboards.bit(5, 0), board2.moves(black));
+  }
+}
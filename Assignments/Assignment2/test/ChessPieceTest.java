@@ -67,4 +67,97 @@ public class ChessPieceTest {
     assertTrue(pawn.canMove(4, 3));          // legal MOVE
     assertFalse(pawn.canKill(enemyStraightAhead)); // NOT a legal CAPTURE
   }
+
+  @Test
+  public void testCanMoveWithOccupancyStopsAtBlockers() {
+    Occupancy occ = new Occupancy();
+    occ.set(3, 5);
+    occ.set(5, 5);
+
+    ChessPiece rook = new Rook(3, 3, Color.WHITE);
+    assertTrue(rook.canMove(3, 4, occ));
+    assertTrue(rook.canMove(3, 5, occ));    // blocker square itself is reachable
+    assertFalse(rook.canMove(3, 6, occ));   // jumps over (3,5)
+    assertTrue(rook.canMove(7, 3, occ));
+
+    ChessPiece bishop = new Bishop(3, 3, Color.WHITE);
+    assertTrue(bishop.canMove(5, 5, occ));
+    assertFalse(bishop.canMove(7, 7, occ));
+
+    ChessPiece queen = new Queen(3, 3, Color.WHITE);
+    assertFalse(queen.canMove(3, 7, occ));
+    assertFalse(queen.canMove(6, 6, occ));
+    assertTrue(queen.canMove(0, 0, occ));
+    assertFalse(queen.canMove(5, 6, occ)); // still not a queen move
+  }
+
+  @Test
+  public void testCanMoveWithOccupancyLeapersAndPawns() {
+    Occupancy occ = new Occupancy();
+    for (int c = 0; c < 8; c++) {
+      occ.set(2, c);
+    }
+    // knight jumps over the wall
+    assertTrue(new Knight(1, 1, Color.WHITE).canMove(3, 2, occ));
+    // pawn double push is blocked by the square in front
+    assertFalse(new Pawn(1, 4, Color.WHITE).canMove(3, 4, occ));
+    assertTrue(new Pawn(1, 4, Color.WHITE).canMove(3, 4, new Occupancy()));
+  }
+
+  @Test
+  public void testCanKillWithOccupancy() {
+    ChessPiece rook = new Rook(0, 0, Color.WHITE);
+    ChessPiece foe = new Bishop(0, 7, Color.BLACK);
+    Occupancy occ = new Occupancy(Bitboards.bit(0, 0) | Bitboards.bit(0, 7));
+    assertTrue(rook.canKill(foe, occ));
+
+    occ.set(0, 3);
+    assertFalse(rook.canKill(foe, occ));
+    assertThrows(IllegalArgumentException.class, () -> rook.canKill(foe, null));
+    assertThrows(IllegalArgumentException.class, () -> rook.canMove(1, 0, null));
+  }
+
+  @Test
+  public void testOfReturnsSharedInstance() {
+    ChessPiece a = ChessPiece.of(PieceType.QUEEN, 3, 4, Color.BLACK);
+    ChessPiece b = ChessPiece.of(PieceType.QUEEN, 3, 4, Color.BLACK);
+    assertSame(a, b);
+    assertTrue(a instanceof Queen);
+    assertEquals(3, a.getRow());
+    assertEquals(4, a.getColumn());
+    assertEquals(Color.BLACK, a.getColor());
+    assertNotSame(a, ChessPiece.of(PieceType.QUEEN, 3, 4, Color.WHITE));
+  }
+
+  @Test
+  public void testOfCoversEveryValidCombination() {
+    for (PieceType type : PieceType.values()) {
+      for (Color color : Color.values()) {
+        for (int r = 0; r < 8; r++) {
+          for (int c = 0; c < 8; c++) {
+            boolean royalRowPawn = type == PieceType.PAWN
+                && (color == Color.WHITE ? r == 0 : r == 7);
+            if (royalRowPawn) {
+              continue;
+            }
+            ChessPiece p = ChessPiece.of(type, r, c, color);
+            assertEquals(type, p.getType());
+            assertEquals(color, p.getColor());
+            assertEquals(r, p.getRow());
+            assertEquals(c, p.getColumn());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOfKeepsConstructorValidation() {
+    assertThrows(IllegalArgumentException.class, () -> ChessPiece.of(PieceType.PAWN, 0, 3, Color.WHITE));
+    assertThrows(IllegalArgumentException.class, () -> ChessPiece.of(PieceType.PAWN, 7, 3, Color.BLACK));
+    assertThrows(IllegalArgumentException.class, () -> ChessPiece.of(PieceType.ROOK, 8, 0, Color.BLACK));
+    assertThrows(IllegalArgumentException.class, () -> ChessPiece.of(PieceType.ROOK, 0, -1, Color.BLACK));
+    assertThrows(IllegalArgumentException.class, () -> ChessPiece.of(PieceType.ROOK, 0, 0, null));
+    assertThrows(IllegalArgumentException.class, () -> ChessPiece.of(null, 0, 0, Color.WHITE));
+  }
 }
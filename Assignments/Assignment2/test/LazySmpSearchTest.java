@@ -0,0 +1,77 @@
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazySmpSearchTest {
+
+  @Test
+  public void testFindsMateWithSeveralThreads() {
+    LazySmpSearch search = new LazySmpSearch(new TranspositionTable(4), 4);
+    try {
+      int move = search.findBestMove(Position.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), 4, 0);
+      assertEquals("a1a8", Move.toUci(move));
+      assertEquals(Search.MATE - 1, search.getBestScore());
+      assertEquals(4, search.getThreads());
+    } finally {
+      search.shutdown();
+    }
+  }
+
+  @Test
+  public void testTimeLimitStopsAllThreads() {
+    LazySmpSearch search = new LazySmpSearch(new TranspositionTable(8), 3);
+    try {
+      long start = System.nanoTime();
+      int move = search.findBestMove(Position.fromFen(Position.START_FEN), Search.MAX_PLY, 100);
+      long millis = (System.nanoTime() - start) / 1_000_000;
+      assertNotEquals(0, move);
+      assertTrue(millis < 2000, "took " + millis + " ms");
+      assertTrue(search.getNodes() > 0);
+
+      // can be reused for another search
+      assertNotEquals(0, search.findBestMove(Position.fromFen(Position.START_FEN), 3, 0));
+    } finally {
+      search.shutdown();
+    }
+    assertThrows(IllegalStateException.class,
+        () -> search.findBestMove(Position.fromFen(Position.START_FEN), 1, 0));
+  }
+
+  @Test
+  public void testSharedTableNeverReturnsMixedEntries() throws InterruptedException {
+    // every writer stores data derived from its key; a reader must only ever
+    // see a miss or the matching data, never another key's data
+    TranspositionTable tt = new TranspositionTable(1);
+    int slots = 16;   // few slots -> many collisions between threads
+    List<Thread> threads = new ArrayList<>();
+    List<String> errors = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int id = t;
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < 200_000; i++) {
+          long key = ((long) (i % slots) * tt.capacity() / slots) + ((long) id << 40) + 1;
+          tt.store(key, i & 0xFFFF, id, id, TranspositionTable.EXACT);
+          long data = tt.probe(key);
+          if (data != 0 && TranspositionTable.score(data) != id) {
+            synchronized (errors) {
+              errors.add("key " + key + " returned data of thread " + TranspositionTable.score(data));
+            }
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(errors.isEmpty(), errors.toString());
+  }
+
+  @Test
+  public void testRejectsBadArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new LazySmpSearch(null, 2));
+    assertThrows(IllegalArgumentException.class, () -> new LazySmpSearch(new TranspositionTable(1), 0));
+  }
+}
@@ -0,0 +1,40 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancyTest {
+
+  @Test
+  public void testSetClearAndQuery() {
+    Occupancy occ = new Occupancy();
+    assertFalse(occ.isOccupied(4, 4));
+
+    occ.set(4, 4);
+    assertTrue(occ.isOccupied(4, 4));
+    assertEquals(Bitboards.bit(4, 4), occ.getBits());
+
+    occ.clear(4, 4);
+    assertFalse(occ.isOccupied(4, 4));
+    assertEquals(0L, occ.getBits());
+  }
+
+  @Test
+  public void testOutOfBounds() {
+    Occupancy occ = new Occupancy(-1L);
+    assertFalse(occ.isOccupied(8, 0));
+    assertThrows(IllegalArgumentException.class, () -> occ.set(-1, 0));
+    assertThrows(IllegalArgumentException.class, () -> occ.clear(0, 8));
+  }
+
+  @Test
+  public void testSetBitsFromBoard() {
+    Board board = new Board();
+    board.place(new King(0, 4, Color.WHITE));
+    board.place(new King(7, 4, Color.BLACK));
+
+    Occupancy occ = new Occupancy();
+    occ.setBits(board.occupancy());
+    assertTrue(occ.isOccupied(0, 4));
+    assertTrue(occ.isOccupied(7, 4));
+    assertFalse(new Rook(0, 0, Color.WHITE).canMove(0, 7, occ));
+  }
+}
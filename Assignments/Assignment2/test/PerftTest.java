@@ -0,0 +1,91 @@
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Perft counts against the published reference numbers
+ * (https://www.chessprogramming.org/Perft_Results).
+ * Every detailed run is also verified against the piece classes' own rules.
+ */
+public class PerftTest {
+
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+  private static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+  private static final String PROMOTIONS =
+      "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+  private static final String TALKCHESS =
+      "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+  private static long perft(String fen, int depth) {
+    Perft perft = new Perft();
+    perft.setVerify(true);
+    long detailed = perft.runDetailed(Position.fromFen(fen), depth);
+    assertEquals(detailed, perft.run(Position.fromFen(fen), depth));
+    return detailed;
+  }
+
+  @Test
+  public void testStartPosition() {
+    assertEquals(1, perft(Position.START_FEN, 0));
+    assertEquals(20, perft(Position.START_FEN, 1));
+    assertEquals(400, perft(Position.START_FEN, 2));
+    assertEquals(8902, perft(Position.START_FEN, 3));
+    assertEquals(197281, perft(Position.START_FEN, 4));
+  }
+
+  @Test
+  public void testKiwipeteCastlingAndEnPassant() {
+    assertEquals(48, perft(KIWIPETE, 1));
+    assertEquals(2039, perft(KIWIPETE, 2));
+    assertEquals(97862, perft(KIWIPETE, 3));
+  }
+
+  @Test
+  public void testEndgamePins() {
+    assertEquals(14, perft(ENDGAME, 1));
+    assertEquals(191, perft(ENDGAME, 2));
+    assertEquals(2812, perft(ENDGAME, 3));
+    assertEquals(43238, perft(ENDGAME, 4));
+  }
+
+  @Test
+  public void testPromotions() {
+    assertEquals(6, perft(PROMOTIONS, 1));
+    assertEquals(264, perft(PROMOTIONS, 2));
+    assertEquals(9467, perft(PROMOTIONS, 3));
+  }
+
+  @Test
+  public void testTalkchessPosition() {
+    assertEquals(44, perft(TALKCHESS, 1));
+    assertEquals(1486, perft(TALKCHESS, 2));
+    assertEquals(62379, perft(TALKCHESS, 3));
+  }
+
+  @Test
+  public void testDivideSumsToTotal() {
+    Perft perft = new Perft();
+    Map<String, Long> divide = perft.divide(Position.fromFen(Position.START_FEN), 3);
+    assertEquals(20, divide.size());
+    assertEquals(Long.valueOf(600), divide.get("e2e4"));
+    assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+  }
+
+  @Test
+  public void testPerTypeCounts() {
+    Perft perft = new Perft();
+    perft.runDetailed(Position.fromFen(Position.START_FEN), 1);
+    assertEquals(16, perft.getTypeMoves(PieceType.PAWN));
+    assertEquals(4, perft.getTypeMoves(PieceType.KNIGHT));
+    assertEquals(0, perft.getTypeMoves(PieceType.QUEEN));
+  }
+
+  @Test
+  public void testRejectsBadArguments() {
+    Perft perft = new Perft();
+    assertThrows(IllegalArgumentException.class, () -> perft.run(null, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> perft.run(Position.fromFen(Position.START_FEN), -1));
+  }
+}
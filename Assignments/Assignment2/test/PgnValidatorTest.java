@@ -0,0 +1,103 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnValidatorTest {
+
+  private static final String GOOD_GAME =
+      "[Event \"Test\"]\n[White \"A\"]\n[Black \"B\"]\n[Result \"1-0\"]\n\n"
+      + "1. e4 e5 2. Nf3 {develops} Nc6 3. Bb5 a6 (3... Nf6 4. O-O) 4. Bxc6 dxc6 $1\n"
+      + "5. O-O f6 6. d4 exd4 7. Nxd4 c5 8. Nb3 Qxd1 9. Rxd1 1-0\n\n";
+  private static final String BAD_GAME =
+      "[Event \"Bad\"]\n[Result \"*\"]\n\n1. e4 e5 2. Ke3 Nc6 *\n\n";
+  private static final String FEN_GAME =
+      "[Event \"Setup\"]\n[SetUp \"1\"]\n[FEN \"4k3/8/8/8/8/8/4P3/4K3 w - - 0 1\"]\n\n"
+      + "1. e4 Kd7 2. e5 Ke6 1/2-1/2\n\n";
+
+  private static Path write(String suffix, String text) throws IOException {
+    Path file = Files.createTempFile("validator", suffix);
+    Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+    return file;
+  }
+
+  @Test
+  public void testGoodAndBadGames() throws IOException {
+    String text = GOOD_GAME + BAD_GAME + FEN_GAME;
+    Path file = write(".pgn", text);
+    PgnValidator validator = new PgnValidator(1);
+    try {
+      ValidationReport report = validator.validate(file);
+      assertEquals(3, report.getGames());
+      assertEquals(17 + 2 + 4, report.getMoves());
+      assertEquals(1, report.getErrorCount());
+      ValidationError error = report.getErrors().get(0);
+      assertEquals(GOOD_GAME.length(), error.getGameOffset());
+      assertEquals(text.indexOf("Ke3"), error.getOffset());
+    } finally {
+      validator.shutdown();
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testSplitRunMatchesSingleRun() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      sb.append(i % 7 == 3 ? BAD_GAME : GOOD_GAME);
+    }
+    Path file = write(".pgn", sb.toString());
+    PgnValidator whole = new PgnValidator(1);
+    PgnValidator split = new PgnValidator(3, 300);
+    try {
+      ValidationReport expected = whole.validate(file);
+      ValidationReport actual = split.validate(file);
+      assertEquals(40, actual.getGames());
+      assertEquals(expected.getMoves(), actual.getMoves());
+      assertEquals(6, actual.getErrorCount());
+      List<ValidationError> a = expected.getErrors();
+      List<ValidationError> b = actual.getErrors();
+      for (int i = 0; i < a.size(); i++) {
+        assertEquals(a.get(i).getOffset(), b.get(i).getOffset());
+      }
+    } finally {
+      whole.shutdown();
+      split.shutdown();
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testEpd() throws IOException {
+    String text = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - bm e4 d4; id \"start\";\n"
+        + "\n"
+        + "4k3/8/8/8/8/8/8/4K2R w K - bm O-O; id \"castle\";\n"
+        + "4k3/8/8/8/8/8/8/4K2R w K - bm Qh5;\n";
+    Path file = write(".epd", text);
+    PgnValidator validator = new PgnValidator(2, 60);
+    try {
+      ValidationReport report = validator.validate(file);
+      assertEquals(3, report.getGames());
+      assertEquals(3, report.getMoves());
+      assertEquals(1, report.getErrorCount());
+      assertEquals(text.indexOf("Qh5"), report.getErrors().get(0).getOffset());
+    } finally {
+      validator.shutdown();
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new PgnValidator(0));
+    PgnValidator validator = new PgnValidator(1);
+    try {
+      assertThrows(IllegalArgumentException.class, () -> validator.validate(null));
+    } finally {
+      validator.shutdown();
+    }
+  }
+}
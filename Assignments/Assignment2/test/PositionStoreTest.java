@@ -0,0 +1,88 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionStoreTest {
+
+  @Test
+  public void testWriteAndProbe() throws IOException {
+    Path file = Files.createTempFile("book", ".store");
+    try {
+      long[] keys = new long[1000];
+      long[] values = new long[1000];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = (i + 1) * 0x9E3779B97F4A7C15L;
+        values[i] = i - 500;
+      }
+      PositionStore.write(file, keys, values, keys.length);
+      PositionStore store = PositionStore.open(file);
+      assertEquals(1000, store.size());
+      for (int i = 0; i < keys.length; i++) {
+        assertEquals(values[i], store.probe(keys[i]));
+      }
+      assertEquals(PositionStore.NOT_FOUND, store.probe(12345L));
+      assertEquals(PositionStore.NOT_FOUND, store.probe(0L));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testFrontCacheReplacesSlot() throws IOException {
+    Path file = Files.createTempFile("book", ".store");
+    try {
+      PositionStore.write(file, new long[] {1, 2, 3}, new long[] {10, 20, 30}, 3);
+      PositionStore store = PositionStore.open(file, 2);
+      store.probe(1);    // miss, slot 1
+      store.probe(2);    // miss, slot 0
+      store.probe(1);    // hit
+      store.probe(3);    // miss, replaces 1 in slot 1
+      assertEquals(20, store.probe(2));   // hit
+      assertEquals(10, store.probe(1));   // miss again
+      assertEquals(2, store.getCacheHits());
+      assertEquals(4, store.getCacheMisses());
+      assertEquals(0, PositionStore.open(file).getCacheHits());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testInvalidInput() throws IOException {
+    Path file = Files.createTempFile("book", ".store");
+    try {
+      assertThrows(IllegalArgumentException.class,
+          () -> PositionStore.write(file, new long[] {0}, new long[] {1}, 1));
+      assertThrows(IllegalArgumentException.class,
+          () -> PositionStore.write(file, new long[] {1}, new long[] {1}, 2));
+      Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+      assertThrows(IOException.class, () -> PositionStore.open(file));
+      assertThrows(IllegalArgumentException.class, () -> PositionStore.open(file, -1));
+
+      // every slot filled: more entries than write ever stores
+      assertThrows(IOException.class, () -> PositionStore.open(fullTable(file, 16)));
+      // same slots but a header claiming 1 entry: a missing key still ends
+      PositionStore store = PositionStore.open(fullTable(file, 1));
+      assertEquals(PositionStore.NOT_FOUND, store.probe(100L));
+      assertEquals(10L, store.probe(5L));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Writes a 16-slot store with every slot filled (key k + 1 -> 2 * (k + 1)).
+   */
+  private static Path fullTable(Path file, int entryCount) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(16 + 16 * 16);
+    buf.putInt(0x5053544f).putInt(1).putInt(16).putInt(entryCount);
+    for (int k = 0; k < 16; k++) {
+      buf.putLong(k + 1).putLong(2L * (k + 1));
+    }
+    Files.write(file, buf.array());
+    return file;
+  }
+}
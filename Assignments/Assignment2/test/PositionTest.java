@@ -0,0 +1,137 @@
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTest {
+
+  @Test
+  public void testFenRoundTrip() {
+    String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b Kq e3 4 17";
+    assertEquals(fen, Position.fromFen(fen).toFen());
+    assertEquals(Position.START_FEN, Position.fromFen(Position.START_FEN).toFen());
+  }
+
+  @Test
+  public void testFenRejectsBadInput() {
+    assertThrows(IllegalArgumentException.class, () -> Position.fromFen(null));
+    assertThrows(IllegalArgumentException.class, () -> Position.fromFen("8/8/8 w - -"));
+    assertThrows(IllegalArgumentException.class, () -> Position.fromFen("9/8/8/8/8/8/8/8 w - -"));
+    assertThrows(IllegalArgumentException.class, () -> Position.fromFen("8/8/8/8/8/8/8/8 x - -"));
+    // the Pawn constructor's royal-row rule applies to FEN input
+    assertThrows(IllegalArgumentException.class, () -> Position.fromFen("8/8/8/8/8/8/8/P7 w - -"));
+    // en passant square must be behind a pawn the other side just pushed
+    assertThrows(IllegalArgumentException.class,
+        () -> Position.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - e4 0 1"));
+    assertThrows(IllegalArgumentException.class,
+        () -> Position.fromFen("4k3/8/8/8/4P3/8/8/4K3 w - e3 0 1"));
+    // the half-move clock has 18 bits on the undo stack
+    assertThrows(IllegalArgumentException.class,
+        () -> Position.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 262144 1"));
+    assertEquals(Position.MAX_HALFMOVE_CLOCK,
+        Position.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 262143 1").getHalfmoveClock());
+  }
+
+  @Test
+  public void testHalfmoveClockSaturates() {
+    Position pos = Position.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 262143 1");
+    pos.makeMove(Move.of(4, 5));
+    assertEquals(Position.MAX_HALFMOVE_CLOCK, pos.getHalfmoveClock());
+    pos.makeMove(Move.of(60, 61));
+    pos.unmakeMove();
+    pos.unmakeMove();
+    assertEquals(Position.MAX_HALFMOVE_CLOCK, pos.getHalfmoveClock());
+  }
+
+  @Test
+  public void testMakeDoublePushSetsEnPassant() {
+    Position pos = Position.fromFen(Position.START_FEN);
+    int e2 = Position.parseSquare("e2");
+    int e4 = Position.parseSquare("e4");
+    pos.makeMove(Move.of(e2, e4, null, Move.DOUBLE_PUSH));
+    assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", pos.toFen());
+
+    pos.unmakeMove();
+    assertEquals(Position.START_FEN, pos.toFen());
+    assertThrows(IllegalStateException.class, pos::unmakeMove);
+  }
+
+  @Test
+  public void testCastlingMovesRookAndDropsRights() {
+    Position pos = Position.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+    pos.makeMove(Move.of(4, 6, null, Move.CASTLE));
+    assertEquals("r3k2r/8/8/8/8/8/8/R4RK1 b kq - 1 1", pos.toFen());
+    pos.unmakeMove();
+
+    // capturing a rook on its corner removes that side's right
+    pos.makeMove(Move.of(0, 56));
+    assertEquals(Position.WHITE_KINGSIDE | Position.BLACK_KINGSIDE, pos.getCastlingRights());
+  }
+
+  @Test
+  public void testUnmakeRestoresEverything() {
+    // en passant, promotion with capture and castling all available
+    String fen = "r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 3 20";
+    Position pos = Position.fromFen(fen);
+    long key = pos.getKey();
+    int[] moves = new int[MoveGenerator.MAX_MOVES];
+    int n = MoveGenerator.generate(pos, moves);
+    for (int i = 0; i < n; i++) {
+      pos.makeMove(moves[i]);
+      assertEquals(Zobrist.hash(pos), pos.getKey(), Move.toUci(moves[i]));
+      pos.unmakeMove();
+      assertEquals(fen, pos.toFen());
+      assertEquals(key, pos.getKey());
+    }
+  }
+
+  @Test
+  public void testKeyMatchesFullHashAlongGame() {
+    Position pos = Position.fromFen(
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+    Random random = new Random(7);
+    int[] moves = new int[MoveGenerator.MAX_MOVES];
+    int played = 0;
+    for (int i = 0; i < 200; i++) {
+      int n = MoveGenerator.generate(pos, moves);
+      if (n == 0) {
+        break;
+      }
+      pos.makeMove(moves[random.nextInt(n)]);
+      played++;
+      assertEquals(Zobrist.hash(pos), pos.getKey());
+    }
+    for (int i = 0; i < played; i++) {
+      pos.unmakeMove();
+    }
+    assertEquals("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        pos.toFen());
+  }
+
+  @Test
+  public void testRepetition() {
+    Position pos = Position.fromFen(Position.START_FEN);
+    int g1f3 = Move.of(6, 21);
+    int f3g1 = Move.of(21, 6);
+    int g8f6 = Move.of(62, 45);
+    int f6g8 = Move.of(45, 62);
+    pos.makeMove(g1f3);
+    pos.makeMove(g8f6);
+    assertFalse(pos.isRepetition());
+    pos.makeMove(f3g1);
+    pos.makeMove(f6g8);
+    assertTrue(pos.isRepetition());
+
+    Position copy = pos.copy();
+    assertTrue(copy.isRepetition());
+    copy.unmakeMove();
+    assertFalse(copy.isRepetition());
+    assertTrue(pos.isRepetition());
+  }
+
+  @Test
+  public void testInCheck() {
+    assertFalse(Position.fromFen(Position.START_FEN).inCheck());
+    assertTrue(Position.fromFen("4k3/8/8/8/8/8/8/4R1K1 b - - 0 1").inCheck());
+  }
+}
@@ -0,0 +1,48 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SanParserTest {
+
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+  @Test
+  public void testPawnAndPieceMoves() {
+    Position start = Position.fromFen(Position.START_FEN);
+    assertEquals(Move.of(12, 28, null, Move.DOUBLE_PUSH), SanParser.parse(start, "e4"));
+    assertEquals(Move.of(6, 21), SanParser.parse(start, "Nf3"));
+    assertEquals(Move.of(6, 21), SanParser.parse(start, "Ngf3+"));
+    assertEquals(0, SanParser.parse(start, "Nd2"));   // own pawn there
+    assertEquals(0, SanParser.parse(start, "e5"));
+    assertEquals(0, SanParser.parse(start, "Zz9"));
+  }
+
+  @Test
+  public void testCastlingAndCaptures() {
+    Position pos = Position.fromFen(KIWIPETE);
+    assertEquals(Move.of(4, 6, null, Move.CASTLE), SanParser.parse(pos, "O-O"));
+    assertEquals(Move.of(4, 2, null, Move.CASTLE), SanParser.parse(pos, "0-0-0"));
+    // d5xe6 by the pawn, not ambiguous with any piece
+    assertEquals(Move.of(35, 44), SanParser.parse(pos, "dxe6"));
+    // two knights can reach d1? no: only the c3 knight; Nd1 resolves uniquely
+    assertEquals(Move.of(18, 3), SanParser.parse(pos, "Nd1"));
+  }
+
+  @Test
+  public void testDisambiguationAndPromotion() {
+    Position pos = Position.fromFen("4k3/1P6/8/8/8/7K/8/R6R w - - 0 1");
+    assertEquals(0, SanParser.parse(pos, "Rd1"));   // both rooks can go there
+    assertEquals(Move.of(0, 3), SanParser.parse(pos, "Rad1"));
+    assertEquals(Move.of(7, 3), SanParser.parse(pos, "Rhd1"));
+    assertEquals(Move.of(49, 57, PieceType.QUEEN, Move.NORMAL), SanParser.parse(pos, "b8=Q+"));
+    assertEquals(Move.of(49, 57, PieceType.KNIGHT, Move.NORMAL), SanParser.parse(pos, "b8N"));
+    assertEquals(0, SanParser.parse(pos, "b8"));    // promotion piece missing
+  }
+
+  @Test
+  public void testRejectsNull() {
+    assertThrows(IllegalArgumentException.class, () -> SanParser.parse(null, "e4"));
+    assertThrows(IllegalArgumentException.class,
+        () -> SanParser.parse(Position.fromFen(Position.START_FEN), null));
+  }
+}
@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTest {
+
+  private static int search(String fen, int depth) {
+    Search search = new Search(new TranspositionTable(4));
+    return search.findBestMove(Position.fromFen(fen), depth, 0);
+  }
+
+  @Test
+  public void testFindsMateInOne() {
+    // back-rank mate: Ra1-a8#
+    int move = search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 3);
+    assertEquals("a1a8", Move.toUci(move));
+  }
+
+  @Test
+  public void testReportsMateScore() {
+    Search search = new Search(new TranspositionTable(4));
+    search.findBestMove(Position.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), 3, 0);
+    assertEquals(Search.MATE - 1, search.getBestScore());
+  }
+
+  @Test
+  public void testCapturesHangingQueen() {
+    int move = search("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", 3);
+    assertEquals("d2d5", Move.toUci(move));
+  }
+
+  @Test
+  public void testBlackFindsMate() {
+    // mirrored back-rank mate for Black: ...Ra8-a1#
+    int move = search("r5k1/8/8/8/8/8/5PPP/6K1 b - - 0 1", 3);
+    assertEquals("a8a1", Move.toUci(move));
+  }
+
+  @Test
+  public void testNoMovesReturnsZero() {
+    // black is checkmated already
+    Search search = new Search(new TranspositionTable(1));
+    assertEquals(0, search.findBestMove(Position.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1"), 2, 0));
+    assertEquals(-Search.MATE, search.getBestScore());
+  }
+
+  @Test
+  public void testTimeLimitStillReturnsMove() {
+    Search search = new Search(new TranspositionTable(4));
+    int move = search.findBestMove(Position.fromFen(Position.START_FEN), Search.MAX_PLY, 50);
+    assertNotEquals(0, move);
+    assertTrue(search.getCompletedDepth() >= 1);
+  }
+
+  @Test
+  public void testRejectsBadArguments() {
+    Search search = new Search(new TranspositionTable(1));
+    assertThrows(IllegalArgumentException.class, () -> new Search(null));
+    assertThrows(IllegalArgumentException.class, () -> search.findBestMove(null, 1, 0));
+    assertThrows(IllegalArgumentException.class,
+        () -> search.findBestMove(Position.fromFen(Position.START_FEN), 0, 0));
+  }
+}
@@ -0,0 +1,77 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablebaseTest {
+
+  // generated once, generation takes a moment
+  private static final Tablebase KQK = Tablebase.generate(PieceType.QUEEN);
+  private static final Tablebase KRK = Tablebase.generate(PieceType.ROOK);
+  private static final Tablebase KPK = Tablebase.generate(PieceType.PAWN);
+
+  private static int probe(Tablebase table, String fen) {
+    return table.probe(Position.fromFen(fen));
+  }
+
+  @Test
+  public void testLongestMates() {
+    // published values: KQK mate in 10, KRK mate in 16 (moves of the strong side)
+    assertEquals(19, KQK.getLongestMate());
+    assertEquals(31, KRK.getLongestMate());
+  }
+
+  @Test
+  public void testMatesAndDraws() {
+    assertEquals(Search.MATE - 1, probe(KQK, "7k/8/6K1/8/8/8/Q7/8 w - - 0 1"));
+    assertEquals(-Search.MATE, probe(KQK, "7k/6Q1/6K1/8/8/8/8/8 b - - 0 1"));
+    // black is the strong side: looked up color-flipped
+    assertEquals(Search.MATE - 1, probe(KQK, "8/q7/8/8/8/6k1/8/7K b - - 0 1"));
+    // the undefended queen next to the king is taken
+    assertEquals(0, probe(KQK, "8/8/8/8/8/8/6Qk/4K3 b - - 0 1"));
+    // stalemate
+    assertEquals(0, probe(KPK, "4k3/4P3/4K3/8/8/8/8/8 b - - 0 1"));
+  }
+
+  @Test
+  public void testKingPawnEndings() {
+    // king on the sixth rank in front of its pawn wins with either side to move
+    assertTrue(probe(KPK, "4k3/8/4K3/4P3/8/8/8/8 w - - 0 1") > 0);
+    assertTrue(probe(KPK, "4k3/8/4K3/4P3/8/8/8/8 b - - 0 1") < 0);
+    // rook pawn with the defending king in the corner is a draw
+    assertEquals(0, probe(KPK, "k7/8/1K6/P7/8/8/8/8 w - - 0 1"));
+    // pawn outside the square of the king runs through
+    assertTrue(probe(KPK, "8/8/8/8/P7/8/8/5K1k w - - 0 1") > 0);
+  }
+
+  @Test
+  public void testNotCovered() {
+    assertEquals(Tablebase.NO_RESULT, KQK.probe(Position.fromFen(Position.START_FEN)));
+    assertEquals(Tablebase.NO_RESULT, probe(KQK, "7k/8/6K1/8/8/8/8/R7 w - - 0 1"));
+    assertThrows(IllegalArgumentException.class, () -> Tablebase.generate(PieceType.BISHOP));
+  }
+
+  @Test
+  public void testStoreMatchesTable() throws IOException {
+    Path file = Files.createTempFile("krk", ".store");
+    try {
+      KRK.writeTo(file);
+      PositionStore store = PositionStore.open(file, 16);
+      String[] fens = {
+          "7k/8/6K1/8/8/8/8/R7 w - - 0 1",
+          "8/8/3k4/8/8/8/8/R3K3 w - - 0 1",
+          "8/8/3k4/8/8/8/8/R3K3 b - - 0 1",
+          "r7/8/8/8/8/5k2/8/7K b - - 0 1"};
+      for (String fen : fens) {
+        Position pos = Position.fromFen(fen);
+        assertEquals(KRK.probe(pos), Tablebase.probe(store, PieceType.ROOK, pos), fen);
+        assertEquals(KRK.probe(pos), Tablebase.probe(store, PieceType.ROOK, pos), fen);
+      }
+      assertEquals(fens.length, store.getCacheHits());
+      assertEquals(fens.length, store.getCacheMisses());
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+  @Test
+  public void testStoreAndProbe() {
+    TranspositionTable tt = new TranspositionTable(1);
+    int move = Move.of(12, 28, null, Move.DOUBLE_PUSH);
+    tt.store(0x1234_5678_9ABC_DEF0L, move, -250, 7, TranspositionTable.LOWER);
+
+    long data = tt.probe(0x1234_5678_9ABC_DEF0L);
+    assertNotEquals(0L, data);
+    assertEquals(move, TranspositionTable.move(data));
+    assertEquals(-250, TranspositionTable.score(data));
+    assertEquals(7, TranspositionTable.depth(data));
+    assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+  }
+
+  @Test
+  public void testMissAndReplace() {
+    TranspositionTable tt = new TranspositionTable(1);
+    long key = 42L;
+    long sameSlot = key + tt.capacity();   // same low bits, different key
+    assertEquals(0L, tt.probe(key));
+
+    tt.store(key, 1, 10, 1, TranspositionTable.EXACT);
+    tt.store(sameSlot, 2, 20, 2, TranspositionTable.EXACT);
+    assertEquals(0L, tt.probe(key));
+    assertEquals(20, TranspositionTable.score(tt.probe(sameSlot)));
+
+    tt.clear();
+    assertEquals(0L, tt.probe(sameSlot));
+  }
+
+  @Test
+  public void testSize() {
+    assertEquals(65536, new TranspositionTable(1).capacity());
+    assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+  }
+}
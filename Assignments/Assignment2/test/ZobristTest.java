@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristTest {
+
+  @Test
+  public void testTranspositionsHashEqual() {
+    Position start = Position.fromFen(Position.START_FEN);
+    int g1f3 = Move.of(6, 21);
+    int b1c3 = Move.of(1, 18);
+    int g8f6 = Move.of(62, 45);
+
+    Position a = start.copy();
+    a.makeMove(g1f3);
+    a.makeMove(g8f6);
+    a.makeMove(b1c3);
+    Position b = start.copy();
+    b.makeMove(b1c3);
+    b.makeMove(g8f6);
+    b.makeMove(g1f3);
+    assertEquals(Zobrist.hash(a), Zobrist.hash(b));
+    assertEquals(a.getKey(), b.getKey());
+    assertEquals(a.toFen(), b.toFen());
+  }
+
+  @Test
+  public void testStateChangesHash() {
+    long base = Zobrist.hash(Position.fromFen("4k3/8/8/8/8/8/8/R3K2R w KQ - 0 1"));
+    assertNotEquals(base, Zobrist.hash(Position.fromFen("4k3/8/8/8/8/8/8/R3K2R b KQ - 0 1")));
+    assertNotEquals(base, Zobrist.hash(Position.fromFen("4k3/8/8/8/8/8/8/R3K2R w K - 0 1")));
+    assertNotEquals(base, Zobrist.hash(Position.fromFen("4k3/8/8/8/8/8/8/R3K1R1 w - - 0 1")));
+  }
+
+  @Test
+  public void testEnPassantOnlyHashedWhenCapturable() {
+    // after 1. e4 no black pawn can take on e3: same key as without the square
+    Position pushed = Position.fromFen(Position.START_FEN);
+    pushed.makeMove(Move.of(12, 28, null, Move.DOUBLE_PUSH));
+    Position plain = Position.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+    assertEquals(plain.getKey(), pushed.getKey());
+    assertEquals(Zobrist.hash(pushed), pushed.getKey());
+
+    // a black pawn on d4 can take on e3, so the square is part of the key
+    String withPawn = "4k3/8/8/8/3pP3/8/8/4K3 b - ";
+    long capturable = Position.fromFen(withPawn + "e3 0 1").getKey();
+    assertNotEquals(Position.fromFen(withPawn + "- 0 1").getKey(), capturable);
+
+    Position before = Position.fromFen("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1");
+    before.makeMove(Move.of(12, 28, null, Move.DOUBLE_PUSH));
+    assertEquals(capturable, before.getKey());
+    assertEquals(Zobrist.hash(before), before.getKey());
+    before.unmakeMove();
+    assertEquals(Zobrist.hash(before), before.getKey());
+  }
+}
@@ -0,0 +1,520 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * Immutable implementation of Fraction that never overflows.
+ * <p>
+ * While numerator and denominator fit in a long they are kept as longs and
+ * all arithmetic is plain long arithmetic, checked with Math.multiplyExact
+ * and Math.addExact. Only when one of those reports an overflow is the
+ * operation redone with BigInteger, and a result is stored as BigInteger
+ * only if it does not fit in a long once reduced. A result that fits again
+ * (say after adding a value's negation) goes back to longs. So long chains
+ * of additions keep working, and the common small case costs about what
+ * FractionImpl does.
+ * <p>
+ * The values are always in the simplest form with a positive denominator,
+ * and each value has exactly one representation, so equals and hashCode
+ * compare values. getNumerator / getDenominator throw ArithmeticException
+ * when the value does not fit in an int; getBigNumerator /
+ * getBigDenominator always work. setNumerator and setDenominator throw
+ * UnsupportedOperationException.
+ */
+public final class BigFraction implements Fraction {
+
+  private static final BigFraction ZERO = new BigFraction(0, 1);
+  private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+  private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+  // the long form, used when big is null
+  private final long numerator;
+  private final long denominator;
+  // the BigInteger form, only for values that do not fit in longs
+  private final BigInteger bigNumerator;
+  private final BigInteger bigDenominator;
+
+  private BigFraction(long numerator, long denominator) {
+    this.numerator = numerator;
+    this.denominator = denominator;
+    this.bigNumerator = null;
+    this.bigDenominator = null;
+  }
+
+  private BigFraction(BigInteger numerator, BigInteger denominator) {
+    this.numerator = 0;
+    this.denominator = 0;
+    this.bigNumerator = numerator;
+    this.bigDenominator = denominator;
+  }
+
+  /**
+   * Returns the fraction n/d in the simplest form.
+   *
+   * @param numerator the numerator
+   * @param denominator the denominator (must be positive)
+   * @return the fraction
+   * @throws IllegalArgumentException if denominator is less than or equal to 0
+   */
+  public static BigFraction valueOf(long numerator, long denominator) {
+    if (denominator <= 0) {
+      throw new IllegalArgumentException("Denominator must be positive.");
+    }
+    return reduce(numerator, denominator);
+  }
+
+  /**
+   * Returns the fraction n/d in the simplest form.
+   *
+   * @param numerator the numerator
+   * @param denominator the denominator (must be positive)
+   * @return the fraction
+   * @throws IllegalArgumentException if an argument is null or denominator
+   *                                  is less than or equal to 0
+   */
+  public static BigFraction valueOf(BigInteger numerator, BigInteger denominator) {
+    if (numerator == null || denominator == null) {
+      throw new IllegalArgumentException("arguments cannot be null");
+    }
+    if (denominator.signum() <= 0) {
+      throw new IllegalArgumentException("Denominator must be positive.");
+    }
+    return reduce(numerator, denominator);
+  }
+
+  /**
+   * Returns the value of any Fraction as a BigFraction.
+   *
+   * @param f the fraction
+   * @return the same value as a BigFraction
+   * @throws IllegalArgumentException if f is null
+   */
+  public static BigFraction valueOf(Fraction f) {
+    if (f == null) {
+      throw new IllegalArgumentException("fraction cannot be null");
+    }
+    if (f instanceof BigFraction) {
+      return (BigFraction) f;
+    }
+    return valueOf(f.getNumerator(), f.getDenominator());
+  }
+
+  /**
+   * Returns the numerator of this fraction.
+   *
+   * @return the numerator (can be negative, zero, or positive)
+   * @throws ArithmeticException if the numerator does not fit in an int
+   */
+  @Override
+  public int getNumerator() {
+    if (bigNumerator != null) {
+      throw new ArithmeticException("Numerator out of int range.");
+    }
+    return Math.toIntExact(numerator);
+  }
+
+  /**
+   * Returns the denominator of this fraction.
+   *
+   * @return the denominator (always positive)
+   * @throws ArithmeticException if the denominator does not fit in an int
+   */
+  @Override
+  public int getDenominator() {
+    if (bigDenominator != null) {
+      throw new ArithmeticException("Denominator out of int range.");
+    }
+    return Math.toIntExact(denominator);
+  }
+
+  /**
+   * Returns the numerator of this fraction at any size.
+   *
+   * @return the numerator
+   */
+  public BigInteger getBigNumerator() {
+    return bigNumerator != null ? bigNumerator : BigInteger.valueOf(numerator);
+  }
+
+  /**
+   * Returns the denominator of this fraction at any size.
+   *
+   * @return the denominator (always positive)
+   */
+  public BigInteger getBigDenominator() {
+    return bigDenominator != null ? bigDenominator : BigInteger.valueOf(denominator);
+  }
+
+  /**
+   * Returns whether the value is held as BigInteger (does not fit in longs).
+   *
+   * @return true if promoted to BigInteger
+   */
+  public boolean isBig() {
+    return bigNumerator != null;
+  }
+
+  /**
+   * Not supported: BigFraction never changes.
+   *
+   * @param n ignored
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void setNumerator(int n) {
+    throw new UnsupportedOperationException("BigFraction cannot be changed.");
+  }
+
+  /**
+   * Not supported: BigFraction never changes.
+   *
+   * @param d ignored
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void setDenominator(int d) {
+    throw new UnsupportedOperationException("BigFraction cannot be changed.");
+  }
+
+  /**
+   * Returns the decimal (double) value of this fraction.
+   *
+   * @return the numeric value as a double
+   */
+  @Override
+  public double toDouble() {
+    if (bigNumerator == null) {
+      return ((double) numerator) / (double) denominator;
+    }
+    return new BigDecimal(bigNumerator).divide(new BigDecimal(bigDenominator), MathContext.DECIMAL64)
+        .doubleValue();
+  }
+
+  /**
+   * Returns the reciprocal of this fraction.
+   *
+   * @return the fraction 1 / (this fraction)
+   * @throws IllegalArgumentException if this fraction is 0 (undefined)
+   */
+  @Override
+  public Fraction reciprocal() {
+    if (bigNumerator == null) {
+      if (numerator == 0) {
+        throw new IllegalArgumentException("Undefined: cannot take reciprocal of 0.");
+      }
+      if (numerator > 0) {
+        return new BigFraction(denominator, numerator);
+      }
+      if (numerator != Long.MIN_VALUE) {
+        return new BigFraction(-denominator, -numerator);
+      }
+    }
+    BigInteger n = getBigNumerator();
+    BigInteger d = getBigDenominator();
+    return n.signum() > 0 ? reduce(d, n) : reduce(d.negate(), n.negate());
+  }
+
+  /**
+   * Adds this fraction to another fraction. Never overflows.
+   *
+   * @param other the fraction to add
+   * @return the fraction this + other
+   * @throws IllegalArgumentException if other is null
+   */
+  @Override
+  public Fraction add(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    BigFraction o = other instanceof BigFraction ? (BigFraction) other : null;
+    if (bigNumerator == null && (o == null || o.bigNumerator == null)) {
+      long a = numerator;
+      long b = denominator;
+      long c = o == null ? other.getNumerator() : o.numerator;
+      long d = o == null ? other.getDenominator() : o.denominator;
+      try {
+        // a/b + c/d = (ad + bc) / bd
+        long newNum = Math.addExact(Math.multiplyExact(a, d), Math.multiplyExact(c, b));
+        return reduce(newNum, Math.multiplyExact(b, d));
+      } catch (ArithmeticException overflow) {
+        // fall through to BigInteger
+      }
+    }
+    BigFraction f = o == null ? valueOf(other) : o;
+    BigInteger b = getBigDenominator();
+    BigInteger d = f.getBigDenominator();
+    return reduce(getBigNumerator().multiply(d).add(f.getBigNumerator().multiply(b)), b.multiply(d));
+  }
+
+  /**
+   * Subtracts another fraction from this fraction. Never overflows.
+   *
+   * @param other the fraction to subtract
+   * @return the fraction this - other
+   * @throws IllegalArgumentException if other is null
+   */
+  @Override
+  public Fraction subtract(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    BigFraction o = other instanceof BigFraction ? (BigFraction) other : null;
+    if (bigNumerator == null && (o == null || o.bigNumerator == null)) {
+      long a = numerator;
+      long b = denominator;
+      long c = o == null ? other.getNumerator() : o.numerator;
+      long d = o == null ? other.getDenominator() : o.denominator;
+      try {
+        // a/b - c/d = (ad - bc) / bd
+        long newNum = Math.subtractExact(Math.multiplyExact(a, d), Math.multiplyExact(c, b));
+        return reduce(newNum, Math.multiplyExact(b, d));
+      } catch (ArithmeticException overflow) {
+        // fall through to BigInteger
+      }
+    }
+    BigFraction f = o == null ? valueOf(other) : o;
+    BigInteger b = getBigDenominator();
+    BigInteger d = f.getBigDenominator();
+    return reduce(getBigNumerator().multiply(d).subtract(f.getBigNumerator().multiply(b)),
+        b.multiply(d));
+  }
+
+  /**
+   * Multiplies this fraction by another fraction. Never overflows.
+   * <p>
+   * Cross-reduces first: with gcd(a, d) and gcd(c, b) divided out, the
+   * product of a/b and c/d is already in the simplest form and its factors
+   * are as small as they can be, so it stays in longs as long as the result
+   * itself fits.
+   *
+   * @param other the fraction to multiply by
+   * @return the fraction this * other
+   * @throws IllegalArgumentException if other is null
+   */
+  @Override
+  public Fraction multiply(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    BigFraction o = valueOf(other);
+    if (bigNumerator == null && o.bigNumerator == null) {
+      BigFraction product = multiplyLong(numerator, denominator, o.numerator, o.denominator);
+      if (product != null) {
+        return product;
+      }
+    }
+    return multiplyBig(getBigNumerator(), getBigDenominator(),
+        o.getBigNumerator(), o.getBigDenominator());
+  }
+
+  /**
+   * Divides this fraction by another fraction. Never overflows.
+   *
+   * @param other the fraction to divide by
+   * @return the fraction this / other
+   * @throws IllegalArgumentException if other is null or 0
+   */
+  @Override
+  public Fraction divide(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    BigFraction o = valueOf(other);
+    if (o.bigNumerator == null && o.numerator == 0) {
+      throw new IllegalArgumentException("Undefined: cannot divide by 0.");
+    }
+    // a/b / c/d = a/b * d/c, with the sign of c moved to the numerator
+    if (bigNumerator == null && o.bigNumerator == null && o.numerator != Long.MIN_VALUE) {
+      BigFraction quotient = o.numerator < 0
+          ? multiplyLong(numerator, denominator, -o.denominator, -o.numerator)
+          : multiplyLong(numerator, denominator, o.denominator, o.numerator);
+      if (quotient != null) {
+        return quotient;
+      }
+    }
+    BigInteger c = o.getBigNumerator();
+    BigInteger d = o.getBigDenominator();
+    return c.signum() < 0
+        ? multiplyBig(getBigNumerator(), getBigDenominator(), d.negate(), c.negate())
+        : multiplyBig(getBigNumerator(), getBigDenominator(), d, c);
+  }
+
+  /**
+   * Returns the negation of this fraction. Never overflows.
+   *
+   * @return the fraction -(this fraction)
+   */
+  @Override
+  public Fraction negate() {
+    if (bigNumerator == null && numerator != Long.MIN_VALUE) {
+      return numerator == 0 ? this : new BigFraction(-numerator, denominator);
+    }
+    return ofReduced(getBigNumerator().negate(), getBigDenominator());
+  }
+
+  /**
+   * Returns the absolute value of this fraction (this fraction itself if it
+   * is not negative). Never overflows.
+   *
+   * @return the fraction |this fraction|
+   */
+  @Override
+  public Fraction abs() {
+    int sign = bigNumerator == null ? Long.signum(numerator) : bigNumerator.signum();
+    return sign < 0 ? negate() : this;
+  }
+
+  /**
+   * Compares this fraction to the other fraction
+   *
+   * @param other the fraction to compare against
+   * @return negative if this < other, 0 if equal, positive if this > other
+   * @throws IllegalArgumentException if other is null
+   */
+  @Override
+  public int compareTo(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    BigFraction o = valueOf(other);
+    if (bigNumerator == null && o.bigNumerator == null) {
+      try {
+        return Long.compare(Math.multiplyExact(numerator, o.denominator),
+            Math.multiplyExact(o.numerator, denominator));
+      } catch (ArithmeticException overflow) {
+        // fall through to BigInteger
+      }
+    }
+    return getBigNumerator().multiply(o.getBigDenominator())
+        .compareTo(o.getBigNumerator().multiply(getBigDenominator()));
+  }
+
+  /**
+   * Two BigFractions are equal when they have the same value.
+   *
+   * @param o the object to compare with
+   * @return true if o is a BigFraction with the same value
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BigFraction)) {
+      return false;
+    }
+    BigFraction f = (BigFraction) o;
+    if (bigNumerator == null) {
+      return f.bigNumerator == null && numerator == f.numerator && denominator == f.denominator;
+    }
+    return bigNumerator.equals(f.bigNumerator) && bigDenominator.equals(f.bigDenominator);
+  }
+
+  @Override
+  public int hashCode() {
+    return bigNumerator == null
+        ? 31 * Long.hashCode(numerator) + Long.hashCode(denominator)
+        : 31 * bigNumerator.hashCode() + bigDenominator.hashCode();
+  }
+
+  /**
+   * Returns a simplified string "n / d" in the simplest form
+   *
+   * @return simplified fraction string
+   */
+  @Override
+  public String toString() {
+    return bigNumerator == null
+        ? numerator + " / " + denominator
+        : bigNumerator + " / " + bigDenominator;
+  }
+
+  // Private Helper Methods
+
+  /**
+   * Reduces n/d (d positive) and keeps it as longs.
+   */
+  private static BigFraction reduce(long n, long d) {
+    if (n == 0) {
+      return ZERO;
+    }
+    if (n == Long.MIN_VALUE) {
+      return reduce(BigInteger.valueOf(n), BigInteger.valueOf(d));
+    }
+    long g = gcd(Math.abs(n), d);
+    return new BigFraction(n / g, d / g);
+  }
+
+  /**
+   * Reduces n/d (d positive), and goes back to longs if the result fits.
+   */
+  private static BigFraction reduce(BigInteger n, BigInteger d) {
+    if (n.signum() == 0) {
+      return ZERO;
+    }
+    BigInteger g = n.gcd(d);
+    if (!g.equals(BigInteger.ONE)) {
+      n = n.divide(g);
+      d = d.divide(g);
+    }
+    return ofReduced(n, d);
+  }
+
+  /**
+   * Cross-reduced long product of a/b and c/d (both in the simplest form,
+   * b and d positive), or null if it overflows.
+   */
+  private static BigFraction multiplyLong(long a, long b, long c, long d) {
+    if (a == 0 || c == 0) {
+      return ZERO;
+    }
+    if (a == Long.MIN_VALUE || c == Long.MIN_VALUE) {
+      return null;
+    }
+    long g1 = gcd(Math.abs(a), d);
+    long g2 = gcd(Math.abs(c), b);
+    try {
+      return new BigFraction(Math.multiplyExact(a / g1, c / g2), Math.multiplyExact(b / g2, d / g1));
+    } catch (ArithmeticException overflow) {
+      return null;
+    }
+  }
+
+  /**
+   * Cross-reduced BigInteger product of a/b and c/d (both in the simplest
+   * form, b and d positive).
+   */
+  private static BigFraction multiplyBig(BigInteger a, BigInteger b, BigInteger c, BigInteger d) {
+    if (a.signum() == 0 || c.signum() == 0) {
+      return ZERO;
+    }
+    BigInteger g1 = a.gcd(d);
+    BigInteger g2 = c.gcd(b);
+    return ofReduced(a.divide(g1).multiply(c.divide(g2)), b.divide(g2).multiply(d.divide(g1)));
+  }
+
+  /**
+   * n/d already in the simplest form (d positive); back to longs if it fits.
+   */
+  private static BigFraction ofReduced(BigInteger n, BigInteger d) {
+    if (fitsInLong(n) && fitsInLong(d)) {
+      return new BigFraction(n.longValue(), d.longValue());
+    }
+    return new BigFraction(n, d);
+  }
+
+  private static boolean fitsInLong(BigInteger v) {
+    return v.compareTo(LONG_MIN) >= 0 && v.compareTo(LONG_MAX) <= 0;
+  }
+
+  /**
+   * Greatest common divisor of two non-negative longs (binary gcd, see Gcd).
+   *
+   * @param a a non-negative long
+   * @param b a non-negative long
+   * @return the greatest common divisor of a and b
+   */
+  private static long gcd(long a, long b) {
+    return Gcd.binary(a, b);
+  }
+}
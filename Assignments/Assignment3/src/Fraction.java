@@ -57,6 +57,47 @@ public interface Fraction extends Comparable<Fraction> {
    */
   Fraction add(Fraction other);
 
+  /**
+   * Subtracts another fraction from this fraction.
+   *
+   * @param other the fraction to subtract
+   * @return a Fraction representing this - other
+   * @throws IllegalArgumentException if other is null
+   */
+  Fraction subtract(Fraction other);
+
+  /**
+   * Multiplies this fraction by another fraction.
+   *
+   * @param other the fraction to multiply by
+   * @return a Fraction representing this * other
+   * @throws IllegalArgumentException if other is null
+   */
+  Fraction multiply(Fraction other);
+
+  /**
+   * Divides this fraction by another fraction.
+   *
+   * @param other the fraction to divide by
+   * @return a Fraction representing this / other
+   * @throws IllegalArgumentException if other is null or 0
+   */
+  Fraction divide(Fraction other);
+
+  /**
+   * Returns the negation of this fraction.
+   *
+   * @return a Fraction representing -this
+   */
+  Fraction negate();
+
+  /**
+   * Returns the absolute value of this fraction.
+   *
+   * @return a Fraction representing |this|
+   */
+  Fraction abs();
+
   /**
    * Compares this fraction to another fraction.
    *
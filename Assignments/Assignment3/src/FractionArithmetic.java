@@ -0,0 +1,101 @@
+/**
+ * Reduced-result arithmetic shared by the int fractions (FractionImpl and
+ * ImmutableFraction). Each class passes its own ofReduced as the Factory, so
+ * the reduction and range checks live here once and each class still builds
+ * its own instances (ImmutableFraction's from its cache).
+ * <p>
+ * Every result is in the simplest form with a positive denominator.
+ */
+final class FractionArithmetic {
+
+  /**
+   * Builds a fraction from a numerator and positive denominator that are
+   * already in the simplest form.
+   *
+   * @param <F> fraction type
+   */
+  interface Factory<F> {
+    F ofReduced(int numerator, int denominator);
+  }
+
+  private FractionArithmetic() {
+    // static helpers only
+  }
+
+  /**
+   * Reduces a long numerator / positive denominator and builds the fraction.
+   * <p>
+   * Reduce before casting to int (may shrink values a lot), then
+   * range check before casting.
+   *
+   * @param n the numerator
+   * @param d the denominator (positive)
+   * @param factory builds the result
+   * @param <F> fraction type
+   * @return the fraction in the simplest form
+   * @throws IllegalArgumentException if the reduced result is out of int range
+   */
+  static <F> F reduce(long n, long d, Factory<F> factory) {
+    if (n == 0) {
+      return factory.ofReduced(0, 1);
+    }
+    long g = Gcd.binary(Math.abs(n), d);
+    return checkedOf(n / g, d / g, factory);
+  }
+
+  /**
+   * Multiplies a/b (in the simplest form, b positive) by other, or by its
+   * reciprocal, with cross-reduction.
+   * <p>
+   * Dividing out gcd(a, d) and gcd(c, b) before multiplying leaves a
+   * product that is already in the simplest form, so no gcd of the (larger)
+   * product is needed, and the factors stay as small as possible. That only
+   * holds if c/d is in the simplest form too, which FractionImpl and
+   * ImmutableFraction always are; any other Fraction is reduced first.
+   *
+   * @param a the numerator of this fraction
+   * @param b the denominator of this fraction (positive)
+   * @param other the other fraction (not null)
+   * @param reciprocal true to multiply by 1 / other (divide)
+   * @param factory builds the result
+   * @param <F> fraction type
+   * @return the fraction in the simplest form
+   * @throws IllegalArgumentException if dividing by 0, or the result is out of int range
+   */
+  static <F> F multiply(long a, long b, Fraction other, boolean reciprocal, Factory<F> factory) {
+    long c = other.getNumerator();
+    long d = other.getDenominator();
+    if (reciprocal) {
+      if (c == 0) {
+        throw new IllegalArgumentException("Undefined: cannot divide by 0.");
+      }
+      // a/b / c/d = a/b * d/c, with the sign of c moved to the numerator
+      long t = c < 0 ? -d : d;
+      d = Math.abs(c);
+      c = t;
+    }
+    if (a == 0 || c == 0) {
+      return factory.ofReduced(0, 1);
+    }
+    if (!(other instanceof FractionImpl || other instanceof ImmutableFraction)) {
+      long g = Gcd.binary(Math.abs(c), d);
+      c /= g;
+      d /= g;
+    }
+    long g1 = Gcd.binary(Math.abs(a), d);
+    long g2 = Gcd.binary(Math.abs(c), b);
+    return checkedOf((a / g1) * (c / g2), (b / g2) * (d / g1), factory);
+  }
+
+  /**
+   * Range checks a reduced long pair and builds the fraction.
+   *
+   * @throws IllegalArgumentException if the result is out of int range
+   */
+  private static <F> F checkedOf(long n, long d, Factory<F> factory) {
+    if (n < Integer.MIN_VALUE || n > Integer.MAX_VALUE || d > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Result out of int range.");
+    }
+    return factory.ofReduced((int) n, (int) d);
+  }
+}
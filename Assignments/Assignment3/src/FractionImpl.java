@@ -25,6 +25,12 @@ public class FractionImpl implements Fraction {
     validateAndNormalize(numerator, denominator);
   }
 
+  /**
+   * Constructs an empty fraction; only used by ofReduced, which sets the fields.
+   */
+  private FractionImpl() {
+  }
+
   /**
    * Returns the numerator of this fraction.
    *
@@ -124,23 +130,88 @@ public class FractionImpl implements Fraction {
     long c = other.getNumerator();
     long d = other.getDenominator();
 
-    long newNum = a * d + c * b;
-    long newDen = b * d;
+    return FractionArithmetic.reduce(a * d + c * b, b * d, FractionImpl::ofReduced);
+  }
+
+  /**
+   * Subtracts another fraction from this fraction and returns the difference as a new Fraction.
+   *
+   * @param other the fraction to subtract
+   * @return a new Fraction representing this - other
+   * @throws IllegalArgumentException if other is null or the result is out of int range
+   */
+  @Override
+  public Fraction subtract(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+
+    // a/b - c/d = (ad - bc) / bd
+    long a = this.numerator;
+    long b = this.denominator;
+    long c = other.getNumerator();
+    long d = other.getDenominator();
+
+    return FractionArithmetic.reduce(a * d - c * b, b * d, FractionImpl::ofReduced);
+  }
 
-    // Reduce before casting to int (may shrink values a lot)
-    long g = gcdLong(Math.abs(newNum), newDen);
-    newNum /= g;
-    newDen /= g;
+  /**
+   * Multiplies this fraction by another fraction and returns the product as a new Fraction.
+   *
+   * @param other the fraction to multiply by
+   * @return a new Fraction representing this * other
+   * @throws IllegalArgumentException if other is null or the result is out of int range
+   */
+  @Override
+  public Fraction multiply(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    return FractionArithmetic.multiply(this.numerator, this.denominator, other, false,
+        FractionImpl::ofReduced);
+  }
 
-    // FractionImpl takes ints, must cast back to int.
-    // range check before casting
-    if (newNum < Integer.MIN_VALUE || newNum > Integer.MAX_VALUE
-        || newDen > Integer.MAX_VALUE) {
+  /**
+   * Divides this fraction by another fraction and returns the quotient as a new Fraction.
+   *
+   * @param other the fraction to divide by
+   * @return a new Fraction representing this / other
+   * @throws IllegalArgumentException if other is null or 0, or the result is out of int range
+   */
+  @Override
+  public Fraction divide(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    return FractionArithmetic.multiply(this.numerator, this.denominator, other, true,
+        FractionImpl::ofReduced);
+  }
+
+  /**
+   * Returns the negation of this fraction as a new Fraction.
+   *
+   * @return a new Fraction equal to -(this fraction)
+   * @throws IllegalArgumentException if the result is out of int range
+   */
+  @Override
+  public Fraction negate() {
+    if (numerator == Integer.MIN_VALUE) {
       throw new IllegalArgumentException("Result out of int range.");
     }
+    return ofReduced(-numerator, denominator);
+  }
 
-    return new FractionImpl((int) newNum, (int) newDen);
+  /**
+   * Returns the absolute value of this fraction as a new Fraction.
+   *
+   * @return a new Fraction equal to |this fraction|
+   * @throws IllegalArgumentException if the result is out of int range
+   */
+  @Override
+  public Fraction abs() {
+    return numerator < 0 ? negate() : ofReduced(numerator, denominator);
   }
+
   /**
    * Compares this fraction to the other fraction
    *
@@ -173,6 +244,21 @@ public class FractionImpl implements Fraction {
 
   // Private Helper Methods
 
+  /**
+   * Creates a fraction from a numerator and positive denominator that are
+   * already in the simplest form, without calling gcd again.
+   *
+   * @param n the numerator
+   * @param d the denominator (positive, coprime with n)
+   * @return the new fraction
+   */
+  private static FractionImpl ofReduced(int n, int d) {
+    FractionImpl f = new FractionImpl();
+    f.numerator = n;
+    f.denominator = d;
+    return f;
+  }
+
   /**
    * Validates the input numerator/denominator pair and stores the normalized
    * and simplified form
@@ -223,12 +309,10 @@ public class FractionImpl implements Fraction {
 
   /**
    * Finds the greatest common divisor (gcd) of two non-negative integers
-   * using Euclid's algorithm.
+   * using the binary gcd algorithm (see Gcd.binary).
    * <p>
-   * gcd(a, b) == gcd(b, a % b).
-   * Repeatedly replacing (a, b) with (b, a % b)
-   * until b becomes 0.
-   * The remaining value is the gcd.
+   * Euclid's algorithm needs a division (%) per step, the slowest
+   * integer instruction; binary gcd gets by with shifts and subtraction.
    * <p>
    * Precondition: a >= 0 and b >= 0.
    *
@@ -237,37 +321,6 @@ public class FractionImpl implements Fraction {
    * @return the greatest common divisor of a and b
    */
   private static int gcd(int a, int b) {
-    // Euclid's algorithm
-    while (b != 0) {
-      int r = a % b;
-      a = b;
-      b = r;
-    }
-    return a;
-  }
-
-  /**
-   * Finds the greatest common divisor (gcd) of two non-negative longs
-   * using Euclid's algorithm.
-   * <p>
-   * gcd(a, b) == gcd(b, a % b).
-   * Repeatedly replacing (a, b) with (b, a % b)
-   * until b becomes 0.
-   * The remaining value is the gcd.
-   * <p>
-   * Precondition: a >= 0 and b >= 0.
-   *
-   * @param a a non-negative long
-   * @param b a non-negative long
-   * @return the greatest common divisor of a and b
-   */
-  private static long gcdLong(long a, long b) {
-    // take
-    while (b != 0) {
-      long r = a % b;
-      a = b;
-      b = r;
-    }
-    return a;
+    return Gcd.binary(a, b);
   }
 }
@@ -0,0 +1,151 @@
+/**
+ * Greatest common divisor routines for normalizing fractions.
+ * <p>
+ * Euclid's algorithm spends almost all its time in the division behind
+ * %, one of the slowest integer instructions. Two faster schemes:
+ * <p>
+ *   binary (Stein's algorithm): gcd(a, b) = 2^k * gcd of the odd parts,
+ *   and for odd a, b: gcd(a, b) == gcd(|a - b|, min(a, b)), where |a - b| is
+ *   even, so its factors of two are stripped with one numberOfTrailingZeros
+ *   and a shift. Only subtraction, shifts, min and abs: no division. The
+ *   inner min / subtract / shift step is branch-free, but the loop around it
+ *   still exits on a data-dependent test (its trip count depends on the
+ *   inputs), so that one branch can mispredict once per call.
+ * <p>
+ *   Lehmer: run Euclid on the leading 31 bits of a and b only (cheap
+ *   single-word arithmetic), collecting the steps in a 2x2 matrix for as
+ *   long as the leading bits are sure to give the same quotients as the full
+ *   values, then apply the matrix to the full values in one go. Each round
+ *   removes about 30 bits with a handful of full-width operations. Once b
+ *   fits in an int the rest is finished with binary.
+ * <p>
+ * All methods take non-negative arguments; gcd(0, 0) is 0.
+ * See GcdBenchmark for a comparison.
+ */
+public final class Gcd {
+
+  private Gcd() {
+    // static helpers only
+  }
+
+  /**
+   * Binary gcd of two ints. a may also be Integer.MIN_VALUE, read as 2^31
+   * (the magnitude of Integer.MIN_VALUE).
+   *
+   * @param a a non-negative integer (or Integer.MIN_VALUE)
+   * @param b a non-negative integer
+   * @return the greatest common divisor of a and b
+   */
+  public static int binary(int a, int b) {
+    if (a == 0) {
+      return b;
+    }
+    if (b == 0) {
+      return a;
+    }
+    int shift = Integer.numberOfTrailingZeros(a | b);
+    a >>>= Integer.numberOfTrailingZeros(a);
+    do {
+      b >>>= Integer.numberOfTrailingZeros(b);
+      int diff = b - a;
+      a = Math.min(a, b);
+      b = Math.abs(diff);
+    } while (b != 0);
+    return a << shift;
+  }
+
+  /**
+   * Binary gcd of two longs. a may also be Long.MIN_VALUE, read as 2^63.
+   *
+   * @param a a non-negative long (or Long.MIN_VALUE)
+   * @param b a non-negative long
+   * @return the greatest common divisor of a and b
+   */
+  public static long binary(long a, long b) {
+    if (a == 0) {
+      return b;
+    }
+    if (b == 0) {
+      return a;
+    }
+    int shift = Long.numberOfTrailingZeros(a | b);
+    a >>>= Long.numberOfTrailingZeros(a);
+    do {
+      b >>>= Long.numberOfTrailingZeros(b);
+      long diff = b - a;
+      a = Math.min(a, b);
+      b = Math.abs(diff);
+    } while (b != 0);
+    return a << shift;
+  }
+
+  /**
+   * Lehmer gcd of two longs, finished with binary gcd.
+   *
+   * @param a a non-negative long
+   * @param b a non-negative long
+   * @return the greatest common divisor of a and b
+   */
+  public static long lehmer(long a, long b) {
+    if (a < b) {
+      long t = a;
+      a = b;
+      b = t;
+    }
+    while (b > Integer.MAX_VALUE) {
+      // leading 31 bits of a, and the same bits of b
+      int shift = 33 - Long.numberOfLeadingZeros(a);
+      long x = a >>> shift;
+      long y = b >>> shift;
+      long p = 1;
+      long q = 0;
+      long r = 0;
+      long s = 1;
+      // Knuth's Algorithm L: a step is safe while both bounds give the same quotient
+      while (y + r != 0 && y + s != 0) {
+        long quotient = (x + p) / (y + r);
+        if (quotient != (x + q) / (y + s)) {
+          break;
+        }
+        long t = p - quotient * r;
+        p = r;
+        r = t;
+        t = q - quotient * s;
+        q = s;
+        s = t;
+        t = x - quotient * y;
+        x = y;
+        y = t;
+      }
+      if (q == 0) {
+        // no safe step from the leading bits: one full Euclid step
+        long t = a % b;
+        a = b;
+        b = t;
+      } else {
+        // The true results fit in a long, so wrap-around in the products cancels out.
+        long t = p * a + q * b;
+        b = r * a + s * b;
+        a = t;
+      }
+    }
+    return binary(a, b);
+  }
+
+  /**
+   * Euclid's gcd of two longs (the reference the other methods are
+   * measured and tested against).
+   *
+   * @param a a non-negative long
+   * @param b a non-negative long
+   * @return the greatest common divisor of a and b
+   */
+  public static long euclid(long a, long b) {
+    while (b != 0) {
+      long r = a % b;
+      a = b;
+      b = r;
+    }
+    return a;
+  }
+}
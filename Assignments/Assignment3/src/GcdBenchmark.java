@@ -0,0 +1,123 @@
+import java.util.Random;
+
+/**
+ * Compares Euclid's, binary and Lehmer gcd over several value distributions.
+ * <p>
+ * Each distribution is a fixed array of pairs; each method is warmed up on
+ * it first so the JIT has compiled it, then timed over several passes.
+ * Every method has its own loop, so each call site sees only one method and
+ * is inlined (a shared loop over a functional interface would time the
+ * megamorphic call instead of the gcd).
+ * Prints nanoseconds per gcd.
+ * <p>
+ * Usage: java GcdBenchmark
+ */
+public class GcdBenchmark {
+
+  private static final int PAIRS = 1 << 16;
+  private static final int WARMUP_PASSES = 50;
+  private static final int MEASURE_PASSES = 100;
+
+  // method selectors for pass()
+  private static final int EUCLID = 0;
+  private static final int BINARY_INT = 1;
+  private static final int BINARY_LONG = 2;
+  private static final int LEHMER = 3;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    Random random = new Random(42);
+    long[][] small = new long[2][PAIRS];
+    long[][] ints = new long[2][PAIRS];
+    long[][] shared = new long[2][PAIRS];
+    long[][] longs = new long[2][PAIRS];
+    long[][] fib = new long[2][PAIRS];
+    for (int i = 0; i < PAIRS; i++) {
+      small[0][i] = 1 + random.nextInt(128);
+      small[1][i] = 1 + random.nextInt(128);
+      ints[0][i] = random.nextInt(Integer.MAX_VALUE);
+      ints[1][i] = 1 + random.nextInt(Integer.MAX_VALUE);
+      long factor = 1 + random.nextInt(1 << 16);
+      shared[0][i] = factor * random.nextInt(1 << 20);
+      shared[1][i] = factor * (1 + random.nextInt(1 << 20));
+      longs[0][i] = random.nextLong() >>> 1;
+      longs[1][i] = 1 + (random.nextLong() >>> 1);
+      // consecutive Fibonacci numbers: Euclid's worst case
+      int n = 40 + random.nextInt(50);
+      long f0 = 0;
+      long f1 = 1;
+      for (int k = 0; k < n; k++) {
+        long t = f0 + f1;
+        f0 = f1;
+        f1 = t;
+      }
+      fib[0][i] = f1;
+      fib[1][i] = f0;
+    }
+
+    System.out.printf("%-28s %8s %8s %8s %8s%n", "ns per gcd", "euclid", "binInt", "binLong", "lehmer");
+    report("small (1-128)", small, true);
+    report("int uniform", ints, true);
+    report("long, common factor", shared, false);
+    report("long uniform", longs, false);
+    report("long Fibonacci (worst)", fib, false);
+  }
+
+  private static void report(String name, long[][] pairs, boolean fitsInt) {
+    String binInt = fitsInt ? String.format("%8.1f", measure(pairs, BINARY_INT)) : "-";
+    System.out.printf("%-28s %8.1f %8s %8.1f %8.1f%n", name, measure(pairs, EUCLID), binInt,
+        measure(pairs, BINARY_LONG), measure(pairs, LEHMER));
+  }
+
+  /**
+   * Average nanoseconds per gcd after warmup.
+   */
+  private static double measure(long[][] pairs, int method) {
+    long sink = 0;
+    for (int p = 0; p < WARMUP_PASSES; p++) {
+      sink += pass(pairs, method);
+    }
+    long start = System.nanoTime();
+    for (int p = 0; p < MEASURE_PASSES; p++) {
+      sink += pass(pairs, method);
+    }
+    long elapsed = System.nanoTime() - start;
+    if (sink == 42) {
+      System.out.print("");   // keep the results alive
+    }
+    return elapsed / (double) MEASURE_PASSES / PAIRS;
+  }
+
+  private static long pass(long[][] pairs, int method) {
+    long[] a = pairs[0];
+    long[] b = pairs[1];
+    long sum = 0;
+    switch (method) {
+      case EUCLID:
+        for (int i = 0; i < PAIRS; i++) {
+          sum += Gcd.euclid(a[i], b[i]);
+        }
+        break;
+      case BINARY_INT:
+        for (int i = 0; i < PAIRS; i++) {
+          sum += Gcd.binary((int) a[i], (int) b[i]);
+        }
+        break;
+      case BINARY_LONG:
+        for (int i = 0; i < PAIRS; i++) {
+          sum += Gcd.binary(a[i], b[i]);
+        }
+        break;
+      default:
+        for (int i = 0; i < PAIRS; i++) {
+          sum += Gcd.lehmer(a[i], b[i]);
+        }
+        break;
+    }
+    return sum;
+  }
+}
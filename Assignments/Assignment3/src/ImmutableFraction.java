@@ -0,0 +1,326 @@
+/**
+ * Immutable implementation of Fraction with an integer numerator and
+ * a positive integer denominator, always in the simplest form.
+ * <p>
+ * Instances are made with valueOf, not a constructor. Like Integer.valueOf,
+ * valueOf hands out shared instances for small values: every n/d with
+ * n in [-128, 128] and d in [1, 128] is created once, already reduced, so
+ * asking for one costs an array read and no gcd (2/4 and 1/2 are the same
+ * instance). Other values are reduced with gcd unless they are plainly in
+ * the simplest form already (denominator 1 or numerator +-1).
+ * <p>
+ * Because an instance never changes it can be shared and cached freely;
+ * setNumerator and setDenominator throw UnsupportedOperationException.
+ */
+public final class ImmutableFraction implements Fraction {
+
+  private static final int CACHE_LOW = -128;
+  private static final int CACHE_HIGH = 128;
+  private static final int CACHE_DENOMINATORS = 128;
+  private static final ImmutableFraction[] CACHE =
+      new ImmutableFraction[(CACHE_HIGH - CACHE_LOW + 1) * CACHE_DENOMINATORS];
+
+  static {
+    // Reduced values first, so every unreduced n/d can point at its instance.
+    for (int d = 1; d <= CACHE_DENOMINATORS; d++) {
+      for (int n = CACHE_LOW; n <= CACHE_HIGH; n++) {
+        long g = gcd(Math.abs((long) n), d);
+        if (g == 1 || (n == 0 && d == 1)) {
+          CACHE[cacheIndex(n, d)] = new ImmutableFraction(n, d);
+        }
+      }
+    }
+    for (int d = 1; d <= CACHE_DENOMINATORS; d++) {
+      for (int n = CACHE_LOW; n <= CACHE_HIGH; n++) {
+        if (CACHE[cacheIndex(n, d)] == null) {
+          int g = (int) gcd(Math.abs((long) n), d);
+          CACHE[cacheIndex(n, d)] = n == 0 ? CACHE[cacheIndex(0, 1)] : CACHE[cacheIndex(n / g, d / g)];
+        }
+      }
+    }
+  }
+
+  private final int numerator;
+  private final int denominator;
+
+  private ImmutableFraction(int numerator, int denominator) {
+    this.numerator = numerator;
+    this.denominator = denominator;
+  }
+
+  /**
+   * Returns the fraction n/d in the simplest form, shared if it is small.
+   *
+   * @param numerator the numerator
+   * @param denominator the denominator (must be positive)
+   * @return the fraction
+   * @throws IllegalArgumentException if denominator is less than or equal to 0
+   */
+  public static ImmutableFraction valueOf(int numerator, int denominator) {
+    if (denominator <= 0) {
+      throw new IllegalArgumentException("Denominator must be positive.");
+    }
+    if (numerator >= CACHE_LOW && numerator <= CACHE_HIGH && denominator <= CACHE_DENOMINATORS) {
+      return CACHE[cacheIndex(numerator, denominator)];
+    }
+    if (denominator == 1 || numerator == 1 || numerator == -1) {
+      return new ImmutableFraction(numerator, denominator);
+    }
+    if (numerator == 0) {
+      return CACHE[cacheIndex(0, 1)];
+    }
+    long g = gcd(Math.abs((long) numerator), denominator);
+    return ofReduced((int) (numerator / g), (int) (denominator / g));
+  }
+
+  /**
+   * Returns the fraction n/d that the caller knows is already in the
+   * simplest form with a positive denominator; no gcd is taken.
+   */
+  static ImmutableFraction ofReduced(int numerator, int denominator) {
+    if (numerator >= CACHE_LOW && numerator <= CACHE_HIGH && denominator <= CACHE_DENOMINATORS) {
+      return CACHE[cacheIndex(numerator, denominator)];
+    }
+    return new ImmutableFraction(numerator, denominator);
+  }
+
+  /**
+   * Returns the numerator of this fraction.
+   *
+   * @return the numerator (can be negative, zero, or positive)
+   */
+  @Override
+  public int getNumerator() {
+    return numerator;
+  }
+
+  /**
+   * Returns the denominator of this fraction.
+   *
+   * @return the denominator (always positive)
+   */
+  @Override
+  public int getDenominator() {
+    return denominator;
+  }
+
+  /**
+   * Not supported: ImmutableFraction never changes.
+   *
+   * @param n ignored
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void setNumerator(int n) {
+    throw new UnsupportedOperationException("ImmutableFraction cannot be changed.");
+  }
+
+  /**
+   * Not supported: ImmutableFraction never changes.
+   *
+   * @param d ignored
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void setDenominator(int d) {
+    throw new UnsupportedOperationException("ImmutableFraction cannot be changed.");
+  }
+
+  /**
+   * Returns the decimal (double) value of this fraction.
+   *
+   * @return the numeric value as a double
+   */
+  @Override
+  public double toDouble() {
+    return ((double) numerator) / (double) denominator;
+  }
+
+  /**
+   * Returns the reciprocal of this fraction. The reciprocal of a reduced
+   * fraction is reduced too, so no gcd is needed.
+   *
+   * @return the fraction 1 / (this fraction)
+   * @throws IllegalArgumentException if this fraction is 0 (undefined), or
+   *                                  the reciprocal does not fit in int
+   */
+  @Override
+  public Fraction reciprocal() {
+    if (numerator == 0) {
+      throw new IllegalArgumentException("Undefined: cannot take reciprocal of 0.");
+    }
+    if (numerator == Integer.MIN_VALUE) {
+      throw new IllegalArgumentException("Result out of int range.");
+    }
+    return numerator < 0 ? ofReduced(-denominator, -numerator) : ofReduced(denominator, numerator);
+  }
+
+  /**
+   * Adds this fraction to another fraction.
+   *
+   * @param other the fraction to add
+   * @return the fraction this + other
+   * @throws IllegalArgumentException if other is null or the result is out of int range
+   */
+  @Override
+  public Fraction add(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+
+    // a/b + c/d = (ad + bc) / bd
+    long a = this.numerator;
+    long b = this.denominator;
+    long c = other.getNumerator();
+    long d = other.getDenominator();
+
+    return FractionArithmetic.reduce(a * d + c * b, b * d, ImmutableFraction::ofReduced);
+  }
+
+  /**
+   * Subtracts another fraction from this fraction.
+   *
+   * @param other the fraction to subtract
+   * @return the fraction this - other
+   * @throws IllegalArgumentException if other is null or the result is out of int range
+   */
+  @Override
+  public Fraction subtract(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+
+    // a/b - c/d = (ad - bc) / bd
+    long a = this.numerator;
+    long b = this.denominator;
+    long c = other.getNumerator();
+    long d = other.getDenominator();
+    return FractionArithmetic.reduce(a * d - c * b, b * d, ImmutableFraction::ofReduced);
+  }
+
+  /**
+   * Multiplies this fraction by another fraction, cross-reducing first
+   * (see FractionArithmetic.multiply).
+   *
+   * @param other the fraction to multiply by
+   * @return the fraction this * other
+   * @throws IllegalArgumentException if other is null or the result is out of int range
+   */
+  @Override
+  public Fraction multiply(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    return FractionArithmetic.multiply(numerator, denominator, other, false,
+        ImmutableFraction::ofReduced);
+  }
+
+  /**
+   * Divides this fraction by another fraction, cross-reducing first.
+   *
+   * @param other the fraction to divide by
+   * @return the fraction this / other
+   * @throws IllegalArgumentException if other is null or 0, or the result is out of int range
+   */
+  @Override
+  public Fraction divide(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    return FractionArithmetic.multiply(numerator, denominator, other, true,
+        ImmutableFraction::ofReduced);
+  }
+
+  /**
+   * Returns the negation of this fraction.
+   *
+   * @return the fraction -(this fraction)
+   * @throws IllegalArgumentException if the result is out of int range
+   */
+  @Override
+  public Fraction negate() {
+    if (numerator == Integer.MIN_VALUE) {
+      throw new IllegalArgumentException("Result out of int range.");
+    }
+    return ofReduced(-numerator, denominator);
+  }
+
+  /**
+   * Returns the absolute value of this fraction (this fraction itself if it
+   * is not negative).
+   *
+   * @return the fraction |this fraction|
+   * @throws IllegalArgumentException if the result is out of int range
+   */
+  @Override
+  public Fraction abs() {
+    return numerator < 0 ? negate() : this;
+  }
+
+  /**
+   * Compares this fraction to the other fraction
+   *
+   * @param other the fraction to compare against
+   * @return negative if this < other, 0 if equal, positive if this > other
+   * @throws IllegalArgumentException if other is null
+   */
+  @Override
+  public int compareTo(Fraction other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    long longThis = (long) this.numerator * (long) other.getDenominator();
+    long longOther = (long) other.getNumerator() * (long) this.denominator;
+    return Long.compare(longThis, longOther);
+  }
+
+  /**
+   * Two ImmutableFractions are equal when they have the same value.
+   *
+   * @param o the object to compare with
+   * @return true if o is an ImmutableFraction with the same value
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ImmutableFraction)) {
+      return false;
+    }
+    ImmutableFraction f = (ImmutableFraction) o;
+    return numerator == f.numerator && denominator == f.denominator;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * numerator + denominator;
+  }
+
+  /**
+   * Returns a simplified string "n / d" in the simplest form
+   *
+   * @return simplified fraction string
+   */
+  @Override
+  public String toString() {
+    return numerator + " / " + denominator;
+  }
+
+  // Private Helper Methods
+
+  private static int cacheIndex(int n, int d) {
+    return (n - CACHE_LOW) * CACHE_DENOMINATORS + (d - 1);
+  }
+
+  /**
+   * Greatest common divisor of two non-negative longs (binary gcd, see Gcd).
+   *
+   * @param a a non-negative long
+   * @param b a non-negative long
+   * @return the greatest common divisor of a and b
+   */
+  private static long gcd(long a, long b) {
+    return Gcd.binary(a, b);
+  }
+}
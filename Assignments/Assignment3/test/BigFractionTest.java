@@ -0,0 +1,152 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for BigFraction
+ */
+public class BigFractionTest {
+
+  /**
+   * valueOf reduces and normalizes like FractionImpl.
+   */
+  @Test
+  public void testValueOfNormalizes() {
+    assertEquals("2 / 1", BigFraction.valueOf(4, 2).toString());
+    assertEquals("-1 / 3", BigFraction.valueOf(-1000, 3000).toString());
+    assertEquals("0 / 1", BigFraction.valueOf(0, 7).toString());
+    assertEquals(BigFraction.valueOf(1, 2),
+        BigFraction.valueOf(BigInteger.TEN.pow(30), BigInteger.TWO.multiply(BigInteger.TEN.pow(30))));
+    assertEquals(BigFraction.valueOf(-2, 3), BigFraction.valueOf(new FractionImpl(-4, 6)));
+    assertThrows(IllegalArgumentException.class, () -> BigFraction.valueOf(1, 0));
+    assertThrows(IllegalArgumentException.class, () -> BigFraction.valueOf(BigInteger.ONE, BigInteger.ZERO));
+  }
+
+  /**
+   * Chained additions that overflow FractionImpl promote to BigInteger.
+   */
+  @Test
+  public void testAddPromotesInsteadOfOverflowing() {
+    Fraction big = new FractionImpl(Integer.MAX_VALUE, 1);
+    assertThrows(IllegalArgumentException.class, () -> big.add(big));
+
+    Fraction sum = BigFraction.valueOf(0, 1);
+    // 1/p for distinct primes: the denominator is their product
+    int[] primes = {1000003, 1000033, 1000037, 1000039, 1000081};
+    BigInteger product = BigInteger.ONE;
+    for (int p : primes) {
+      sum = sum.add(new FractionImpl(1, p));
+      product = product.multiply(BigInteger.valueOf(p));
+    }
+    BigFraction s = (BigFraction) sum;
+    assertTrue(s.isBig());
+    assertEquals(product, s.getBigDenominator());
+    assertThrows(ArithmeticException.class, s::getNumerator);
+    assertThrows(ArithmeticException.class, s::getDenominator);
+    assertEquals(5e-6, s.toDouble(), 1e-9);
+
+    BigFraction max = BigFraction.valueOf(Long.MAX_VALUE, 1);
+    BigFraction twice = (BigFraction) max.add(max);
+    assertEquals(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1), twice.getBigNumerator());
+  }
+
+  /**
+   * Results that fit again go back to longs.
+   */
+  @Test
+  public void testDemotesWhenValuesShrink() {
+    BigFraction max = BigFraction.valueOf(Long.MAX_VALUE, 1);
+    BigFraction twice = (BigFraction) max.add(max);
+    assertTrue(twice.isBig());
+    BigFraction back = (BigFraction) twice.add(BigFraction.valueOf(-Long.MAX_VALUE, 1));
+    assertFalse(back.isBig());
+    assertEquals(max, back);
+    assertEquals(max.hashCode(), back.hashCode());
+
+    BigFraction tiny = BigFraction.valueOf(BigInteger.ONE, BigInteger.TEN.pow(25));
+    BigFraction zero = (BigFraction) tiny.add(BigFraction.valueOf(BigInteger.ONE.negate(), BigInteger.TEN.pow(25)));
+    assertEquals("0 / 1", zero.toString());
+    assertFalse(zero.isBig());
+  }
+
+  /**
+   * reciprocal, compareTo and setters.
+   */
+  @Test
+  public void testReciprocalCompareAndSetters() {
+    assertEquals(BigFraction.valueOf(-3, 2), BigFraction.valueOf(-2, 3).reciprocal());
+    assertEquals(BigFraction.valueOf(BigInteger.ONE.negate(), BigInteger.TWO.pow(63)),
+        BigFraction.valueOf(Long.MIN_VALUE, 1).reciprocal());
+    assertThrows(IllegalArgumentException.class, () -> BigFraction.valueOf(0, 1).reciprocal());
+
+    BigFraction huge = BigFraction.valueOf(BigInteger.TEN.pow(40), BigInteger.valueOf(3));
+    assertTrue(huge.compareTo(BigFraction.valueOf(Long.MAX_VALUE, 1)) > 0);
+    assertTrue(BigFraction.valueOf(Long.MAX_VALUE, Long.MAX_VALUE - 1)
+        .compareTo(BigFraction.valueOf(Long.MAX_VALUE - 1, Long.MAX_VALUE - 2)) < 0);
+    assertEquals(0, BigFraction.valueOf(1, 2).compareTo(new FractionImpl(2, 4)));
+    assertThrows(IllegalArgumentException.class, () -> huge.compareTo(null));
+
+    assertThrows(UnsupportedOperationException.class, () -> huge.setNumerator(1));
+    assertThrows(UnsupportedOperationException.class, () -> huge.setDenominator(1));
+  }
+
+  /**
+   * Small sums match FractionImpl exactly.
+   */
+  @Test
+  public void testMatchesFractionImpl() {
+    for (int a = -20; a <= 20; a++) {
+      for (int b = 1; b <= 20; b++) {
+        Fraction expected = new FractionImpl(a, b).add(new FractionImpl(b - a, b + 3));
+        Fraction actual = BigFraction.valueOf(a, b).add(new FractionImpl(b - a, b + 3));
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.getNumerator(), actual.getNumerator());
+      }
+    }
+  }
+
+  /**
+   * subtract, multiply, divide, negate and abs never overflow and go back
+   * to longs when the result fits.
+   */
+  @Test
+  public void testFullArithmetic() {
+    BigFraction max = BigFraction.valueOf(Long.MAX_VALUE, 1);
+    BigFraction square = (BigFraction) max.multiply(max);
+    assertTrue(square.isBig());
+    assertEquals(BigInteger.valueOf(Long.MAX_VALUE).pow(2), square.getBigNumerator());
+    BigFraction back = (BigFraction) square.divide(max);
+    assertFalse(back.isBig());
+    assertEquals(max, back);
+
+    // cross-reduction keeps (MAX / 3) * (3 / MAX) in longs
+    BigFraction a = BigFraction.valueOf(Long.MAX_VALUE, 3);
+    assertEquals(BigFraction.valueOf(1, 1), a.multiply(BigFraction.valueOf(3, Long.MAX_VALUE)));
+
+    BigFraction min = BigFraction.valueOf(Long.MIN_VALUE, 1);
+    assertEquals(BigInteger.TWO.pow(63), ((BigFraction) min.negate()).getBigNumerator());
+    assertEquals(min.negate(), min.abs());
+    assertEquals(min, min.negate().negate());
+    assertEquals(BigFraction.valueOf(-1, 1), min.divide(BigFraction.valueOf(BigInteger.TWO.pow(63), BigInteger.ONE)));
+    assertEquals(BigFraction.valueOf(Long.MIN_VALUE + 1, 1), min.subtract(BigFraction.valueOf(-1, 1)));
+    assertTrue(((BigFraction) min.subtract(BigFraction.valueOf(1, 1))).isBig());
+    assertThrows(IllegalArgumentException.class, () -> a.divide(BigFraction.valueOf(0, 1)));
+    assertThrows(IllegalArgumentException.class, () -> a.multiply(null));
+
+    for (int x = -12; x <= 12; x++) {
+      for (int y = 1; y <= 12; y++) {
+        FractionImpl p = new FractionImpl(x, y);
+        FractionImpl q = new FractionImpl(y - x, y + 5);
+        Fraction bp = BigFraction.valueOf(x, y);
+        assertEquals(p.subtract(q).toString(), bp.subtract(q).toString());
+        assertEquals(p.multiply(q).toString(), bp.multiply(q).toString());
+        if (y != x) {
+          assertEquals(p.divide(q).toString(), bp.divide(q).toString());
+        }
+        assertEquals(p.negate().toString(), bp.negate().toString());
+        assertEquals(p.abs().toString(), bp.abs().toString());
+      }
+    }
+  }
+}
@@ -25,6 +25,24 @@ public class FractionImplTest {
     zero = new FractionImpl(0, 5); // should normalize to 0/1
   }
 
+  /**
+   * A Fraction with exactly the given parts, not reduced, as another
+   * implementation of the interface might return.
+   */
+  static Fraction unreduced(int numerator, int denominator) {
+    return (Fraction) java.lang.reflect.Proxy.newProxyInstance(Fraction.class.getClassLoader(),
+        new Class<?>[] {Fraction.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getNumerator":
+              return numerator;
+            case "getDenominator":
+              return denominator;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
   // ***********************Constructor tests***********************
 
   /**
@@ -421,4 +439,82 @@ public class FractionImplTest {
     assertTrue(b.compareTo(a) < 0);
   }
 
+  // *********************** subtract tests ***********************
+
+  /**
+   * subtract works across denominators and signs, and rejects null.
+   */
+  @Test
+  public void testSubtract() {
+    assertEquals("1 / 6", half.subtract(third).toString());
+    assertEquals("-1 / 1", negHalf.subtract(half).toString());
+    assertEquals("0 / 1", half.subtract(new FractionImpl(2, 4)).toString());
+    assertEquals("1 / 2", half.subtract(zero).toString());
+    assertThrows(IllegalArgumentException.class, () -> half.subtract(null));
+  }
+
+  // *********************** multiply / divide tests ***********************
+
+  /**
+   * multiply cross-reduces, so products whose raw numerator or denominator
+   * would not fit in an int still work when the result does.
+   */
+  @Test
+  public void testMultiply() {
+    assertEquals("1 / 6", half.multiply(third).toString());
+    assertEquals("-1 / 4", negHalf.multiply(half).toString());
+    assertEquals("0 / 1", half.multiply(zero).toString());
+
+    // (2e9 / 3) * (3 / 2e9) = 1, raw product 6e18 / 6e18
+    Fraction big = new FractionImpl(2_000_000_000, 3);
+    assertEquals("1 / 1", big.multiply(new FractionImpl(3, 2_000_000_000)).toString());
+    assertThrows(IllegalArgumentException.class, () -> big.multiply(new FractionImpl(7, 1)));
+    assertThrows(IllegalArgumentException.class, () -> half.multiply(null));
+  }
+
+  /**
+   * divide multiplies by the reciprocal, keeps the sign on the numerator
+   * and rejects 0 and null.
+   */
+  @Test
+  public void testDivide() {
+    assertEquals("3 / 2", half.divide(third).toString());
+    assertEquals("-1 / 1", half.divide(negHalf).toString());
+    assertEquals("0 / 1", zero.divide(negHalf).toString());
+    assertEquals("1 / 1", new FractionImpl(2_000_000_000, 3)
+        .divide(new FractionImpl(2_000_000_000, 3)).toString());
+    assertThrows(IllegalArgumentException.class, () -> half.divide(zero));
+    assertThrows(IllegalArgumentException.class, () -> half.divide(null));
+  }
+
+  /**
+   * A Fraction from another implementation may not be in the simplest form;
+   * multiply and divide still return reduced results.
+   */
+  @Test
+  public void testMultiplyDivideUnreducedOther() {
+    Fraction twoFourths = unreduced(2, 4);
+    assertEquals("1 / 4", half.multiply(twoFourths).toString());
+    assertEquals("1 / 1", half.divide(twoFourths).toString());
+    assertEquals("-3 / 2", negHalf.divide(unreduced(2, 6)).toString());
+    assertEquals("1 / 1", new FractionImpl(3, 2).multiply(unreduced(4, 6)).toString());
+  }
+
+  // *********************** negate / abs tests ***********************
+
+  /**
+   * negate and abs return new fractions and leave this one unchanged.
+   */
+  @Test
+  public void testNegateAndAbs() {
+    assertEquals("-1 / 2", half.negate().toString());
+    assertEquals("1 / 2", negHalf.negate().toString());
+    assertEquals("0 / 1", zero.negate().toString());
+    assertEquals("1 / 2", negHalf.abs().toString());
+    assertEquals("1 / 2", half.abs().toString());
+    assertNotSame(half, half.abs());
+    assertEquals("-1 / 2", negHalf.toString());
+    assertThrows(IllegalArgumentException.class,
+        () -> new FractionImpl(Integer.MIN_VALUE, 1).negate());
+  }
 }
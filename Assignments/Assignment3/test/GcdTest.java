@@ -0,0 +1,58 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for Gcd
+ */
+public class GcdTest {
+
+  /**
+   * Zeros, ones, powers of two and the MIN_VALUE magnitudes.
+   */
+  @Test
+  public void testEdgeCases() {
+    assertEquals(0, Gcd.binary(0, 0));
+    assertEquals(7, Gcd.binary(0, 7));
+    assertEquals(7, Gcd.binary(7, 0));
+    assertEquals(1, Gcd.binary(1, Integer.MAX_VALUE));
+    assertEquals(64, Gcd.binary(192, 64));
+    assertEquals(8, Gcd.binary(Integer.MIN_VALUE, 24));    // |MIN_VALUE| = 2^31
+    assertEquals(1L << 20, Gcd.binary(Long.MIN_VALUE, 3L << 20));
+    assertEquals(0L, Gcd.lehmer(0L, 0L));
+    assertEquals(Long.MAX_VALUE, Gcd.lehmer(Long.MAX_VALUE, 0L));
+    assertEquals(Long.MAX_VALUE, Gcd.lehmer(0L, Long.MAX_VALUE));
+    assertEquals(1L, Gcd.lehmer(Long.MAX_VALUE, Long.MAX_VALUE - 1));
+  }
+
+  /**
+   * Binary and Lehmer agree with Euclid on random and worst-case inputs.
+   */
+  @Test
+  public void testAgreesWithEuclid() {
+    Random random = new Random(3);
+    for (int i = 0; i < 200_000; i++) {
+      int x = random.nextInt(Integer.MAX_VALUE);
+      int y = random.nextInt(Integer.MAX_VALUE);
+      assertEquals(Gcd.euclid(x, y), Gcd.binary(x, y), x + ", " + y);
+
+      long factor = 1 + (random.nextLong() >>> (1 + random.nextInt(63)));
+      long a = (random.nextLong() >>> 1) / factor * factor;
+      long b = (random.nextLong() >>> (1 + random.nextInt(63))) / factor * factor;
+      long expected = Gcd.euclid(a, b);
+      assertEquals(expected, Gcd.binary(a, b), a + ", " + b);
+      assertEquals(expected, Gcd.lehmer(a, b), a + ", " + b);
+    }
+    long f0 = 0;
+    long f1 = 1;
+    for (int k = 0; k < 91; k++) {
+      long t = f0 + f1;
+      f0 = f1;
+      f1 = t;
+      assertEquals(1L, Gcd.binary(f1, f0));
+      assertEquals(1L, Gcd.lehmer(f1, f0));
+      assertEquals(f0, Gcd.lehmer(f0 * 2, f0));
+    }
+  }
+}
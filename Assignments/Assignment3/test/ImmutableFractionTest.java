@@ -0,0 +1,146 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ImmutableFraction
+ */
+public class ImmutableFractionTest {
+
+  // *********************** valueOf tests ***********************
+
+  /**
+   * valueOf reduces, keeps the sign on the numerator and rejects bad denominators.
+   */
+  @Test
+  public void testValueOfNormalizes() {
+    assertEquals("2 / 1", ImmutableFraction.valueOf(4, 2).toString());
+    assertEquals("-1 / 3", ImmutableFraction.valueOf(-1000, 3000).toString());
+    assertEquals("0 / 1", ImmutableFraction.valueOf(0, 999).toString());
+    assertEquals("7 / 1000", ImmutableFraction.valueOf(7, 1000).toString());
+    assertEquals("-1073741824 / 1", ImmutableFraction.valueOf(Integer.MIN_VALUE, 2).toString());
+    assertThrows(IllegalArgumentException.class, () -> ImmutableFraction.valueOf(1, 0));
+    assertThrows(IllegalArgumentException.class, () -> ImmutableFraction.valueOf(1, -2));
+  }
+
+  /**
+   * Small values are shared instances, equal values of any size are equal.
+   */
+  @Test
+  public void testSmallValuesAreInterned() {
+    assertSame(ImmutableFraction.valueOf(1, 2), ImmutableFraction.valueOf(1, 2));
+    assertSame(ImmutableFraction.valueOf(1, 2), ImmutableFraction.valueOf(64, 128));
+    assertSame(ImmutableFraction.valueOf(0, 1), ImmutableFraction.valueOf(0, 77));
+    assertSame(ImmutableFraction.valueOf(-128, 1), ImmutableFraction.valueOf(-128, 1));
+    assertSame(ImmutableFraction.valueOf(1, 2), ImmutableFraction.valueOf(500, 1000));
+
+    assertEquals(ImmutableFraction.valueOf(1000, 3), ImmutableFraction.valueOf(2000, 6));
+    assertEquals(ImmutableFraction.valueOf(1000, 3).hashCode(),
+        ImmutableFraction.valueOf(2000, 6).hashCode());
+    assertNotEquals(ImmutableFraction.valueOf(1, 2), new FractionImpl(1, 2));
+  }
+
+  /**
+   * Setters are not supported.
+   */
+  @Test
+  public void testSettersThrow() {
+    Fraction half = ImmutableFraction.valueOf(1, 2);
+    assertThrows(UnsupportedOperationException.class, () -> half.setNumerator(3));
+    assertThrows(UnsupportedOperationException.class, () -> half.setDenominator(3));
+    assertEquals("1 / 2", half.toString());
+  }
+
+  // *********************** arithmetic tests ***********************
+
+  /**
+   * reciprocal keeps the sign on the numerator and rejects 0.
+   */
+  @Test
+  public void testReciprocal() {
+    assertSame(ImmutableFraction.valueOf(-3, 2), ImmutableFraction.valueOf(-2, 3).reciprocal());
+    assertEquals(ImmutableFraction.valueOf(1000, 7), ImmutableFraction.valueOf(7, 1000).reciprocal());
+    assertThrows(IllegalArgumentException.class, () -> ImmutableFraction.valueOf(0, 1).reciprocal());
+    assertThrows(IllegalArgumentException.class,
+        () -> ImmutableFraction.valueOf(Integer.MIN_VALUE, 1).reciprocal());
+  }
+
+  /**
+   * multiply and divide reduce an operand that is not in the simplest form.
+   */
+  @Test
+  public void testMultiplyDivideUnreducedOther() {
+    Fraction half = ImmutableFraction.valueOf(1, 2);
+    assertSame(ImmutableFraction.valueOf(1, 4), half.multiply(FractionImplTest.unreduced(2, 4)));
+    assertSame(ImmutableFraction.valueOf(1, 1), half.divide(FractionImplTest.unreduced(2, 4)));
+    assertSame(ImmutableFraction.valueOf(-3, 2), half.divide(FractionImplTest.unreduced(-2, 6)));
+  }
+
+  /**
+   * add works with any Fraction and matches FractionImpl.
+   */
+  @Test
+  public void testAdd() {
+    Fraction third = ImmutableFraction.valueOf(1, 3);
+    assertSame(ImmutableFraction.valueOf(5, 6), third.add(ImmutableFraction.valueOf(1, 2)));
+    assertSame(ImmutableFraction.valueOf(0, 1), third.add(new FractionImpl(-1, 3)));
+    assertEquals("1000001 / 1000", ImmutableFraction.valueOf(1000, 1)
+        .add(ImmutableFraction.valueOf(1, 1000)).toString());
+    assertThrows(IllegalArgumentException.class,
+        () -> ImmutableFraction.valueOf(Integer.MAX_VALUE, 1).add(ImmutableFraction.valueOf(1, 1)));
+    assertThrows(IllegalArgumentException.class, () -> third.add(null));
+
+    for (int a = -20; a <= 20; a++) {
+      for (int b = 1; b <= 20; b++) {
+        Fraction expected = new FractionImpl(a, b).add(new FractionImpl(b - a, b + 3));
+        Fraction actual = ImmutableFraction.valueOf(a, b).add(ImmutableFraction.valueOf(b - a, b + 3));
+        assertEquals(expected.toString(), actual.toString());
+      }
+    }
+  }
+
+  /**
+   * compareTo and toDouble agree with the values.
+   */
+  @Test
+  public void testCompareToAndToDouble() {
+    assertTrue(ImmutableFraction.valueOf(1, 3).compareTo(ImmutableFraction.valueOf(1, 2)) < 0);
+    assertEquals(0, ImmutableFraction.valueOf(2, 4).compareTo(new FractionImpl(1, 2)));
+    assertEquals(-0.25, ImmutableFraction.valueOf(-1, 4).toDouble(), 1e-12);
+    assertThrows(IllegalArgumentException.class, () -> ImmutableFraction.valueOf(1, 3).compareTo(null));
+  }
+
+  /**
+   * subtract, multiply, divide, negate and abs match FractionImpl and reuse
+   * interned values.
+   */
+  @Test
+  public void testFullArithmetic() {
+    Fraction half = ImmutableFraction.valueOf(1, 2);
+    Fraction third = ImmutableFraction.valueOf(1, 3);
+    assertSame(ImmutableFraction.valueOf(1, 6), half.subtract(third));
+    assertSame(ImmutableFraction.valueOf(1, 6), half.multiply(third));
+    assertSame(ImmutableFraction.valueOf(3, 2), half.divide(third));
+    assertSame(ImmutableFraction.valueOf(-1, 2), half.negate());
+    assertSame(half, half.negate().abs());
+    assertEquals("1 / 1", ImmutableFraction.valueOf(2_000_000_000, 3)
+        .multiply(ImmutableFraction.valueOf(3, 2_000_000_000)).toString());
+    assertThrows(IllegalArgumentException.class, () -> half.divide(ImmutableFraction.valueOf(0, 1)));
+    assertThrows(IllegalArgumentException.class,
+        () -> ImmutableFraction.valueOf(Integer.MIN_VALUE, 1).abs());
+
+    for (int a = -12; a <= 12; a++) {
+      for (int b = 1; b <= 12; b++) {
+        FractionImpl x = new FractionImpl(a, b);
+        FractionImpl y = new FractionImpl(b - a, b + 5);
+        Fraction ix = ImmutableFraction.valueOf(a, b);
+        Fraction iy = ImmutableFraction.valueOf(b - a, b + 5);
+        assertEquals(x.subtract(y).toString(), ix.subtract(iy).toString());
+        assertEquals(x.multiply(y).toString(), ix.multiply(iy).toString());
+        if (b != a) {
+          assertEquals(x.divide(y).toString(), ix.divide(iy).toString());
+        }
+      }
+    }
+  }
+}